@@ -0,0 +1,117 @@
+package com.lampochky.cache;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hibernate second-level cache kept in this process, one {@link LruCache} per region.
+ * Region sizes and entry lifetimes are configured with {@code hibernate.cache.lru.size},
+ * {@code hibernate.cache.lru.ttl} and their per-region overrides
+ * {@code hibernate.cache.lru.<region>.size} and {@code hibernate.cache.lru.<region>.ttl}.
+ * The timestamps region never expires, otherwise cached queries could outlive table updates.
+ */
+public class LruRegionFactory extends RegionFactoryTemplate {
+    public static final String prefix = "hibernate.cache.lru.";
+    private static final int defaultSize = 1000;
+
+    private final Map<String, LruCache<Object, Object>> regions = new ConcurrentHashMap<>();
+    private Map<?, ?> settings = Collections.emptyMap();
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions options, Map configValues) {
+        settings = configValues;
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        regions.values().forEach(LruCache::clear);
+        regions.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return new LruStorageAccess(region(regionConfig.getRegionName(), true));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return new LruStorageAccess(region(regionName, true));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        return new LruStorageAccess(region(regionName, false));
+    }
+
+    public int getRegionSize(String regionName) {
+        LruCache<Object, Object> region = regions.get(regionName);
+        return region == null ? 0 : region.size();
+    }
+
+    private LruCache<Object, Object> region(String regionName, boolean expiring) {
+        return regions.computeIfAbsent(regionName, name -> {
+            int size = (int) setting(name, "size", defaultSize);
+            long ttl = expiring ? setting(name, "ttl", 0) : 0;
+            return new LruCache<>(size, ttl);
+        });
+    }
+
+    private long setting(String regionName, String key, long defaultValue) {
+        Object value = settings.get(prefix + regionName + "." + key);
+        if(value == null) {
+            value = settings.get(prefix + key);
+        }
+        return value == null ? defaultValue : Long.parseLong(value.toString().trim());
+    }
+
+    private static class LruStorageAccess implements DomainDataStorageAccess {
+        private final LruCache<Object, Object> cache;
+
+        private LruStorageAccess(LruCache<Object, Object> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return cache.get(key).orElse(null);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            cache.put(key, value);
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return cache.get(key).isPresent();
+        }
+
+        @Override
+        public void evictData() {
+            cache.clear();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            cache.remove(key);
+        }
+
+        @Override
+        public void release() {
+            cache.clear();
+        }
+    }
+}
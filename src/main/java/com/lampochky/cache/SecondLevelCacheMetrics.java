@@ -0,0 +1,58 @@
+package com.lampochky.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Hit, miss and put counts of every second-level cache region, taken from Hibernate statistics,
+ * and the number of entries in regions of an {@link LruRegionFactory}.
+ */
+public class SecondLevelCacheMetrics implements MeterBinder {
+    private final Statistics statistics;
+    private final RegionFactory regionFactory;
+
+    public SecondLevelCacheMetrics(SessionFactory sessionFactory) {
+        this.statistics = sessionFactory.getStatistics();
+        this.regionFactory = sessionFactory.unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for(String region: statistics.getSecondLevelCacheRegionNames()) {
+            counter(registry, "hibernate.cache.requests", region, "hit", CacheRegionStatistics::getHitCount);
+            counter(registry, "hibernate.cache.requests", region, "miss", CacheRegionStatistics::getMissCount);
+            FunctionCounter.builder("hibernate.cache.puts", statistics,
+                            s -> count(s, region, CacheRegionStatistics::getPutCount))
+                    .tag("region", region)
+                    .register(registry);
+            if(regionFactory instanceof LruRegionFactory) {
+                LruRegionFactory lruRegionFactory = (LruRegionFactory) regionFactory;
+                Gauge.builder("hibernate.cache.size", lruRegionFactory, f -> f.getRegionSize(region))
+                        .tag("region", region)
+                        .register(registry);
+            }
+        }
+    }
+
+    private void counter(MeterRegistry registry, String name, String region, String result,
+                         ToLongFunction<CacheRegionStatistics> count) {
+        FunctionCounter.builder(name, statistics, s -> count(s, region, count))
+                .tag("region", region)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static double count(Statistics statistics, String region, ToLongFunction<CacheRegionStatistics> count) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        return regionStatistics == null ? 0 : count.applyAsLong(regionStatistics);
+    }
+}
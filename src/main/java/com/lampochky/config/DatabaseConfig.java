@@ -2,21 +2,102 @@ package com.lampochky.config;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
-import org.springframework.beans.factory.annotation.Value;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Builds the connection pool from {@code spring.datasource.*} and {@code spring.datasource.hikari.*}.
+ * When {@code spring.datasource.read.url} is set, a second pool is built from
+ * {@code spring.datasource.read.*} and read-only transactions are routed to it.
+ */
 @Configuration
-public class DatabaseConfig {
-    @Value("${spring.datasource.url}")
-    private String dbUrl;
+public class DatabaseConfig implements DisposableBean {
+    private static final String writePrefix = "spring.datasource";
+    private static final String readPrefix = "spring.datasource.read";
+    private final Logger log = LogManager.getLogger(getClass());
+    private final Binder binder;
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Autowired
+    public DatabaseConfig(Environment environment) {
+        binder = Binder.get(environment);
+    }
 
     @Bean
     public DataSource dataSource() {
+        HikariDataSource writeDataSource = pool(writePrefix, "lampochky-write");
+        String readUrl = binder.bind(readPrefix + ".url", String.class).orElse(null);
+        if(!StringUtils.hasText(readUrl)) {
+            return writeDataSource;
+        }
+        HikariDataSource readDataSource = pool(readPrefix, "lampochky-read");
+        log.info("read-only transactions are routed to {}", readDataSource.getPoolName());
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(writeDataSource, readDataSource));
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private HikariDataSource pool(String prefix, String poolName) {
         HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(dbUrl);
-        return new HikariDataSource(config);
+        config.setPoolName(poolName);
+        config.setJdbcUrl(binder.bind(prefix + ".url", String.class).get());
+        binder.bind(prefix + ".username", String.class).ifBound(config::setUsername);
+        binder.bind(prefix + ".password", String.class).ifBound(config::setPassword);
+        if(readPrefix.equals(prefix)) {
+            config.setReadOnly(true);
+        }
+        bindLegacy(prefix, config);
+        if(config.getJdbcUrl().startsWith("jdbc:postgresql:")) {
+            bindStatementCache(config);
+        }
+        binder.bind(prefix + ".hikari", Bindable.ofInstance(config));
+        HikariDataSource dataSource = new HikariDataSource(config);
+        pools.add(dataSource);
+        return dataSource;
+    }
+
+    /**
+     * Keys of the old commons-dbcp configuration that have a Hikari counterpart.
+     * The {@code hikari.*} keys take precedence over them.
+     */
+    private void bindLegacy(String prefix, HikariConfig config) {
+        binder.bind(prefix + ".max-active", Integer.class).ifBound(size -> {
+            log.warn("{}.maxActive is deprecated, use {}.hikari.maximum-pool-size", prefix, prefix);
+            config.setMaximumPoolSize(size);
+        });
+        binder.bind(prefix + ".min-idle", Integer.class).ifBound(size -> {
+            log.warn("{}.minIdle is deprecated, use {}.hikari.minimum-idle", prefix, prefix);
+            config.setMinimumIdle(size);
+        });
+    }
+
+    /**
+     * Lets the PostgreSQL driver keep server-side prepared statements per connection,
+     * so repeated queries skip parsing and planning.
+     */
+    private void bindStatementCache(HikariConfig config) {
+        String prefix = "database.statement-cache";
+        binder.bind(prefix + ".prepare-threshold", Integer.class)
+                .ifBound(value -> config.addDataSourceProperty("prepareThreshold", value));
+        binder.bind(prefix + ".queries", Integer.class)
+                .ifBound(value -> config.addDataSourceProperty("preparedStatementCacheQueries", value));
+        binder.bind(prefix + ".size-mib", Integer.class)
+                .ifBound(value -> config.addDataSourceProperty("preparedStatementCacheSizeMiB", value));
     }
 }
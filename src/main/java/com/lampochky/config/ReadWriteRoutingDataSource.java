@@ -0,0 +1,31 @@
+package com.lampochky.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends connections of read-only transactions to the read pool and everything else to the write pool.
+ * The transaction is marked read-only only after it has begun, so this data source has to be
+ * wrapped into a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    private enum Route { READ, WRITE }
+
+    public ReadWriteRoutingDataSource(DataSource writeDataSource, DataSource readDataSource) {
+        Map<Object, Object> dataSources = new HashMap<>();
+        dataSources.put(Route.WRITE, writeDataSource);
+        dataSources.put(Route.READ, readDataSource);
+        setTargetDataSources(dataSources);
+        setDefaultTargetDataSource(writeDataSource);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.READ : Route.WRITE;
+    }
+}
@@ -0,0 +1,28 @@
+package com.lampochky.config.migration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "schema.migration.enabled", matchIfMissing = true)
+public class MigrationConfiguration {
+    @Bean(initMethod = "migrate")
+    public SchemaMigrator schemaMigrator(DataSource dataSource,
+                                         @Value("${schema.migration.location:classpath:db/migration/{vendor}}") String location,
+                                         @Value("${schema.migration.table:lampochky.schema_version}") String versionTable) {
+        return new SchemaMigrator(dataSource, location, versionTable);
+    }
+
+    /**
+     * Hibernate validates the mappings against the schema, so it starts after the migrations.
+     */
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor schemaMigratorDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor("schemaMigrator");
+    }
+}
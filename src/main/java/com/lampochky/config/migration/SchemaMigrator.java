@@ -0,0 +1,237 @@
+package com.lampochky.config.migration;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.util.FileCopyUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Applies versioned SQL scripts named {@code V<version>__<description>.sql} in version order.
+ * Scripts are looked up in a location with a {@code {vendor}} placeholder, so every database
+ * has its own dialect of the same migrations. Applied versions are recorded in a version table
+ * together with a checksum of the script, a script changed after it was applied fails the run.
+ * Instances starting at once migrate one after another under a database lock: an advisory lock
+ * on Postgres, a locked row of a lock table on H2.
+ */
+public class SchemaMigrator {
+    public static final String vendorPlaceholder = "{vendor}";
+    private static final Pattern scriptName = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final int h2LockTimeout = 600000;
+    private final Logger log = LogManager.getLogger(getClass());
+    private final DataSource dataSource;
+    private final String location;
+    private final String versionTable;
+    private final ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+
+    public SchemaMigrator(DataSource dataSource, String location, String versionTable) {
+        this.dataSource = dataSource;
+        this.location = location;
+        this.versionTable = versionTable;
+    }
+
+    public void migrate() {
+        try(Connection connection = dataSource.getConnection()) {
+            String vendor = vendor(connection.getMetaData().getDatabaseProductName());
+            List<Migration> migrations = findMigrations(location.replace(vendorPlaceholder, vendor));
+            try(MigrationLock lock = lock(connection, vendor)) {
+                createVersionTable(connection);
+                Map<Integer, Long> applied = findApplied(connection);
+                for(Migration migration: migrations) {
+                    Long checksum = applied.get(migration.version);
+                    if(checksum != null && checksum != migration.checksum) {
+                        throw new IllegalStateException("migration " + migration + " was changed after it had been applied");
+                    }
+                }
+                int count = 0;
+                for(Migration migration: migrations) {
+                    if(!applied.containsKey(migration.version)) {
+                        apply(connection, migration);
+                        ++count;
+                    }
+                }
+                log.info("{} of {} {} migrations applied", count, migrations.size(), vendor);
+            }
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("schema migration failed", e);
+        }
+    }
+
+    /**
+     * Waits until no other instance migrates the database. Postgres holds a session advisory lock
+     * on the migrating connection. H2 has no advisory locks, so a row of the lock table is locked
+     * in a transaction of its own connection, since the migrating one commits every script.
+     */
+    private MigrationLock lock(Connection connection, String vendor) throws SQLException {
+        if(vendor.equals("postgresql")) {
+            long key = lockKey();
+            try(PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_lock(?)")) {
+                statement.setLong(1, key);
+                statement.execute();
+            }
+            return () -> {
+                try(PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+                    statement.setLong(1, key);
+                    statement.execute();
+                }
+            };
+        }
+        try(Statement statement = connection.createStatement()) {
+            createSchema(statement, versionTable);
+            statement.execute("CREATE TABLE IF NOT EXISTS " + lockTable() + " (id INTEGER NOT NULL PRIMARY KEY)");
+            statement.execute("MERGE INTO " + lockTable() + " (id) KEY (id) VALUES (1)");
+        }
+        Connection lockConnection = dataSource.getConnection();
+        try {
+            lockConnection.setAutoCommit(false);
+            try(Statement statement = lockConnection.createStatement()) {
+                statement.execute("SET LOCK_TIMEOUT " + h2LockTimeout);
+                statement.executeQuery("SELECT id FROM " + lockTable() + " WHERE id = 1 FOR UPDATE").close();
+            }
+        } catch (SQLException e) {
+            lockConnection.close();
+            throw e;
+        }
+        return () -> {
+            try {
+                lockConnection.rollback();
+            } finally {
+                lockConnection.close();
+            }
+        };
+    }
+
+    private long lockKey() {
+        CRC32 crc = new CRC32();
+        crc.update(versionTable.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private String lockTable() {
+        return versionTable + "_lock";
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            ScriptUtils.executeSqlScript(connection, new EncodedResource(migration.resource, StandardCharsets.UTF_8));
+            try(PreparedStatement statement = connection.prepareStatement("INSERT INTO " + versionTable
+                    + " (version, description, checksum, installed_on) VALUES (?, ?, ?, ?)")) {
+                statement.setInt(1, migration.version);
+                statement.setString(2, migration.description);
+                statement.setLong(3, migration.checksum);
+                statement.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+                statement.executeUpdate();
+            }
+            connection.commit();
+            log.info("migration {} applied", migration);
+        } catch (RuntimeException | SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void createVersionTable(Connection connection) throws SQLException {
+        try(Statement statement = connection.createStatement()) {
+            createSchema(statement, versionTable);
+            statement.execute("CREATE TABLE IF NOT EXISTS " + versionTable + " ("
+                    + "version INTEGER NOT NULL PRIMARY KEY, "
+                    + "description VARCHAR(200) NOT NULL, "
+                    + "checksum BIGINT NOT NULL, "
+                    + "installed_on TIMESTAMP NOT NULL)");
+        }
+    }
+
+    private static void createSchema(Statement statement, String table) throws SQLException {
+        int schemaEnd = table.lastIndexOf('.');
+        if(schemaEnd > 0) {
+            statement.execute("CREATE SCHEMA IF NOT EXISTS " + table.substring(0, schemaEnd));
+        }
+    }
+
+    private Map<Integer, Long> findApplied(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try(Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery("SELECT version, checksum FROM " + versionTable)) {
+            while(resultSet.next()) {
+                applied.put(resultSet.getInt(1), resultSet.getLong(2));
+            }
+        }
+        return applied;
+    }
+
+    private List<Migration> findMigrations(String location) throws IOException {
+        Map<Integer, Migration> migrations = new TreeMap<>();
+        for(Resource resource: resolver.getResources(location + "/*.sql")) {
+            Matcher matcher = scriptName.matcher(Objects.requireNonNull(resource.getFilename()));
+            if(!matcher.matches()) {
+                throw new IllegalStateException("migration script " + resource + " is not named V<version>__<description>.sql");
+            }
+            Migration migration = new Migration(Integer.parseInt(matcher.group(1)),
+                    matcher.group(2).replace('_', ' '), resource, checksum(resource));
+            if(migrations.put(migration.version, migration) != null) {
+                throw new IllegalStateException("migration version " + migration.version + " is duplicated");
+            }
+        }
+        return new ArrayList<>(migrations.values());
+    }
+
+    private static long checksum(Resource resource) throws IOException {
+        try(InputStream stream = resource.getInputStream()) {
+            CRC32 crc = new CRC32();
+            crc.update(FileCopyUtils.copyToByteArray(stream));
+            return crc.getValue();
+        }
+    }
+
+    private static String vendor(String productName) {
+        String name = productName.toLowerCase(Locale.ROOT);
+        if(name.contains("postgres")) {
+            return "postgresql";
+        }
+        if(name.contains("h2")) {
+            return "h2";
+        }
+        throw new IllegalStateException("no migrations for database " + productName);
+    }
+
+    private interface MigrationLock extends AutoCloseable {
+        @Override
+        void close() throws SQLException;
+    }
+
+    private static class Migration {
+        private final int version;
+        private final String description;
+        private final Resource resource;
+        private final long checksum;
+
+        private Migration(int version, String description, Resource resource, long checksum) {
+            this.version = version;
+            this.description = description;
+            this.resource = resource;
+            this.checksum = checksum;
+        }
+
+        @Override
+        public String toString() {
+            return "V" + version + " " + description;
+        }
+    }
+}
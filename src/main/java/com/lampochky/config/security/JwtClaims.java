@@ -0,0 +1,49 @@
+package com.lampochky.config.security;
+
+import java.util.Date;
+
+/**
+ * Claims of a token whose signature and expiration have already been verified.
+ */
+public class JwtClaims {
+    private final String email;
+    private final Integer userId;
+    private final String username;
+    private final Date expiration;
+
+    public JwtClaims(String email, Integer userId, String username, Date expiration) {
+        this.email = email;
+        this.userId = userId;
+        this.username = username;
+        this.expiration = expiration;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Date getExpiration() {
+        return expiration;
+    }
+
+    public boolean isExpired() {
+        return expiration.before(new Date());
+    }
+
+    @Override
+    public String toString() {
+        return "JwtClaims{" +
+                "email='" + email + '\'' +
+                ", userId=" + userId +
+                ", expiration=" + expiration +
+                '}';
+    }
+}
@@ -10,6 +10,7 @@ import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
+import java.util.Optional;
 
 public class JwtTokenFilter extends GenericFilterBean {
     private JwtTokenProvider provider;
@@ -23,10 +24,13 @@ public class JwtTokenFilter extends GenericFilterBean {
                          FilterChain filterChain) throws IOException, ServletException {
         String token = provider.resolveToken((HttpServletRequest) servletRequest);
 
-        if(token != null && provider.isValid(token)) {
-            Authentication authentication = provider.getAuthentication(token);
-            if(authentication != null){
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+        if(token != null) {
+            Optional<JwtClaims> claims = provider.resolveClaims(token);
+            if(claims.isPresent()) {
+                Authentication authentication = provider.getAuthentication(claims.get());
+                if(authentication != null){
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         }
         filterChain.doFilter(servletRequest, servletResponse);
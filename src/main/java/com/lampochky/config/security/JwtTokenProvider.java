@@ -1,5 +1,8 @@
 package com.lampochky.config.security;
 
+import com.lampochky.cache.LruCache;
+import com.lampochky.database.entity.User;
+import com.lampochky.database.service.UserService;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
@@ -8,32 +11,64 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.stereotype.Component;
 
 import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Date;
+import java.util.Objects;
+import java.util.Optional;
 
 @Component
 public class JwtTokenProvider {
     private final Logger log = LogManager.getLogger(JwtTokenProvider.class);
     private final String bearerTokenPrefix = "Bearer_";
+    private final String userIdClaim = "uid";
+    private final String usernameClaim = "username";
+    private final String accessTokenParameter = "access_token";
+    private final RequestMatcher eventSubscription = new AntPathRequestMatcher("/data/project/*/events",
+            HttpMethod.GET.name());
     private final String secret;
     private final Long tokenExpiredInMillis;
+    private final boolean lightweightPrincipal;
     private final UserDetailsService service;
+    private final UserService userService;
+    private final LruCache<String, JwtClaims> claimsCache;
 
     @Autowired
     public JwtTokenProvider(@Value("${jwt.token.secret}") String secret,
                             @Value("${jwt.token.expired}") Long tokenExpiredInMillis,
-                            UserDetailsService service) {
+                            @Value("${jwt.token.cache-size:10000}") Integer cacheSize,
+                            @Value("${jwt.token.lightweight-principal:true}") boolean lightweightPrincipal,
+                            UserDetailsService service,
+                            UserService userService) {
         this.secret = Base64.getEncoder().encodeToString(secret.getBytes());
         this.tokenExpiredInMillis = tokenExpiredInMillis;
+        this.lightweightPrincipal = lightweightPrincipal;
         this.service = service;
+        this.userService = userService;
+        this.claimsCache = new LruCache<>(cacheSize);
+    }
+
+    public String createToken(User user){
+        Date now = new Date();
+        Date expiration = new Date(now.getTime() + tokenExpiredInMillis);
+        Claims claims = Jwts.claims().setSubject(user.getEmail());
+        claims.put(userIdClaim, user.getId());
+        claims.put(usernameClaim, user.getUsername());
+
+        return createToken(claims, now, expiration);
     }
 
     public String createToken(String email){
@@ -44,8 +79,10 @@ public class JwtTokenProvider {
     }
 
     public String createToken(String email, Date from, Date to) {
-        Claims claims = Jwts.claims().setSubject(email);
+        return createToken(Jwts.claims().setSubject(email), from, to);
+    }
 
+    private String createToken(Claims claims, Date from, Date to) {
         return Jwts.builder()
                 .setClaims(claims)
                 .setIssuedAt(from)
@@ -55,8 +92,17 @@ public class JwtTokenProvider {
                 .compact();
     }
 
+    /**
+     * Takes the token from the Authorization header. Subscriptions to board events may pass it in the
+     * {@code access_token} parameter instead, since browsers can not set headers of an EventSource.
+     * No other request accepts it, so tokens do not end up in URLs of the rest of the API.
+     */
     public String resolveToken(HttpServletRequest request){
         String bearerToken = request.getHeader("Authorization");
+        if(bearerToken == null && eventSubscription.matches(request)) {
+            String token = request.getParameter(accessTokenParameter);
+            bearerToken = token == null ? null : bearerTokenPrefix + token;
+        }
         if(bearerToken != null && bearerToken.startsWith(bearerTokenPrefix)){
             log.debug("Token resolving success");
             return bearerToken.substring(bearerTokenPrefix.length());
@@ -66,9 +112,54 @@ public class JwtTokenProvider {
         }
     }
 
-    public Authentication getAuthentication(String token) throws UsernameNotFoundException {
+    /**
+     * Verifies the token and returns its claims. A verified token is cached by its digest
+     * until it expires, so repeated requests with the same token skip parsing and signature checks.
+     */
+    public Optional<JwtClaims> resolveClaims(String token) {
+        String digest = digest(token);
+        Optional<JwtClaims> cached = claimsCache.get(digest);
+        if(cached.isPresent()) {
+            return cached;
+        }
+        try {
+            Claims body = Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+            if(body.getExpiration() == null) {
+                log.warn("Token without expiration rejected");
+                return Optional.empty();
+            }
+            JwtClaims claims = new JwtClaims(body.getSubject(), body.get(userIdClaim, Integer.class),
+                    body.get(usernameClaim, String.class), body.getExpiration());
+            if(claims.isExpired()) {
+                return Optional.empty();
+            }
+            claimsCache.put(digest, claims, claims.getExpiration().getTime());
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException ex) {
+            log.warn(ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Tokens carrying the user id are turned into a principal from the claims, checked against
+     * the cached account of the user instead of a full lookup. Tokens of deleted users and
+     * tokens issued before the email or username changed are rejected, on other instances
+     * once their cached account expires. Older tokens still go through the {@link UserDetailsService}.
+     */
+    public Authentication getAuthentication(JwtClaims claims) throws UsernameNotFoundException {
+        if(lightweightPrincipal && claims.getUserId() != null) {
+            Optional<User> account = userService.findAccount(claims.getUserId());
+            if(!account.isPresent() || !Objects.equals(account.get().getEmail(), claims.getEmail())
+                    || !Objects.equals(account.get().getUsername(), claims.getUsername())) {
+                log.info("Token of user {} rejected, the user is deleted or changed", claims.getUserId());
+                return null;
+            }
+            UserSecurity userDetails = UserSecurity.fromClaims(claims);
+            return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+        }
         try{
-            UserDetails userDetails = service.loadUserByUsername(getEmail(token));
+            UserDetails userDetails = service.loadUserByUsername(claims.getEmail());
             return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
         } catch (UsernameNotFoundException ex) {
             log.error(ex.getMessage());
@@ -77,16 +168,19 @@ public class JwtTokenProvider {
     }
 
     public String getEmail(String token){
-        return Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody().getSubject();
+        return resolveClaims(token).map(JwtClaims::getEmail).orElse(null);
     }
 
     public boolean isValid(String token){
+        return resolveClaims(token).isPresent();
+    }
+
+    private String digest(String token) {
         try {
-            Date expiration = Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody().getExpiration();
-            return !expiration.before(new Date());
-        } catch (JwtException | IllegalArgumentException ex) {
-            log.warn(ex.getMessage());
-            return false;
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not supported", ex);
         }
     }
 }
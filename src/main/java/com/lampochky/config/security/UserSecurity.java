@@ -13,6 +13,16 @@ public class UserSecurity implements UserDetails {
         this.user = user;
     }
 
+    /**
+     * Builds a principal from verified token claims. The user is a detached reference that carries
+     * id, username and email only, load it through UserService when its associations are needed.
+     */
+    public static UserSecurity fromClaims(JwtClaims claims) {
+        User user = new User(claims.getUsername(), null, claims.getEmail());
+        user.setId(claims.getUserId());
+        return new UserSecurity(user);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return null;
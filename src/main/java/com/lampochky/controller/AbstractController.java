@@ -4,25 +4,72 @@ import com.lampochky.database.entity.Project;
 import com.lampochky.database.entity.User;
 import com.lampochky.database.entity.UserProject;
 import com.lampochky.database.entity.UserRole;
+import com.lampochky.database.service.ChangeLogService;
 import com.lampochky.database.service.UserProjectService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
 
 public abstract class AbstractController {
     protected final Logger log;
     protected final UserProjectService userProjectService;
+    protected final ChangeLogService changeLogService;
 
-    public AbstractController(UserProjectService userProjectService) {
+    public AbstractController(UserProjectService userProjectService, ChangeLogService changeLogService) {
         this.userProjectService = userProjectService;
+        this.changeLogService = changeLogService;
         this.log = LogManager.getLogger(getClass());
     }
 
     protected UserProject getRelation(User user, Project project) {
-        return userProjectService.findByUserAndProject(user, project).orElseGet(() -> {
-                    UserProject defaultRelation = new UserProject();
-                    defaultRelation.setConfirmed(false);
-                    defaultRelation.setRole(UserRole.NO_RELATION);
-                    return defaultRelation;
-                });
+        if(user == null || project == null) {
+            return noRelation();
+        }
+        return userProjectService.findMembership(user, project);
+    }
+
+    protected UserProject noRelation() {
+        UserProject defaultRelation = new UserProject();
+        defaultRelation.setConfirmed(false);
+        defaultRelation.setRole(UserRole.NO_RELATION);
+        return defaultRelation;
+    }
+
+    /**
+     * Compares the ETag of the request with the revision of the project as seen by the user.
+     * Returns true when the response is completed with 304, then the handler returns null.
+     * Otherwise the ETag is set to the response, whose data has to be read after this call.
+     */
+    protected boolean notModified(WebRequest request, User user, Project project) {
+        long revision = changeLogService.findRevision(project);
+        return notModified(request, project.getId() + "-" + revision + "-" + user.getId());
+    }
+
+    /**
+     * Same as {@link #notModified(WebRequest, User, Project)} for the revisions of all projects of the user.
+     */
+    protected boolean notModified(WebRequest request, User user) {
+        String revisions = changeLogService.findAllByUser(user).stream()
+                .map(revision -> revision.getProjectId() + ":" + revision.getRevision())
+                .collect(Collectors.joining(","));
+        return notModified(request, "u" + user.getId() + "-"
+                + DigestUtils.md5DigestAsHex(revisions.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private boolean notModified(WebRequest request, String etag) {
+        HttpServletResponse response = request instanceof NativeWebRequest
+                ? ((NativeWebRequest) request).getNativeResponse(HttpServletResponse.class) : null;
+        if(response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        }
+        return request.checkNotModified(etag);
     }
 }
@@ -0,0 +1,173 @@
+package com.lampochky.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lampochky.config.security.UserSecurity;
+import com.lampochky.database.entity.*;
+import com.lampochky.database.repository.ActionRepository.ActionEntry;
+import com.lampochky.database.service.*;
+import com.lampochky.dto.DtoConstants;
+import com.lampochky.dto.KeysetCursor;
+import com.lampochky.dto.response.DtoBuilder;
+import com.lampochky.dto.response.action.GetActionsResponseDto;
+import com.lampochky.validation.Error;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Activity feed of projects and tasks, read from the actions recorded by the controllers.
+ */
+@RestController
+@RequestMapping("/data/action")
+public class ActionController extends AbstractController {
+    private static final MediaType ndjson = MediaType.parseMediaType(DtoConstants.ndjson);
+    private final ActionService actionService;
+    private final ProjectService projectService;
+    private final TaskService taskService;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ActionController(UserProjectService userProjectService, ChangeLogService changeLogService,
+                            ActionService actionService, ProjectService projectService, TaskService taskService,
+                            ObjectMapper objectMapper) {
+        super(userProjectService, changeLogService);
+        this.actionService = actionService;
+        this.projectService = projectService;
+        this.taskService = taskService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping("/in_project")
+    public ResponseEntity<GetActionsResponseDto> getAllInProject(@AuthenticationPrincipal UserSecurity authUser,
+                                                                 @RequestParam("id") Integer id,
+                                                                 @RequestParam(value = "cursor", required = false) String cursor,
+                                                                 @RequestParam(value = "limit", required = false) Integer limit) {
+        User user = authUser.getUser();
+        Optional<KeysetCursor> keysetCursor = cursor == null ? Optional.empty() : KeysetCursor.decode(cursor);
+        if(cursor != null && !keysetCursor.isPresent()) {
+            log.info("user {} attempts to get actions in a project {} with malformed cursor {}", user, id, cursor);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(GetActionsResponseDto
+                    .fail(id, Error.CURSOR_INVALID));
+        }
+        Optional<Project> optProject = projectService.findById(id);
+        if(!optProject.isPresent()) {
+            log.info("user {} attempts to get actions in non-existing project by id {}", user, id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(GetActionsResponseDto
+                    .fail(id, Error.PROJECT_NOT_FOUND));
+        }
+        Project project = optProject.get();
+        UserRole role = getRelation(user, project).getRole();
+        if(!role.greaterOrEquals(UserRole.GUEST)) {
+            log.info("user {} with role {} attempts to get actions in project {}", user, role, project);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(GetActionsResponseDto
+                    .fail(id, Error.PERMISSIONS_NOT_GRANTED));
+        }
+        return ResponseEntity.ok(GetActionsResponseDto.success(id,
+                actionService.findPageInProject(id, keysetCursor.orElse(null), limit)));
+    }
+
+    @GetMapping("/in_task")
+    public ResponseEntity<GetActionsResponseDto> getAllInTask(@AuthenticationPrincipal UserSecurity authUser,
+                                                              @RequestParam("id") Integer id,
+                                                              @RequestParam(value = "cursor", required = false) String cursor,
+                                                              @RequestParam(value = "limit", required = false) Integer limit) {
+        User user = authUser.getUser();
+        Optional<KeysetCursor> keysetCursor = cursor == null ? Optional.empty() : KeysetCursor.decode(cursor);
+        if(cursor != null && !keysetCursor.isPresent()) {
+            log.info("user {} attempts to get actions in a task {} with malformed cursor {}", user, id, cursor);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(GetActionsResponseDto
+                    .fail(id, Error.CURSOR_INVALID));
+        }
+        Optional<Project> optProject = findProjectOfTask(id);
+        if(!optProject.isPresent()) {
+            log.info("user {} attempts to get actions in non-existing task by id {}", user, id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(GetActionsResponseDto
+                    .fail(id, Error.TASK_NOT_FOUND));
+        }
+        Project project = optProject.get();
+        UserRole role = getRelation(user, project).getRole();
+        if(!role.greaterOrEquals(UserRole.GUEST)) {
+            log.info("user {} with role {} attempts to get actions in a task {} of project {}", user, role, id, project);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(GetActionsResponseDto
+                    .fail(id, Error.PERMISSIONS_NOT_GRANTED));
+        }
+        return ResponseEntity.ok(GetActionsResponseDto.success(id,
+                actionService.findPageInTask(id, keysetCursor.orElse(null), limit)));
+    }
+
+    /**
+     * Project of the task. The history of a deleted task stays readable by members of the project
+     * its latest action was recorded in.
+     */
+    private Optional<Project> findProjectOfTask(Integer id) {
+        Optional<Task> optTask = taskService.findById(id);
+        if(optTask.isPresent()) {
+            return Optional.of(optTask.get().getList().getProject());
+        }
+        return actionService.findProjectIdOfTask(id).flatMap(projectService::findById);
+    }
+
+    /**
+     * All actions of the project from the start of {@code from} to the end of {@code to},
+     * oldest first, one JSON object per line. Actions are written while they are read,
+     * so the export is not held in memory. Only admins export.
+     */
+    @GetMapping("/in_project/export")
+    public ResponseEntity<StreamingResponseBody> exportInProject(@AuthenticationPrincipal UserSecurity authUser,
+                                             @RequestParam("id") Integer id,
+                                             @RequestParam("from") @DateTimeFormat(pattern = DtoConstants.dateFormat) LocalDate from,
+                                             @RequestParam("to") @DateTimeFormat(pattern = DtoConstants.dateFormat) LocalDate to) {
+        User user = authUser.getUser();
+        if(from.isAfter(to)) {
+            return exportFail(HttpStatus.BAD_REQUEST, id, Error.PERIOD_INVALID);
+        }
+        Optional<Project> optProject = projectService.findById(id);
+        if(!optProject.isPresent()) {
+            log.info("user {} attempts to export actions in non-existing project by id {}", user, id);
+            return exportFail(HttpStatus.NOT_FOUND, id, Error.PROJECT_NOT_FOUND);
+        }
+        Project project = optProject.get();
+        UserRole role = getRelation(user, project).getRole();
+        if(!role.greaterOrEquals(UserRole.ADMIN)) {
+            log.info("user {} with role {} attempts to export actions in project {}", user, role, project);
+            return exportFail(HttpStatus.FORBIDDEN, id, Error.PERMISSIONS_NOT_GRANTED);
+        }
+        StreamingResponseBody body = output -> {
+            OutputStream buffered = new BufferedOutputStream(output);
+            actionService.exportInProject(id, from.atStartOfDay(), to.plusDays(1).atStartOfDay(),
+                    action -> write(buffered, action));
+            buffered.flush();
+        };
+        return ResponseEntity.ok().contentType(ndjson).body(body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportFail(HttpStatus status, Integer id, Error error) {
+        GetActionsResponseDto body = GetActionsResponseDto.fail(id, error);
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON)
+                .body(output -> output.write(objectMapper.writeValueAsBytes(body)));
+    }
+
+    private void write(OutputStream output, ActionEntry action) {
+        try {
+            output.write(objectMapper.writeValueAsBytes(DtoBuilder.buildActionDto(action)));
+            output.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -57,7 +57,7 @@ public class AuthenticationController {
                         log.error("User authenticated by email {}, but were not found", request.getEmail());
                         return new UsernameNotFoundException("No user were found via email " + request.getEmail());
                     });
-            String token = provider.createToken(user.getEmail());
+            String token = provider.createToken(user);
 
             return ResponseEntity.ok(LoginResponseDto.success(user.getUsername(), user.getEmail(), token));
         } catch (AuthenticationException ex){
@@ -71,7 +71,7 @@ public class AuthenticationController {
         if(userValidation.validate(request)){
             User user = new User(request.getUsername(), request.getPassword(), request.getEmail());
             user = userService.save(user);
-            String token = provider.createToken(user.getEmail());
+            String token = provider.createToken(user);
 
             return ResponseEntity.ok(RegisterResponseDto
                     .success(user.getUsername(), user.getEmail(), token));
@@ -1,10 +1,15 @@
 package com.lampochky.controller;
 
 import com.lampochky.database.entity.*;
+import com.lampochky.database.service.ActionService;
+import com.lampochky.database.service.ChangeLogService;
+import com.lampochky.database.service.BoardService;
 import com.lampochky.database.service.ListService;
 import com.lampochky.database.service.ProjectService;
 import com.lampochky.database.service.UserProjectService;
+import com.lampochky.dto.DtoConstants;
 import com.lampochky.dto.request.list.CreateListRequestDto;
+import com.lampochky.dto.request.list.PatchListRequestDto;
 import com.lampochky.dto.request.list.UpdateListRequestDto;
 import com.lampochky.dto.response.list.ListResponseDto;
 import com.lampochky.dto.response.list.GetListByIdResponseDto;
@@ -13,33 +18,42 @@ import com.lampochky.config.security.UserSecurity;
 import com.lampochky.validation.Error;
 import com.lampochky.validation.ListValidator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/data/list")
 public class ListController extends AbstractController{
     private final ProjectService projectService;
     private final ListService listService;
+    private final BoardService boardService;
+    private final ActionService actionService;
     private final ListValidator validator;
 
     @Autowired
-    public ListController(UserProjectService userProjectService, ProjectService projectService,
-                          ListService listService) {
-        super(userProjectService);
+    public ListController(UserProjectService userProjectService, ChangeLogService changeLogService,
+                          ProjectService projectService, ListService listService, BoardService boardService,
+                          ActionService actionService) {
+        super(userProjectService, changeLogService);
         this.projectService = projectService;
         this.listService = listService;
+        this.boardService = boardService;
+        this.actionService = actionService;
         this.validator = new ListValidator();
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<GetListByIdResponseDto> getById(@AuthenticationPrincipal UserSecurity authUser,
-                                                          @PathVariable("id") Integer id) {
+                                                          @PathVariable("id") Integer id,
+                                                          WebRequest request) {
         User user = authUser.getUser();
         Optional<TaskList> optList = listService.findById(id);
         if(!optList.isPresent()) {
@@ -54,13 +68,18 @@ public class ListController extends AbstractController{
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(GetListByIdResponseDto
                     .fail(id, Error.PERMISSIONS_NOT_GRANTED));
         }
-        return ResponseEntity.ok(GetListByIdResponseDto.success(taskList));
+        if(notModified(request, user, taskList.getProject())) {
+            return null;
+        }
+        taskList = listService.findById(id).orElse(taskList);
+        return ResponseEntity.ok(GetListByIdResponseDto.success(boardService.findByList(taskList)));
     }
 
     @GetMapping("/in_project")
     public ResponseEntity<GetListsInProjectResponseDto> getAllInProject(
             @AuthenticationPrincipal UserSecurity authUser,
-            @RequestParam(name = "id") Integer projectId){
+            @RequestParam(name = "id") Integer projectId,
+            WebRequest request){
         User user = authUser.getUser();
         Optional<Project> optProject = projectService.findById(projectId);
 
@@ -75,8 +94,10 @@ public class ListController extends AbstractController{
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(GetListsInProjectResponseDto
                     .fail(projectId, Error.PERMISSIONS_NOT_GRANTED));
         }
-        List<TaskList> taskLists = project.getLists();
-        return ResponseEntity.ok(GetListsInProjectResponseDto.success(projectId, taskLists));
+        if(notModified(request, user, project)) {
+            return null;
+        }
+        return ResponseEntity.ok(GetListsInProjectResponseDto.success(boardService.findListsByProject(project)));
     }
 
     @PostMapping
@@ -102,6 +123,7 @@ public class ListController extends AbstractController{
         TaskList taskList = new TaskList(null, request.getName(), project);
         if(validator.validate(taskList)) {
             taskList = listService.save(taskList);
+            actionService.record(ActionType.LIST_CREATED, user, taskList);
             return ResponseEntity.ok(ListResponseDto.success(taskList));
         } else {
             return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(ListResponseDto
@@ -113,7 +135,21 @@ public class ListController extends AbstractController{
     public ResponseEntity<ListResponseDto> update(@AuthenticationPrincipal UserSecurity authUser,
                                                   @PathVariable("id") Integer id,
                                                   @RequestBody UpdateListRequestDto request) {
-        User user = authUser.getUser();
+        return update(authUser.getUser(), id, request.getVersion(), taskList -> taskList.setName(request.getName()));
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {DtoConstants.mergePatchJson, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ListResponseDto> patch(@AuthenticationPrincipal UserSecurity authUser,
+                                                 @PathVariable("id") Integer id,
+                                                 @RequestBody PatchListRequestDto request) {
+        return update(authUser.getUser(), id, request.getVersion(), taskList -> {
+            if(request.has("name")) {
+                taskList.setName(request.getName());
+            }
+        });
+    }
+
+    private ResponseEntity<ListResponseDto> update(User user, Integer id, Long version, Consumer<TaskList> changes) {
         Optional<TaskList> optTaskList = listService.findById(id);
         if(!optTaskList.isPresent()) {
             log.info("user {} attempts to modify non-existing list by id {}", user, id);
@@ -127,9 +163,20 @@ public class ListController extends AbstractController{
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ListResponseDto
                     .fail(Error.PERMISSIONS_NOT_GRANTED));
         }
-        taskList.setName(request.getName());
+        changes.accept(taskList);
+        if(version != null) {
+            taskList.setVersion(version);
+        }
         if(validator.validate(taskList)){
-            taskList = listService.save(taskList);
+            try {
+                taskList = listService.save(taskList);
+            } catch (OptimisticLockingFailureException ex) {
+                log.info("user {} attempts to modify list {} changed since version {}",
+                        user, taskList, version);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(ListResponseDto
+                        .fail(Error.VERSION_CONFLICT));
+            }
+            actionService.record(ActionType.LIST_UPDATED, user, taskList);
             return ResponseEntity.ok(ListResponseDto.success(taskList));
         } else {
             return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(ListResponseDto
@@ -155,6 +202,7 @@ public class ListController extends AbstractController{
                     .fail(Error.PERMISSIONS_NOT_GRANTED));
         }
         listService.delete(taskList);
+        actionService.record(ActionType.LIST_DELETED, user, taskList);
         return ResponseEntity.ok(ListResponseDto.success(taskList));
     }
 }
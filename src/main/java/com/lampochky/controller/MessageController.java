@@ -1,26 +1,34 @@
 package com.lampochky.controller;
 
 import com.lampochky.database.entity.*;
+import com.lampochky.database.service.ChangeLogService;
+import com.lampochky.database.service.KeysetPage;
 import com.lampochky.database.service.MessageService;
 import com.lampochky.database.service.TaskService;
 import com.lampochky.database.service.UserProjectService;
 import com.lampochky.database.service.UserService;
 import com.lampochky.dto.request.message.CreateMessageRequestDto;
+import com.lampochky.dto.request.message.PatchMessageRequestDto;
 import com.lampochky.dto.request.message.UpdateMessageRequestDto;
 import com.lampochky.dto.response.message.GetMessageByIdResponseDto;
 import com.lampochky.dto.response.message.GetMessagesInTaskResponseDto;
 import com.lampochky.dto.response.message.MessageResponseDto;
 import com.lampochky.config.security.UserSecurity;
+import com.lampochky.dto.DtoConstants;
+import com.lampochky.dto.KeysetCursor;
 import com.lampochky.validation.Error;
 import com.lampochky.validation.MessageValidator;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/data/message")
@@ -30,9 +38,9 @@ public class MessageController extends AbstractController{
     private final MessageService messageService;
     private final MessageValidator validator;
 
-    public MessageController(UserProjectService userProjectService, UserService userService, TaskService taskService,
-                             MessageService messageService) {
-        super(userProjectService);
+    public MessageController(UserProjectService userProjectService, ChangeLogService changeLogService,
+                             UserService userService, TaskService taskService, MessageService messageService) {
+        super(userProjectService, changeLogService);
         this.userService = userService;
         this.taskService = taskService;
         this.messageService = messageService;
@@ -41,7 +49,8 @@ public class MessageController extends AbstractController{
 
     @GetMapping("/{id}")
     public ResponseEntity<GetMessageByIdResponseDto> getById(@AuthenticationPrincipal UserSecurity userSecurity,
-                                                             @PathVariable("id") Integer id) {
+                                                             @PathVariable("id") Integer id,
+                                                             WebRequest request) {
         User user = userSecurity.getUser();
         Optional<Message> optMessage = messageService.findById(id);
         if(!optMessage.isPresent()) {
@@ -56,13 +65,37 @@ public class MessageController extends AbstractController{
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(GetMessageByIdResponseDto
                     .fail(id, Error.PERMISSIONS_NOT_GRANTED));
         }
+        if(notModified(request, user, message.getTask().getList().getProject())) {
+            return null;
+        }
+        message = messageService.findById(id).orElse(message);
         return ResponseEntity.ok(GetMessageByIdResponseDto.success(message));
     }
 
     @GetMapping("/in_task")
-    public ResponseEntity<GetMessagesInTaskResponseDto> getAllInTask(@AuthenticationPrincipal UserSecurity userSecurity,
-                                                                     @RequestParam("id") Integer id) {
+    public ResponseEntity<GetMessagesInTaskResponseDto> getAllInTask(
+            @AuthenticationPrincipal UserSecurity userSecurity,
+            @RequestParam("id") Integer id,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "direction", defaultValue = "older") String direction,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            WebRequest request) {
         User user = userSecurity.getUser();
+        if(!direction.equals("older") && !direction.equals("newer")) {
+            log.info("user {} attempts to get messages in a task {} in unknown direction {}", user, id, direction);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(GetMessagesInTaskResponseDto
+                    .fail(id, Error.DIRECTION_INVALID));
+        }
+        KeysetCursor keysetCursor = null;
+        if(cursor != null) {
+            Optional<KeysetCursor> optCursor = KeysetCursor.decode(cursor);
+            if(!optCursor.isPresent()) {
+                log.info("user {} attempts to get messages in a task {} with malformed cursor {}", user, id, cursor);
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(GetMessagesInTaskResponseDto
+                        .fail(id, Error.CURSOR_INVALID));
+            }
+            keysetCursor = optCursor.get();
+        }
         Optional<Task> optTask = taskService.findById(id);
         if(!optTask.isPresent()) {
             log.info("user {} attempts get all messages in non-existing task by id {}", user, id);
@@ -77,8 +110,12 @@ public class MessageController extends AbstractController{
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(GetMessagesInTaskResponseDto
                     .fail(id, Error.PERMISSIONS_NOT_GRANTED));
         }
-        List<Message> messages = messageService.findAllInTaskSortByDate(task);
-        return ResponseEntity.ok(GetMessagesInTaskResponseDto.success(task.getId(), messages));
+        if(notModified(request, user, task.getList().getProject())) {
+            return null;
+        }
+        KeysetPage<Message> page = messageService.findPageInTask(task, keysetCursor,
+                direction.equals("newer"), limit);
+        return ResponseEntity.ok(GetMessagesInTaskResponseDto.success(task.getId(), page));
     }
 
     @PostMapping
@@ -114,7 +151,22 @@ public class MessageController extends AbstractController{
     public ResponseEntity<MessageResponseDto> update(@AuthenticationPrincipal UserSecurity userSecurity,
                                                      @PathVariable("id") Integer id,
                                                      @RequestBody UpdateMessageRequestDto request) {
-        User user = userSecurity.getUser();
+        return update(userSecurity.getUser(), id, request.getVersion(), message -> message.setText(request.getText()));
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {DtoConstants.mergePatchJson, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<MessageResponseDto> patch(@AuthenticationPrincipal UserSecurity userSecurity,
+                                                    @PathVariable("id") Integer id,
+                                                    @RequestBody PatchMessageRequestDto request) {
+        return update(userSecurity.getUser(), id, request.getVersion(), message -> {
+            if(request.has("text")) {
+                message.setText(request.getText());
+            }
+        });
+    }
+
+    private ResponseEntity<MessageResponseDto> update(User user, Integer id, Long version,
+                                                      Consumer<Message> changes) {
         Optional<Message> optMessage = messageService.findById(id);
         if(!optMessage.isPresent()) {
             log.info("user {} attempts to update non-existing message by id {}",
@@ -129,9 +181,19 @@ public class MessageController extends AbstractController{
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(MessageResponseDto
                     .fail(Error.PERMISSIONS_NOT_GRANTED));
         }
-        message.setText(request.getText());
+        changes.accept(message);
+        if(version != null) {
+            message.setVersion(version);
+        }
         if(validator.validate(message)) {
-            message = messageService.save(message);
+            try {
+                message = messageService.save(message);
+            } catch (OptimisticLockingFailureException ex) {
+                log.info("user {} attempts to update a message {} changed since version {}",
+                        user, message, version);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(MessageResponseDto
+                        .fail(Error.VERSION_CONFLICT));
+            }
             return ResponseEntity.ok(MessageResponseDto.success(message));
         } else {
             return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(MessageResponseDto
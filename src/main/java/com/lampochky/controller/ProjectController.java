@@ -4,6 +4,9 @@ import com.lampochky.database.entity.Project;
 import com.lampochky.database.entity.User;
 import com.lampochky.database.entity.UserProject;
 import com.lampochky.database.entity.UserRole;
+import com.lampochky.database.service.ChangeLogService;
+import com.lampochky.database.service.BoardChanges;
+import com.lampochky.database.service.BoardService;
 import com.lampochky.database.service.ProjectService;
 import com.lampochky.database.service.UserProjectService;
 import com.lampochky.database.service.UserService;
@@ -12,14 +15,20 @@ import com.lampochky.dto.request.project.InviteProjectRequestDto;
 import com.lampochky.dto.request.project.ProjectRequestDto;
 import com.lampochky.dto.response.project.*;
 import com.lampochky.config.security.UserSecurity;
+import com.lampochky.events.BoardEventBroadcaster;
 import com.lampochky.validation.Error;
 import com.lampochky.validation.ProjectValidator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -29,19 +38,25 @@ import java.util.Optional;
 public class ProjectController extends AbstractController{
     private final ProjectService projectService;
     private final UserService userService;
+    private final BoardService boardService;
+    private final BoardEventBroadcaster eventBroadcaster;
     private final ProjectValidator projectValidator = new ProjectValidator();
 
     @Autowired
-    public ProjectController(UserProjectService userProjectService, ProjectService projectService,
-                             UserService userService) {
-        super(userProjectService);
+    public ProjectController(UserProjectService userProjectService, ChangeLogService changeLogService,
+                             ProjectService projectService, UserService userService, BoardService boardService,
+                             BoardEventBroadcaster eventBroadcaster) {
+        super(userProjectService, changeLogService);
         this.userService = userService;
         this.projectService = projectService;
+        this.boardService = boardService;
+        this.eventBroadcaster = eventBroadcaster;
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<GetProjectByIdResponseDto> getById(@AuthenticationPrincipal UserSecurity authUser,
-                                                             @PathVariable("id") Integer id){
+                                                             @PathVariable("id") Integer id,
+                                                             WebRequest request){
         User user = authUser.getUser();
         Optional<Project> optProject = projectService.findById(id);
         if(!optProject.isPresent()){
@@ -55,20 +70,108 @@ public class ProjectController extends AbstractController{
             log.info("user {} attempts to get project {} with role {}", user, project, role);
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(GetProjectByIdResponseDto
                     .fail(id, Error.PERMISSIONS_NOT_GRANTED));
-        } else {
-            return ResponseEntity.ok(GetProjectByIdResponseDto.success(project, role));
         }
+        if(notModified(request, user, project)) {
+            return null;
+        }
+        return boardService.findByProjectId(id)
+                .map(board -> ResponseEntity.ok(GetProjectByIdResponseDto.success(board, role)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(GetProjectByIdResponseDto
+                        .fail(id, Error.PROJECT_NOT_FOUND)));
     }
 
-    @GetMapping("/all")
-    public ResponseEntity<GetAllProjectsResponseDto> getAll(@AuthenticationPrincipal UserSecurity authUser){
-        /** required for lazy loading */
-        User user = userService.findById(authUser.getUser().getId()).orElseGet(() -> {
-            log.error("Can not find authenticated user {}", authUser.getUser());
+    /**
+     * Entities changed after the revision {@code since}. The revision of the response is
+     * the one to request next changes since. A revision the read replica has not reached yet,
+     * but the primary database has, is answered with no changes. Changes since a revision that
+     * is not kept anymore are answered with 410, then the whole project has to be loaded again.
+     */
+    @GetMapping("/{id}/changes")
+    public ResponseEntity<GetProjectChangesResponseDto> getChanges(@AuthenticationPrincipal UserSecurity authUser,
+                                                                   @PathVariable("id") Integer id,
+                                                                   @RequestParam("since") Long since,
+                                                                   WebRequest request){
+        User user = authUser.getUser();
+        Optional<Project> optProject = projectService.findById(id);
+        if(!optProject.isPresent()){
+            log.info("user {} attempts to get changes of non-existing project by id {}", user, id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(GetProjectChangesResponseDto
+                    .fail(id, since, Error.PROJECT_NOT_FOUND));
+        }
+        Project project = optProject.get();
+        UserRole role = getRelation(user, project).getRole();
+        if(!role.greaterOrEquals(UserRole.GUEST)){
+            log.info("user {} attempts to get changes of project {} with role {}", user, project, role);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(GetProjectChangesResponseDto
+                    .fail(id, since, Error.PERMISSIONS_NOT_GRANTED));
+        }
+        if(since < 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(GetProjectChangesResponseDto
+                    .fail(id, since, Error.REVISION_INVALID));
+        }
+        if(notModified(request, user, project)) {
             return null;
-        });
+        }
+        BoardChanges changes = boardService.findChanges(project, since);
+        if(changes.getRevision() < since) {
+            if(changeLogService.findRevision(project) < since) {
+                log.info("user {} attempts to get changes of project {} since future revision {}", user, project, since);
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(GetProjectChangesResponseDto
+                        .fail(id, since, Error.REVISION_INVALID));
+            }
+            changes = new BoardChanges(changes.getProject(), since, since);
+        }
+        if(changes.isExpired()) {
+            log.info("user {} attempts to get changes of project {} since expired revision {}", user, project, since);
+            return ResponseEntity.status(HttpStatus.GONE).body(GetProjectChangesResponseDto
+                    .fail(id, since, Error.CHANGES_EXPIRED));
+        }
+        return ResponseEntity.ok(GetProjectChangesResponseDto.success(changes));
+    }
 
-        return ResponseEntity.ok(GetAllProjectsResponseDto.success(user.getProjects()));
+    /**
+     * Stream of board events: "revision" once subscribed, "change" for every new revision and
+     * "deleted" when the project is deleted. Errors are sent as a single "error" event.
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> getEvents(@AuthenticationPrincipal UserSecurity authUser,
+                                                @PathVariable("id") Integer id){
+        User user = authUser.getUser();
+        Optional<Project> optProject = projectService.findById(id);
+        if(!optProject.isPresent()){
+            log.info("user {} attempts to subscribe to non-existing project by id {}", user, id);
+            return eventsFail(HttpStatus.NOT_FOUND, id, Error.PROJECT_NOT_FOUND);
+        }
+        Project project = optProject.get();
+        UserRole role = getRelation(user, project).getRole();
+        if(!role.greaterOrEquals(UserRole.GUEST)){
+            log.info("user {} attempts to subscribe to project {} with role {}", user, project, role);
+            return eventsFail(HttpStatus.FORBIDDEN, id, Error.PERMISSIONS_NOT_GRANTED);
+        }
+        long revision = changeLogService.findRevision(project);
+        return ResponseEntity.ok(eventBroadcaster.subscribe(project, user, revision));
+    }
+
+    private ResponseEntity<SseEmitter> eventsFail(HttpStatus status, Integer id, Error error) {
+        SseEmitter emitter = new SseEmitter();
+        try {
+            emitter.send(SseEmitter.event().name("error")
+                    .data(GetProjectByIdResponseDto.fail(id, error), MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException ex) {
+            emitter.completeWithError(ex);
+        }
+        return ResponseEntity.status(status).body(emitter);
+    }
+
+    @GetMapping("/all")
+    public ResponseEntity<GetAllProjectsResponseDto> getAll(@AuthenticationPrincipal UserSecurity authUser,
+                                                            WebRequest request){
+        User user = authUser.getUser();
+        if(notModified(request, user)) {
+            return null;
+        }
+        return ResponseEntity.ok(GetAllProjectsResponseDto.success(userProjectService.findAllByUser(user)));
     }
 
     @PostMapping
@@ -137,6 +240,9 @@ public class ProjectController extends AbstractController{
         }
         Project project = optProject.get();
         project.setName(request.getName());
+        if(request.getVersion() != null) {
+            project.setVersion(request.getVersion());
+        }
         UserRole role = getRelation(user, project).getRole();
         if(!role.greaterOrEquals(UserRole.ADMIN)) {
             log.info("user {} attempts to update project {} with role {}",
@@ -144,7 +250,15 @@ public class ProjectController extends AbstractController{
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ProjectResponseDto
                     .fail(Error.PERMISSIONS_NOT_GRANTED));
         } else if(projectValidator.validate(project)){
-            Project savedProject = projectService.save(project);
+            Project savedProject;
+            try {
+                savedProject = projectService.save(project);
+            } catch (OptimisticLockingFailureException ex) {
+                log.info("user {} attempts to update project {} changed since version {}",
+                        user, project, request.getVersion());
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(ProjectResponseDto
+                        .fail(Error.VERSION_CONFLICT));
+            }
             return ResponseEntity.ok(ProjectResponseDto.success(savedProject, role));
         } else {
             return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(ProjectResponseDto
@@ -165,7 +279,8 @@ public class ProjectController extends AbstractController{
                     .fail(projectId, Error.PROJECT_NOT_FOUND));
         }
         Project project = optProject.get();
-        UserProject relation = getRelation(user, project);
+        UserProject relation = userProjectService.findByUserAndProject(user, project)
+                .orElseGet(this::noRelation);
         if(relation.getRole() == UserRole.NO_RELATION) {
             log.info("user {} attempts to confirm non-existing invition to project {}", user, project);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(InviteAnswerProjectResponseDto
@@ -205,6 +320,7 @@ public class ProjectController extends AbstractController{
                     .fail(Error.PERMISSIONS_NOT_GRANTED));
         }
         projectService.delete(project);
+        userProjectService.evictProject(project);
         return ResponseEntity.ok(ProjectResponseDto.success(project, relation.getRole()));
     }
 }
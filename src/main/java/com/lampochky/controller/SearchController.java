@@ -0,0 +1,81 @@
+package com.lampochky.controller;
+
+import com.lampochky.config.security.UserSecurity;
+import com.lampochky.database.entity.Project;
+import com.lampochky.database.entity.User;
+import com.lampochky.database.entity.UserRole;
+import com.lampochky.database.service.ChangeLogService;
+import com.lampochky.database.service.ProjectService;
+import com.lampochky.database.service.UserProjectService;
+import com.lampochky.dto.response.search.SearchResponseDto;
+import com.lampochky.search.SearchIndex;
+import com.lampochky.search.Tokenizer;
+import com.lampochky.validation.Error;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Full-text search over names and descriptions of tasks and texts of messages in a project.
+ */
+@RestController
+@RequestMapping("/data/search")
+public class SearchController extends AbstractController {
+    private final ProjectService projectService;
+    private final SearchIndex searchIndex;
+    private final int pageSize;
+    private final int maxPageSize;
+
+    @Autowired
+    public SearchController(UserProjectService userProjectService, ChangeLogService changeLogService,
+                            ProjectService projectService, SearchIndex searchIndex,
+                            @Value("${search.page.size:20}") Integer pageSize,
+                            @Value("${search.page.max-size:100}") Integer maxPageSize) {
+        super(userProjectService, changeLogService);
+        this.projectService = projectService;
+        this.searchIndex = searchIndex;
+        this.pageSize = pageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Tasks and messages containing every word of the query, the last one may be incomplete.
+     */
+    @GetMapping
+    public ResponseEntity<SearchResponseDto> search(@AuthenticationPrincipal UserSecurity authUser,
+                                                    @RequestParam("project") Integer projectId,
+                                                    @RequestParam("q") String query,
+                                                    @RequestParam(value = "limit", required = false) Integer limit) {
+        User user = authUser.getUser();
+        Set<String> words = new LinkedHashSet<>(Tokenizer.tokenize(query));
+        if(words.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(SearchResponseDto
+                    .fail(projectId, Error.SEARCH_QUERY_INVALID));
+        }
+        Optional<Project> optProject = projectService.findById(projectId);
+        if(!optProject.isPresent()) {
+            log.info("user {} attempts to search in non-existing project by id {}", user, projectId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(SearchResponseDto
+                    .fail(projectId, Error.PROJECT_NOT_FOUND));
+        }
+        Project project = optProject.get();
+        UserRole role = getRelation(user, project).getRole();
+        if(!role.greaterOrEquals(UserRole.GUEST)) {
+            log.info("user {} with role {} attempts to search in project {}", user, role, project);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(SearchResponseDto
+                    .fail(projectId, Error.PERMISSIONS_NOT_GRANTED));
+        }
+        int size = limit == null ? pageSize : Math.max(1, Math.min(limit, maxPageSize));
+        return ResponseEntity.ok(SearchResponseDto.success(projectId, searchIndex.search(projectId, words, size)));
+    }
+}
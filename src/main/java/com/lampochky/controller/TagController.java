@@ -1,11 +1,14 @@
 package com.lampochky.controller;
 
 import com.lampochky.database.entity.*;
+import com.lampochky.database.service.ChangeLogService;
 import com.lampochky.database.service.ProjectService;
 import com.lampochky.database.service.TagService;
 import com.lampochky.database.service.UserProjectService;
 import com.lampochky.database.service.UserService;
+import com.lampochky.dto.DtoConstants;
 import com.lampochky.dto.request.tag.CreateTagRequestDto;
+import com.lampochky.dto.request.tag.PatchTagRequestDto;
 import com.lampochky.dto.request.tag.UpdateTagRequestDto;
 import com.lampochky.dto.response.tag.GetTagByIdResponseDto;
 import com.lampochky.dto.response.tag.GetTagsInProjectResponseDto;
@@ -14,14 +17,18 @@ import com.lampochky.config.security.UserSecurity;
 import com.lampochky.validation.Error;
 import com.lampochky.validation.TagValidator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Controller
 @RequestMapping("/data/tag")
@@ -32,9 +39,9 @@ public class TagController extends AbstractController{
     private final TagValidator validator;
 
     @Autowired
-    public TagController(UserProjectService userProjectService, UserService userService, TagService tagService,
-                         ProjectService projectService) {
-        super(userProjectService);
+    public TagController(UserProjectService userProjectService, ChangeLogService changeLogService,
+                         UserService userService, TagService tagService, ProjectService projectService) {
+        super(userProjectService, changeLogService);
         this.userService = userService;
         this.tagService = tagService;
         this.projectService = projectService;
@@ -43,7 +50,8 @@ public class TagController extends AbstractController{
 
     @GetMapping("{id}")
     public ResponseEntity<GetTagByIdResponseDto> getById(@AuthenticationPrincipal UserSecurity userSecurity,
-                                                         @PathVariable("id") Integer id){
+                                                         @PathVariable("id") Integer id,
+                                                         WebRequest request){
         User user = userSecurity.getUser();
         Optional<Tag> optTag = tagService.findById(id);
         if(!optTag.isPresent()) {
@@ -58,12 +66,17 @@ public class TagController extends AbstractController{
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(GetTagByIdResponseDto
                     .fail(id, Error.PERMISSIONS_NOT_GRANTED));
         }
+        if(notModified(request, user, tag.getProject())) {
+            return null;
+        }
+        tag = tagService.findById(id).orElse(tag);
         return ResponseEntity.ok(GetTagByIdResponseDto.success(tag));
     }
 
     @GetMapping("/in_project")
     public ResponseEntity<GetTagsInProjectResponseDto> getInProject(@AuthenticationPrincipal UserSecurity userSecurity,
-                                                                    @RequestParam("id") Integer projectId) {
+                                                                    @RequestParam("id") Integer projectId,
+                                                                    WebRequest request) {
         User user = userSecurity.getUser();
         Optional<Project> optProject = projectService.findById(projectId);
         if(!optProject.isPresent()) {
@@ -79,7 +92,10 @@ public class TagController extends AbstractController{
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(GetTagsInProjectResponseDto
                     .fail(projectId, Error.PERMISSIONS_NOT_GRANTED));
         }
-        List<Tag> tags = project.getTags();
+        if(notModified(request, user, project)) {
+            return null;
+        }
+        List<Tag> tags = tagService.findAllInProject(project);
         return ResponseEntity.ok(GetTagsInProjectResponseDto.success(projectId, tags));
     }
 
@@ -116,7 +132,21 @@ public class TagController extends AbstractController{
     public ResponseEntity<TagResponseDto> create(@AuthenticationPrincipal UserSecurity userSecurity,
                                                  @PathVariable("id") Integer id,
                                                  @RequestBody UpdateTagRequestDto request){
-        User user = userSecurity.getUser();
+        return update(userSecurity.getUser(), id, request.getVersion(), tag -> tag.setName(request.getName()));
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {DtoConstants.mergePatchJson, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<TagResponseDto> patch(@AuthenticationPrincipal UserSecurity userSecurity,
+                                                @PathVariable("id") Integer id,
+                                                @RequestBody PatchTagRequestDto request) {
+        return update(userSecurity.getUser(), id, request.getVersion(), tag -> {
+            if(request.has("name")) {
+                tag.setName(request.getName());
+            }
+        });
+    }
+
+    private ResponseEntity<TagResponseDto> update(User user, Integer id, Long version, Consumer<Tag> changes) {
         Optional<Tag> optTag = tagService.findById(id);
         if(!optTag.isPresent()) {
             log.info("user {} attempts to update non-existing tag by id {}",
@@ -132,9 +162,19 @@ public class TagController extends AbstractController{
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(TagResponseDto
                     .fail(Error.PERMISSIONS_NOT_GRANTED));
         }
-        tag.setName(request.getName());
+        changes.accept(tag);
+        if(version != null) {
+            tag.setVersion(version);
+        }
         if(validator.validate(tag)) {
-            tag = tagService.save(tag);
+            try {
+                tag = tagService.save(tag);
+            } catch (OptimisticLockingFailureException ex) {
+                log.info("user {} attempts to update a tag {} changed since version {}",
+                        user, tag, version);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(TagResponseDto
+                        .fail(Error.VERSION_CONFLICT));
+            }
             return ResponseEntity.ok(TagResponseDto.success(tag));
         } else {
             return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(TagResponseDto
@@ -0,0 +1,307 @@
+package com.lampochky.controller;
+
+import com.lampochky.config.security.UserSecurity;
+import com.lampochky.database.entity.*;
+import com.lampochky.database.service.*;
+import com.lampochky.dto.request.task.TaskBatchRequestDto;
+import com.lampochky.dto.request.task.TaskOperationRequestDto;
+import com.lampochky.dto.response.task.TaskBatchResponseDto;
+import com.lampochky.dto.response.task.TaskOperationResultDto;
+import com.lampochky.validation.Error;
+import com.lampochky.validation.TaskValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Applies several task operations at once. All referenced tasks, lists, users and tags are loaded
+ * with one query per kind, permissions are checked once per project, and the batch is persisted
+ * in one transaction only if every operation is valid.
+ */
+@RestController
+@RequestMapping("/data/task/batch")
+public class TaskBatchController extends AbstractController {
+    private final UserService userService;
+    private final TaskService taskService;
+    private final ListService listService;
+    private final TagService tagService;
+    private final ActionService actionService;
+    private final TaskValidator validator;
+    private final int maxBatchSize;
+
+    @Autowired
+    public TaskBatchController(UserProjectService userProjectService, ChangeLogService changeLogService,
+                               UserService userService, TaskService taskService, ListService listService,
+                               TagService tagService, ActionService actionService,
+                               @Value("${task.batch.max-size:100}") Integer maxBatchSize) {
+        super(userProjectService, changeLogService);
+        this.userService = userService;
+        this.taskService = taskService;
+        this.listService = listService;
+        this.tagService = tagService;
+        this.actionService = actionService;
+        this.maxBatchSize = maxBatchSize;
+        validator = new TaskValidator(userProjectService);
+    }
+
+    @PostMapping
+    public ResponseEntity<TaskBatchResponseDto> apply(@AuthenticationPrincipal UserSecurity authUser,
+                                                      @RequestBody TaskBatchRequestDto request) {
+        User user = authUser.getUser();
+        List<TaskOperationRequestDto> requests = request.getOperations();
+        if(requests == null || requests.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(TaskBatchResponseDto
+                    .fail(Error.BATCH_EMPTY));
+        }
+        if(requests.size() > maxBatchSize) {
+            log.info("user {} attempts to apply a batch of {} task operations", user, requests.size());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(TaskBatchResponseDto
+                    .fail(Error.BATCH_TOO_LARGE));
+        }
+
+        BatchContext context = new BatchContext(user, requests);
+        List<Operation> operations = new ArrayList<>();
+        for(int i = 0; i < requests.size(); ++i) {
+            Operation operation = new Operation(i, requests.get(i));
+            prepare(context, operation);
+            operations.add(operation);
+        }
+
+        if(operations.stream().anyMatch(Operation::failed)) {
+            log.info("user {} attempts to apply a batch with invalid task operations", user);
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(TaskBatchResponseDto
+                    .fail(operations.stream().map(Operation::toResult).collect(Collectors.toList())));
+        }
+
+        List<Operation> saved = operations.stream().filter(o -> !o.isDelete()).collect(Collectors.toList());
+        List<Task> savedTasks;
+        try {
+            savedTasks = taskService.saveAndDeleteAll(
+                    saved.stream().map(o -> o.task).collect(Collectors.toList()),
+                    operations.stream().filter(Operation::isDelete).map(o -> o.task).collect(Collectors.toList()));
+        } catch (OptimisticLockingFailureException ex) {
+            log.info("user {} attempts to apply a batch with tasks changed since their versions", user);
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(TaskBatchResponseDto
+                    .fail(Error.VERSION_CONFLICT));
+        }
+        for(int i = 0; i < saved.size(); ++i) {
+            saved.get(i).task = savedTasks.get(i);
+        }
+        operations.forEach(operation -> actionService.record(operation.actionType(), user, operation.task));
+        return ResponseEntity.ok(TaskBatchResponseDto
+                .success(operations.stream().map(Operation::toResult).collect(Collectors.toList())));
+    }
+
+    private void prepare(BatchContext context, Operation operation) {
+        TaskOperationRequestDto request = operation.request;
+        String type = request.getType() == null ? "" : request.getType();
+        switch (type) {
+            case TaskOperationRequestDto.create:
+                operation.task = new Task();
+                operation.task.setCreator(context.user);
+                TaskController.setBasicFields(operation.task, request);
+                setList(context, operation);
+                setAssignedUser(context, operation);
+                break;
+            case TaskOperationRequestDto.update:
+                if(findTask(context, operation)) {
+                    TaskController.setBasicFields(operation.task, request);
+                    setVersion(operation);
+                    setList(context, operation);
+                    setAssignedUser(context, operation);
+                }
+                break;
+            case TaskOperationRequestDto.move:
+                if(findTask(context, operation)) {
+                    setVersion(operation);
+                    setList(context, operation);
+                    dropForeignTags(operation);
+                }
+                break;
+            case TaskOperationRequestDto.delete:
+                findTask(context, operation);
+                return;
+            default:
+                operation.errors.add(Error.OPERATION_TYPE_INVALID);
+                return;
+        }
+        if(operation.failed()) {
+            return;
+        }
+        if(!type.equals(TaskOperationRequestDto.move)) {
+            setTags(context, operation);
+        }
+        if(!operation.failed() && !validator.validate(operation.task)) {
+            operation.errors.addAll(validator.getErrors());
+        }
+    }
+
+    private void setVersion(Operation operation) {
+        if(operation.request.getVersion() != null) {
+            operation.task.setVersion(operation.request.getVersion());
+        }
+    }
+
+    /**
+     * Finds the task of an update, move or delete and checks the permissions to change it.
+     */
+    private boolean findTask(BatchContext context, Operation operation) {
+        Integer id = operation.request.getId();
+        Task task = id == null ? null : context.tasks.get(id);
+        if(task == null) {
+            operation.errors.add(Error.TASK_NOT_FOUND);
+            return false;
+        }
+        if(!context.touchedTaskIds.add(id)) {
+            operation.errors.add(Error.OPERATION_TASK_DUPLICATED);
+            return false;
+        }
+        if(!context.canChange(task.getList().getProject())) {
+            log.info("user {} attempts to change a task {} in a batch", context.user, task);
+            operation.errors.add(Error.PERMISSIONS_NOT_GRANTED);
+            return false;
+        }
+        operation.task = task;
+        return true;
+    }
+
+    private void setList(BatchContext context, Operation operation) {
+        TaskList taskList = context.lists.get(operation.request.getListId());
+        if(taskList == null) {
+            operation.errors.add(Error.LIST_NOT_FOUND);
+        } else if(!context.canChange(taskList.getProject())) {
+            log.info("user {} attempts to put a task to list {} in a batch", context.user, taskList);
+            operation.errors.add(Error.PERMISSIONS_NOT_GRANTED);
+        } else {
+            operation.task.setList(taskList);
+        }
+    }
+
+    /**
+     * Tags belong to a project, so a task moved to another project loses the tags of the old one,
+     * as it does when its list is patched.
+     */
+    private void dropForeignTags(Operation operation) {
+        if(!operation.failed()) {
+            Integer projectId = operation.task.getList().getProject().getId();
+            operation.task.getTags().removeIf(tag -> !tag.getProject().getId().equals(projectId));
+        }
+    }
+
+    private void setAssignedUser(BatchContext context, Operation operation) {
+        Integer assignedUserId = operation.request.getAssignedUserId();
+        if(assignedUserId == null) {
+            operation.task.setAssignedUser(null);
+        } else if(context.users.containsKey(assignedUserId)) {
+            operation.task.setAssignedUser(context.users.get(assignedUserId));
+        } else {
+            operation.errors.add(Error.USER_NOT_FOUND);
+        }
+    }
+
+    private void setTags(BatchContext context, Operation operation) {
+        List<Integer> tagIds = operation.request.getTagIds();
+        Set<Integer> ids = tagIds == null ? Collections.emptySet() : new LinkedHashSet<>(tagIds);
+        Integer projectId = operation.task.getList().getProject().getId();
+        Set<Tag> tags = new LinkedHashSet<>();
+        for(Integer id: ids) {
+            Tag tag = context.tags.get(id);
+            if(tag != null && tag.getProject().getId().equals(projectId)) {
+                tags.add(tag);
+            } else {
+                operation.missingTagIds.add(id);
+            }
+        }
+        if(operation.missingTagIds.isEmpty()) {
+            operation.task.setTags(tags);
+        } else {
+            operation.errors.add(Error.TAG_NOT_FOUND);
+        }
+    }
+
+    private static <T> Map<Integer, T> byId(List<T> entities, Function<T, Integer> id) {
+        return entities.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+
+    private static Set<Integer> ids(List<TaskOperationRequestDto> requests,
+                                    Function<TaskOperationRequestDto, Stream<Integer>> ids) {
+        return requests.stream().flatMap(ids).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private class BatchContext {
+        private final User user;
+        private final Map<Integer, Task> tasks;
+        private final Map<Integer, TaskList> lists;
+        private final Map<Integer, User> users;
+        private final Map<Integer, Tag> tags;
+        private final Map<Integer, UserRole> roles = new HashMap<>();
+        private final Set<Integer> touchedTaskIds = new HashSet<>();
+
+        private BatchContext(User user, List<TaskOperationRequestDto> requests) {
+            this.user = user;
+            tasks = byId(taskService.findAllById(ids(requests, r -> Stream.of(r.getId()))), Task::getId);
+            lists = byId(listService.findAllById(ids(requests, r -> Stream.of(r.getListId()))), TaskList::getId);
+            users = byId(userService.findAllById(ids(requests, r -> Stream.of(r.getAssignedUserId()))), User::getId);
+            tags = byId(tagService.findAllById(ids(requests,
+                    r -> r.getTagIds() == null ? Stream.empty() : r.getTagIds().stream())), Tag::getId);
+        }
+
+        private boolean canChange(Project project) {
+            return roles.computeIfAbsent(project.getId(), id -> getRelation(user, project).getRole())
+                    .greaterOrEquals(UserRole.DEVELOPER);
+        }
+    }
+
+    private static class Operation {
+        private final int index;
+        private final TaskOperationRequestDto request;
+        private final List<Error> errors = new ArrayList<>();
+        private final List<Integer> missingTagIds = new ArrayList<>();
+        private Task task;
+
+        private Operation(int index, TaskOperationRequestDto request) {
+            this.index = index;
+            this.request = request;
+        }
+
+        private boolean failed() {
+            return !errors.isEmpty();
+        }
+
+        private boolean isDelete() {
+            return TaskOperationRequestDto.delete.equals(request.getType());
+        }
+
+        private ActionType actionType() {
+            switch (request.getType()) {
+                case TaskOperationRequestDto.create:
+                    return ActionType.TASK_CREATED;
+                case TaskOperationRequestDto.move:
+                    return ActionType.TASK_MOVED;
+                case TaskOperationRequestDto.delete:
+                    return ActionType.TASK_DELETED;
+                default:
+                    return ActionType.TASK_UPDATED;
+            }
+        }
+
+        private TaskOperationResultDto toResult() {
+            if(failed()) {
+                return TaskOperationResultDto.fail(index, request.getType(), errors, missingTagIds);
+            }
+            return TaskOperationResultDto.success(index, request.getType(), task);
+        }
+    }
+}
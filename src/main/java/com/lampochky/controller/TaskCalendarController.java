@@ -0,0 +1,145 @@
+package com.lampochky.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lampochky.config.security.UserSecurity;
+import com.lampochky.database.entity.Project;
+import com.lampochky.database.entity.User;
+import com.lampochky.database.entity.UserRole;
+import com.lampochky.database.repository.TaskRepository.CalendarEntry;
+import com.lampochky.database.service.ChangeLogService;
+import com.lampochky.database.service.ProjectService;
+import com.lampochky.database.service.TaskService;
+import com.lampochky.database.service.UserProjectService;
+import com.lampochky.dto.DtoConstants;
+import com.lampochky.dto.response.DtoBuilder;
+import com.lampochky.dto.response.ResponseDto;
+import com.lampochky.dto.response.task.GetAssignedTaskResponseDto;
+import com.lampochky.dto.response.task.GetTaskByProjectResponseDto;
+import com.lampochky.validation.Error;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Tasks by their dates for planning views. Tasks are written one JSON object per line by due date
+ * while they are read, so a calendar is not held in memory.
+ */
+@RestController
+@RequestMapping("/data/task/calendar")
+public class TaskCalendarController extends AbstractController {
+    private static final MediaType ndjson = MediaType.parseMediaType(DtoConstants.ndjson);
+    private final TaskService taskService;
+    private final ProjectService projectService;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public TaskCalendarController(UserProjectService userProjectService, ChangeLogService changeLogService,
+                                  TaskService taskService, ProjectService projectService, ObjectMapper objectMapper) {
+        super(userProjectService, changeLogService);
+        this.taskService = taskService;
+        this.projectService = projectService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Tasks of the project which overlap the period from {@code from} to {@code to}, both inclusive.
+     */
+    @GetMapping("/in_project")
+    public ResponseEntity<StreamingResponseBody> getInProject(@AuthenticationPrincipal UserSecurity authUser,
+                                            @RequestParam("id") Integer id,
+                                            @RequestParam("from") @DateTimeFormat(pattern = DtoConstants.dateFormat) LocalDate from,
+                                            @RequestParam("to") @DateTimeFormat(pattern = DtoConstants.dateFormat) LocalDate to) {
+        if(from.isAfter(to)) {
+            return fail(HttpStatus.BAD_REQUEST, GetTaskByProjectResponseDto.fail(id, Error.PERIOD_INVALID));
+        }
+        return inProject(authUser.getUser(), id,
+                consumer -> taskService.calendarInProject(id, from, to, consumer));
+    }
+
+    /**
+     * Tasks of the project due before today, the most overdue first.
+     */
+    @GetMapping("/overdue/in_project")
+    public ResponseEntity<StreamingResponseBody> getOverdueInProject(@AuthenticationPrincipal UserSecurity authUser,
+                                                                     @RequestParam("id") Integer id) {
+        LocalDate today = LocalDate.now();
+        return inProject(authUser.getUser(), id,
+                consumer -> taskService.overdueInProject(id, today, consumer));
+    }
+
+    /**
+     * Tasks assigned to the user in all projects the user is a member of, which overlap the period.
+     */
+    @GetMapping("/assigned")
+    public ResponseEntity<StreamingResponseBody> getAssigned(@AuthenticationPrincipal UserSecurity authUser,
+                                            @RequestParam("from") @DateTimeFormat(pattern = DtoConstants.dateFormat) LocalDate from,
+                                            @RequestParam("to") @DateTimeFormat(pattern = DtoConstants.dateFormat) LocalDate to) {
+        Integer userId = authUser.getUser().getId();
+        if(from.isAfter(to)) {
+            return fail(HttpStatus.BAD_REQUEST, GetAssignedTaskResponseDto.fail(userId, Error.PERIOD_INVALID));
+        }
+        return stream(consumer -> taskService.calendarAssigned(userId, from, to, consumer));
+    }
+
+    @GetMapping("/overdue/assigned")
+    public ResponseEntity<StreamingResponseBody> getOverdueAssigned(@AuthenticationPrincipal UserSecurity authUser) {
+        Integer userId = authUser.getUser().getId();
+        LocalDate today = LocalDate.now();
+        return stream(consumer -> taskService.overdueAssigned(userId, today, consumer));
+    }
+
+    private ResponseEntity<StreamingResponseBody> inProject(User user, Integer id,
+                                                            Consumer<Consumer<CalendarEntry>> tasks) {
+        Optional<Project> optProject = projectService.findById(id);
+        if(!optProject.isPresent()) {
+            log.info("user {} attempts to get a calendar of non-existing project by id {}", user, id);
+            return fail(HttpStatus.NOT_FOUND, GetTaskByProjectResponseDto.fail(id, Error.PROJECT_NOT_FOUND));
+        }
+        Project project = optProject.get();
+        UserRole role = getRelation(user, project).getRole();
+        if(!role.greaterOrEquals(UserRole.GUEST)) {
+            log.info("user {} with role {} attempts to get a calendar of project {}", user, role, project);
+            return fail(HttpStatus.FORBIDDEN, GetTaskByProjectResponseDto.fail(id, Error.PERMISSIONS_NOT_GRANTED));
+        }
+        return stream(tasks);
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(Consumer<Consumer<CalendarEntry>> tasks) {
+        StreamingResponseBody body = output -> {
+            OutputStream buffered = new BufferedOutputStream(output);
+            tasks.accept(task -> write(buffered, task));
+            buffered.flush();
+        };
+        return ResponseEntity.ok().contentType(ndjson).body(body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> fail(HttpStatus status, ResponseDto body) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON)
+                .body(output -> output.write(objectMapper.writeValueAsBytes(body)));
+    }
+
+    private void write(OutputStream output, CalendarEntry task) {
+        try {
+            output.write(objectMapper.writeValueAsBytes(DtoBuilder.buildCalendarTaskDto(task)));
+            output.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -2,23 +2,36 @@ package com.lampochky.controller;
 
 import com.lampochky.database.entity.*;
 import com.lampochky.database.service.*;
+import com.lampochky.database.repository.TaskSpecifications;
+import com.lampochky.dto.DtoConstants;
+import com.lampochky.dto.request.task.AssignedTaskQueryRequestDto;
+import com.lampochky.dto.request.task.TaskPatchRequestDto;
+import com.lampochky.dto.request.task.TaskQueryRequestDto;
 import com.lampochky.dto.request.task.TaskRequestDto;
+import com.lampochky.dto.response.task.GetAssignedTaskResponseDto;
 import com.lampochky.dto.response.task.GetTaskByIdResponseDto;
 import com.lampochky.dto.response.task.GetTaskByListResponseDto;
+import com.lampochky.dto.response.task.GetTaskByProjectResponseDto;
 import com.lampochky.dto.response.task.TaskResponseDto;
 import com.lampochky.config.security.UserSecurity;
 import com.lampochky.validation.Error;
+import com.lampochky.validation.TaskQueryValidator;
 import com.lampochky.validation.TaskValidator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Controller
 @RequestMapping("/data/task")
@@ -28,21 +41,27 @@ public class TaskController extends AbstractController{
     private final TagService tagService;
     private final ListService listService;
     private final ProjectService projectService;
+    private final MessageService messageService;
+    private final ActionService actionService;
     private final TaskValidator validator;
 
     @Autowired
-    public TaskController(UserProjectService userProjectService, UserService userService, TagService tagService,
-                          TaskService taskService, ListService listService, ProjectService projectService) {
-        super(userProjectService);
+    public TaskController(UserProjectService userProjectService, ChangeLogService changeLogService,
+                          UserService userService, TagService tagService, TaskService taskService,
+                          ListService listService, ProjectService projectService, MessageService messageService,
+                          ActionService actionService) {
+        super(userProjectService, changeLogService);
         this.userService = userService;
         this.taskService = taskService;
         this.tagService = tagService;
         this.listService = listService;
         this.projectService = projectService;
-        validator = new TaskValidator(userService);
+        this.messageService = messageService;
+        this.actionService = actionService;
+        validator = new TaskValidator(userProjectService);
     }
 
-    private void setBasicFields(Task task, TaskRequestDto request) {
+    static void setBasicFields(Task task, TaskRequestDto request) {
         task.setName(request.getName());
         task.setDateToStart(request.getDateToStart());
         task.setDateToFinish(request.getDateToFinish());
@@ -50,9 +69,31 @@ public class TaskController extends AbstractController{
         task.setDescription(request.getDescription());
     }
 
+    /**
+     * Page of tasks sorted by the requested property, then by id, so tasks with equal values
+     * keep their order across pages.
+     */
+    private TaskPage findPage(Specification<Task> scope, TaskQueryRequestDto query) {
+        Specification<Task> specification = Specification.where(scope)
+                .and(TaskSpecifications.assignedTo(query.getAssignedUserId()))
+                .and(TaskSpecifications.taggedWith(query.getTagId()))
+                .and(TaskSpecifications.priorityFrom(query.getMinPriority()))
+                .and(TaskSpecifications.priorityTo(query.getMaxPriority()))
+                .and(TaskSpecifications.finishesFrom(query.getFrom()))
+                .and(TaskSpecifications.startsTo(query.getTo()));
+        Sort.Direction direction = Sort.Direction.fromString(query.getOrder());
+        Sort sort = Sort.by(direction, query.getSort());
+        if(!query.getSort().equals("id")) {
+            sort = sort.and(Sort.by(direction, "id"));
+        }
+        return taskService.findPage(specification, query.getPage(), query.getSize(), sort,
+                Boolean.TRUE.equals(query.getMessages()));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<GetTaskByIdResponseDto> getById(@AuthenticationPrincipal UserSecurity authUser,
-                                                          @PathVariable("id") Integer id) {
+                                                          @PathVariable("id") Integer id,
+                                                          WebRequest request) {
         User user = authUser.getUser();
         Optional<Task> optTask = taskService.findById(id);
         if(!optTask.isPresent()){
@@ -64,7 +105,11 @@ public class TaskController extends AbstractController{
         UserRole role = getRelation(user, task.getList().getProject()).getRole();
 
         if(role.greaterOrEquals(UserRole.GUEST)){
-            return ResponseEntity.ok(GetTaskByIdResponseDto.success(task));
+            if(notModified(request, user, task.getList().getProject())) {
+                return null;
+            }
+            task = taskService.findById(id).orElse(task);
+            return ResponseEntity.ok(GetTaskByIdResponseDto.success(task, messageService.findAllInTaskSortByDate(task)));
         } else {
             log.info("user {} attempts to get task {} with role {}", user, task, role);
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(GetTaskByIdResponseDto
@@ -76,8 +121,15 @@ public class TaskController extends AbstractController{
 
     @GetMapping("/in_list")
     public ResponseEntity<GetTaskByListResponseDto> getAllInList(@AuthenticationPrincipal UserSecurity authUser,
-                                                                 @RequestParam(name = "id") Integer listId) {
+                                                                 @RequestParam(name = "id") Integer listId,
+                                                                 TaskQueryRequestDto query,
+                                                                 WebRequest request) {
         User user = authUser.getUser();
+        TaskQueryValidator queryValidator = new TaskQueryValidator();
+        if(!queryValidator.validate(query)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(GetTaskByListResponseDto
+                    .fail(listId, queryValidator.getErrors()));
+        }
         Optional<TaskList> optList = listService.findById(listId);
         if(!optList.isPresent()) {
             log.info("user {} attempts to get tasks from non-existing list by id {}", user, listId);
@@ -87,7 +139,11 @@ public class TaskController extends AbstractController{
         TaskList taskList = optList.get();
         UserRole role = getRelation(user, taskList.getProject()).getRole();
         if(role.greaterOrEquals(UserRole.GUEST)){
-            return ResponseEntity.ok(GetTaskByListResponseDto.success(taskList));
+            if(notModified(request, user, taskList.getProject())) {
+                return null;
+            }
+            TaskPage page = findPage(TaskSpecifications.inList(listId), query);
+            return ResponseEntity.ok(GetTaskByListResponseDto.success(listId, page.getPage(), page.getMessages()));
         } else {
             log.info("user {} attempts to get tasks from list {} with role {}", user, taskList, role);
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(GetTaskByListResponseDto
@@ -95,28 +151,145 @@ public class TaskController extends AbstractController{
         }
     }
 
-    @PostMapping
-    public ResponseEntity<TaskResponseDto> create(@AuthenticationPrincipal UserSecurity authUser,
-                                                  @RequestBody TaskRequestDto request) {
+    @GetMapping("/in_project")
+    public ResponseEntity<GetTaskByProjectResponseDto> getAllInProject(@AuthenticationPrincipal UserSecurity authUser,
+                                                                       @RequestParam(name = "id") Integer projectId,
+                                                                       TaskQueryRequestDto query,
+                                                                       WebRequest request) {
         User user = authUser.getUser();
+        TaskQueryValidator queryValidator = new TaskQueryValidator();
+        if(!queryValidator.validate(query)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(GetTaskByProjectResponseDto
+                    .fail(projectId, queryValidator.getErrors()));
+        }
+        Optional<Project> optProject = projectService.findById(projectId);
+        if(!optProject.isPresent()) {
+            log.info("user {} attempts to get tasks from non-existing project by id {}", user, projectId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(GetTaskByProjectResponseDto
+                    .fail(projectId, Error.PROJECT_NOT_FOUND));
+        }
+        Project project = optProject.get();
+        UserRole role = getRelation(user, project).getRole();
+        if(role.greaterOrEquals(UserRole.GUEST)){
+            if(notModified(request, user, project)) {
+                return null;
+            }
+            TaskPage page = findPage(TaskSpecifications.inProject(projectId), query);
+            return ResponseEntity.ok(GetTaskByProjectResponseDto.success(projectId, page.getPage(),
+                    page.getMessages()));
+        } else {
+            log.info("user {} attempts to get tasks from project {} with role {}", user, project, role);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(GetTaskByProjectResponseDto
+                    .fail(projectId, Error.PERMISSIONS_NOT_GRANTED));
+        }
+    }
+
+    /**
+     * Tasks assigned to the user in all projects the user is a member of, nearest due date first.
+     */
+    @GetMapping("/assigned")
+    public ResponseEntity<GetAssignedTaskResponseDto> getAssigned(@AuthenticationPrincipal UserSecurity authUser,
+                                                                  AssignedTaskQueryRequestDto query) {
+        User user = authUser.getUser();
+        TaskQueryValidator queryValidator = new TaskQueryValidator();
+        if(!queryValidator.validate(query)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(GetAssignedTaskResponseDto
+                    .fail(user.getId(), queryValidator.getErrors()));
+        }
+        TaskPage page = findPage(TaskSpecifications.assignedToMember(user.getId(),
+                Boolean.TRUE.equals(query.getConfirmed())), query);
+        return ResponseEntity.ok(GetAssignedTaskResponseDto.success(user.getId(), page.getPage(), page.getMessages()));
+    }
+
+    /**
+     * Resolves the list and the assigned user of the request, skipping lookups of relations
+     * the task already has.
+     */
+    private List<Error> setRelations(User user, Task task, TaskRequestDto request) {
         List<Error> errors = new ArrayList<>();
-        Task task = new Task();
-        setBasicFields(task, request);
-        task.setCreator(user);
-        task.setList(listService.findById(request.getListId()).orElseGet(() -> {
-            log.info("user {} attempts to create a task in non-existing list by id {}",
-                    user, request.getListId());
-            errors.add(Error.LIST_NOT_FOUND);
-            return null;
-        }));
-        if(request.getAssignedUserId() != null) {
+        if(task.getList() == null || !task.getList().getId().equals(request.getListId())) {
+            task.setList(listService.findById(request.getListId()).orElseGet(() -> {
+                log.info("user {} attempts to put a task {} to non-existing list by id {}",
+                        user, task, request.getListId());
+                errors.add(Error.LIST_NOT_FOUND);
+                return null;
+            }));
+        }
+        if(request.getAssignedUserId() == null) {
+            task.setAssignedUser(null);
+        } else if(task.getAssignedUser() == null || !task.getAssignedUser().getId().equals(request.getAssignedUserId())) {
             task.setAssignedUser(userService.findById(request.getAssignedUserId()).orElseGet(() -> {
-                log.info("user {} attempts to create a task with non-existing assigned user by id {}",
-                        user, request.getAssignedUserId());
+                log.info("user {} attempts to assign non-existing user by id {} to a task {}",
+                        user, request.getAssignedUserId(), task);
                 errors.add(Error.USER_NOT_FOUND);
                 return null;
             }));
         }
+        return errors;
+    }
+
+    /**
+     * Sets the requested tags to the task with one query scoped to the task's project.
+     * Tags the task already has are kept in place, so only changed links are written.
+     * Returns ids of tags not found in the project.
+     */
+    private List<Integer> setTags(Task task, List<Integer> tagIds) {
+        Set<Integer> ids = tagIds == null ? Collections.emptySet() : new LinkedHashSet<>(tagIds);
+        Map<Integer, Tag> tags = tagService.findAllInProject(ids, task.getList().getProject()).stream()
+                .collect(Collectors.toMap(Tag::getId, Function.identity()));
+        Set<Tag> found = ids.stream().map(tags::get).filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if(task.getTags() == null) {
+            task.setTags(found);
+        } else {
+            task.getTags().retainAll(found);
+            task.getTags().addAll(found);
+        }
+        return ids.stream().filter(id -> !tags.containsKey(id)).collect(Collectors.toList());
+    }
+
+    private ResponseEntity<TaskResponseDto> save(User user, Task task, TaskRequestDto request, ActionType type) {
+        List<Integer> missingTagIds = setTags(task, request.getTagIds());
+        if(!missingTagIds.isEmpty()) {
+            return tagsNotFound(user, task, missingTagIds);
+        }
+        return save(user, task, request.getVersion(), type);
+    }
+
+    private ResponseEntity<TaskResponseDto> tagsNotFound(User user, Task task, List<Integer> missingTagIds) {
+        log.info("user {} attempts to set tags {} not existing in project {} to a task {}",
+                user, missingTagIds, task.getList().getProject(), task);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(TaskResponseDto
+                .fail(Error.TAG_NOT_FOUND, missingTagIds));
+    }
+
+    private ResponseEntity<TaskResponseDto> save(User user, Task task, Long version, ActionType type) {
+        if(validator.validate(task)){
+            Task savedTask;
+            try {
+                savedTask = taskService.save(task);
+            } catch (OptimisticLockingFailureException ex) {
+                log.info("user {} attempts to update a task {} changed since version {}",
+                        user, task, version);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(TaskResponseDto
+                        .fail(Error.VERSION_CONFLICT));
+            }
+            actionService.record(type, user, savedTask);
+            return ResponseEntity.ok(TaskResponseDto.success(savedTask));
+        } else {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(TaskResponseDto
+                    .fail(validator.getErrors()));
+        }
+    }
+
+    @PostMapping
+    public ResponseEntity<TaskResponseDto> create(@AuthenticationPrincipal UserSecurity authUser,
+                                                  @RequestBody TaskRequestDto request) {
+        User user = authUser.getUser();
+        Task task = new Task();
+        setBasicFields(task, request);
+        task.setCreator(user);
+        List<Error> errors = setRelations(user, task, request);
         if(!errors.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(TaskResponseDto
                     .fail(errors));
@@ -128,28 +301,7 @@ public class TaskController extends AbstractController{
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(TaskResponseDto
                     .fail(Error.PERMISSIONS_NOT_GRANTED));
         }
-        UserRole assignedRole = getRelation(task.getAssignedUser(), task.getList().getProject()).getRole();
-        if(task.getAssignedUser() != null && !assignedRole.greaterOrEquals(UserRole.DEVELOPER)) {
-            log.info("user {} attempts to create a task with assigned user {} with role {}",
-                    user, task.getAssignedUser(), assignedRole);
-        }
-        task.setTags(new ArrayList<>());
-        for(int tagId: request.getTagIds()) {
-            Optional<Tag> optTag = tagService.findById(tagId);
-            if(optTag.isPresent()) {
-                task.getTags().add(optTag.get());
-            } else {
-                log.info("user {} attempts to create a task with non-existing tag by id {}", user, tagId);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(TaskResponseDto.fail(Error.TAG_NOT_FOUND));
-            }
-        }
-        if(validator.validate(task)){
-            Task savedTask = taskService.save(task);
-            return ResponseEntity.ok(TaskResponseDto.success(savedTask));
-        } else {
-            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(TaskResponseDto
-                    .fail(validator.getErrors()));
-        }
+        return save(user, task, request, ActionType.TASK_CREATED);
     }
 
     @PutMapping("/{id}")
@@ -164,24 +316,12 @@ public class TaskController extends AbstractController{
                     .fail(Error.TASK_NOT_FOUND));
         }
         Task task = optTask.get();
-        List<Error> errors = new ArrayList<>();
+        Integer listId = task.getList().getId();
         setBasicFields(task, request);
-        task.setList(listService.findById(request.getListId()).orElseGet(() -> {
-            log.info("user {} attempts to move a task {} to non-existing list by id {}",
-                    user, task, request.getListId());
-            errors.add(Error.LIST_NOT_FOUND);
-            return null;
-        }));
-        if(request.getAssignedUserId() != null) {
-            task.setAssignedUser(userService.findById(request.getAssignedUserId()).orElseGet(() -> {
-                log.info("user {} attempts to set non-existing user by id {} assigned to a task {}",
-                        user, request.getAssignedUserId(), task);
-                errors.add(Error.USER_NOT_FOUND);
-                return null;
-            }));
-        } else {
-            task.setAssignedUser(null);
+        if(request.getVersion() != null) {
+            task.setVersion(request.getVersion());
         }
+        List<Error> errors = setRelations(user, task, request);
         if(!errors.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(TaskResponseDto
                     .fail(errors));
@@ -193,28 +333,109 @@ public class TaskController extends AbstractController{
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(TaskResponseDto
                     .fail(Error.PERMISSIONS_NOT_GRANTED));
         }
-        UserRole assignedRole = getRelation(task.getAssignedUser(), task.getList().getProject()).getRole();
-        if(task.getAssignedUser() != null && !assignedRole.greaterOrEquals(UserRole.DEVELOPER)) {
-            log.info("user {} attempts to set user {} with role {} assigned to a task {}",
-                    user, task.getAssignedUser(), assignedRole, task);
+        return save(user, task, request,
+                listId.equals(task.getList().getId()) ? ActionType.TASK_UPDATED : ActionType.TASK_MOVED);
+    }
+
+    /**
+     * Applies a JSON merge patch to the task: only properties present in the body are changed,
+     * the list and the assigned user are looked up only when they are patched,
+     * and only added or removed tag links are written.
+     */
+    @PatchMapping(value = "/{id}", consumes = {DtoConstants.mergePatchJson, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<TaskResponseDto> patch(@AuthenticationPrincipal UserSecurity authUser,
+                                                 @PathVariable("id") Integer id,
+                                                 @RequestBody TaskPatchRequestDto request) {
+        User user = authUser.getUser();
+        Optional<Task> optTask = taskService.findById(id);
+        if(!optTask.isPresent()){
+            log.info("user {} attempts to update non-existing task by id {}", user, id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(TaskResponseDto
+                    .fail(Error.TASK_NOT_FOUND));
         }
-        task.setTags(new ArrayList<>());
-        for(int tagId: request.getTagIds()) {
-            Optional<Tag> optTag = tagService.findById(tagId);
-            if(optTag.isPresent()) {
-                task.getTags().add(optTag.get());
+        Task task = optTask.get();
+        TaskList taskList = task.getList();
+        UserRole role = getRelation(user, taskList.getProject()).getRole();
+        if(!role.greaterOrEquals(UserRole.DEVELOPER)) {
+            log.info("user {} with role {} attempts to update a task {}", user, role, task);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(TaskResponseDto
+                    .fail(Error.PERMISSIONS_NOT_GRANTED));
+        }
+        List<Error> errors = patchRelations(user, task, request);
+        if(!errors.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(TaskResponseDto
+                    .fail(errors));
+        }
+        Project project = task.getList().getProject();
+        boolean projectChanged = !project.getId().equals(taskList.getProject().getId());
+        if(projectChanged) {
+            UserRole targetRole = getRelation(user, project).getRole();
+            if(!targetRole.greaterOrEquals(UserRole.DEVELOPER)) {
+                log.info("user {} with role {} attempts to move a task {} to project {}",
+                        user, targetRole, task, project);
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(TaskResponseDto
+                        .fail(Error.PERMISSIONS_NOT_GRANTED));
+            }
+        }
+        if(request.has("tagIds")) {
+            List<Integer> missingTagIds = setTags(task, request.getTagIds());
+            if(!missingTagIds.isEmpty()) {
+                return tagsNotFound(user, task, missingTagIds);
+            }
+        } else if(projectChanged) {
+            task.getTags().removeIf(tag -> !tag.getProject().getId().equals(project.getId()));
+        }
+        if(request.has("name")) {
+            task.setName(request.getName());
+        }
+        if(request.has("dateToStart")) {
+            task.setDateToStart(request.getDateToStart());
+        }
+        if(request.has("dateToFinish")) {
+            task.setDateToFinish(request.getDateToFinish());
+        }
+        if(request.has("priority")) {
+            task.setPriority(request.getPriority());
+        }
+        if(request.has("description")) {
+            task.setDescription(request.getDescription());
+        }
+        if(request.getVersion() != null) {
+            task.setVersion(request.getVersion());
+        }
+        return save(user, task, request.getVersion(),
+                taskList.equals(task.getList()) ? ActionType.TASK_UPDATED : ActionType.TASK_MOVED);
+    }
+
+    private List<Error> patchRelations(User user, Task task, TaskPatchRequestDto request) {
+        List<Error> errors = new ArrayList<>();
+        if(request.has("listId") && !task.getList().getId().equals(request.getListId())) {
+            Optional<TaskList> optList = request.getListId() == null
+                    ? Optional.empty() : listService.findById(request.getListId());
+            if(optList.isPresent()) {
+                task.setList(optList.get());
             } else {
-                log.info("user {} attempts to create a task with non-existing tag by id {}", user, tagId);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(TaskResponseDto.fail(Error.TAG_NOT_FOUND));
+                log.info("user {} attempts to put a task {} to non-existing list by id {}",
+                        user, task, request.getListId());
+                errors.add(Error.LIST_NOT_FOUND);
             }
         }
-        if(validator.validate(task)){
-            Task savedTask = taskService.save(task);
-            return ResponseEntity.ok(TaskResponseDto.success(savedTask));
-        } else {
-            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(TaskResponseDto
-                    .fail(validator.getErrors()));
+        if(request.has("assignedUserId")) {
+            if(request.getAssignedUserId() == null) {
+                task.setAssignedUser(null);
+            } else if(task.getAssignedUser() == null
+                    || !task.getAssignedUser().getId().equals(request.getAssignedUserId())) {
+                Optional<User> optUser = userService.findById(request.getAssignedUserId());
+                if(optUser.isPresent()) {
+                    task.setAssignedUser(optUser.get());
+                } else {
+                    log.info("user {} attempts to assign non-existing user by id {} to a task {}",
+                            user, request.getAssignedUserId(), task);
+                    errors.add(Error.USER_NOT_FOUND);
+                }
+            }
         }
+        return errors;
     }
 
     @DeleteMapping("/{id}")
@@ -236,6 +457,7 @@ public class TaskController extends AbstractController{
                     .fail(Error.PERMISSIONS_NOT_GRANTED));
         }
         taskService.delete(task);
+        actionService.record(ActionType.TASK_DELETED, user, task);
         return ResponseEntity.ok(TaskResponseDto.success(task));
     }
 }
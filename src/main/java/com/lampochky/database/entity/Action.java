@@ -4,37 +4,49 @@ import javax.persistence.*;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
+/**
+ * Change made by a user. Lists and tasks are referenced by id only, so actions
+ * stay in the audit trail after the list or the task is deleted.
+ */
 @Entity
 @Table(name = "action", schema = "lampochky")
 public class Action {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "action_id_seq")
+    @SequenceGenerator(name = "action_id_seq", sequenceName = "action_id_seq", schema = "lampochky", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Integer id;
 
     @Column(name = "date", nullable = false)
     private LocalDateTime dateTime;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToOne
-    @JoinColumn(name = "task_id", nullable = false)
-    private Task task;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "action_type", nullable = false, length = 20)
+    private ActionType type;
 
-    @ManyToOne
-    @JoinColumn(name = "list_id", nullable = false)
-    private TaskList taskList;
+    @Column(name = "project_id")
+    private Integer projectId;
+
+    @Column(name = "list_id")
+    private Integer listId;
+
+    @Column(name = "task_id")
+    private Integer taskId;
 
     public Action(){}
 
-    public Action(Integer id, LocalDateTime dateTime, User user, Task task, TaskList taskList) {
-        this.id = id;
+    public Action(LocalDateTime dateTime, User user, ActionType type,
+                  Integer projectId, Integer listId, Integer taskId) {
         this.dateTime = dateTime;
         this.user = user;
-        this.task = task;
-        this.taskList = taskList;
+        this.type = type;
+        this.projectId = projectId;
+        this.listId = listId;
+        this.taskId = taskId;
     }
 
     public Integer getId() {
@@ -61,20 +73,36 @@ public class Action {
         this.user = user;
     }
 
-    public Task getTask() {
-        return task;
+    public ActionType getType() {
+        return type;
+    }
+
+    public void setType(ActionType type) {
+        this.type = type;
+    }
+
+    public Integer getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Integer projectId) {
+        this.projectId = projectId;
+    }
+
+    public Integer getListId() {
+        return listId;
     }
 
-    public void setTask(Task task) {
-        this.task = task;
+    public void setListId(Integer listId) {
+        this.listId = listId;
     }
 
-    public TaskList getList() {
-        return taskList;
+    public Integer getTaskId() {
+        return taskId;
     }
 
-    public void setList(TaskList taskList) {
-        this.taskList = taskList;
+    public void setTaskId(Integer taskId) {
+        this.taskId = taskId;
     }
 
     @Override
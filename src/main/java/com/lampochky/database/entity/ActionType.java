@@ -0,0 +1,14 @@
+package com.lampochky.database.entity;
+
+/**
+ * Kind of change made by a user, recorded in the audit trail of a project.
+ */
+public enum ActionType {
+    LIST_CREATED,
+    LIST_UPDATED,
+    LIST_DELETED,
+    TASK_CREATED,
+    TASK_UPDATED,
+    TASK_MOVED,
+    TASK_DELETED
+}
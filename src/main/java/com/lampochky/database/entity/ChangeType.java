@@ -0,0 +1,13 @@
+package com.lampochky.database.entity;
+
+/**
+ * Kind of entity recorded in the change log of a project. Memberships are recorded by user id.
+ */
+public enum ChangeType {
+    PROJECT,
+    LIST,
+    TASK,
+    TAG,
+    MESSAGE,
+    MEMBER
+}
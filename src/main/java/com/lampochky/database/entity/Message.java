@@ -1,18 +1,25 @@
 package com.lampochky.database.entity;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import javax.persistence.*;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Objects;
 
 @Entity
+@DynamicUpdate
 @Table(name = "message", schema = "lampochky")
 public class Message {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "message_id_seq")
+    @SequenceGenerator(name = "message_id_seq", sequenceName = "message_id_seq", schema = "lampochky", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Integer id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "text", nullable = false, length = 1000)
     private String text;
 
@@ -27,9 +34,6 @@ public class Message {
     @JoinColumn(name = "task_id", nullable = false)
     private Task task;
 
-    @OneToMany(cascade = { CascadeType.ALL }, mappedBy = "task")
-    private List<Action> actions;
-
     public Message(){}
 
     public Message(String text, LocalDateTime dateTime, User user, Task task) {
@@ -47,6 +51,14 @@ public class Message {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getText() {
         return text;
     }
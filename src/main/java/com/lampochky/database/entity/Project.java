@@ -1,27 +1,47 @@
 package com.lampochky.database.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
 
 @Entity
 @Table(name = "project", schema = "lampochky")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "project")
 public class Project {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "project_id_seq")
+    @SequenceGenerator(name = "project_id_seq", sequenceName = "project_id_seq", schema = "lampochky", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Integer id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "name", nullable = false, length = 20)
     private String name;
 
+    /**
+     * Time of the deletion. Deleted rows are hidden from queries until they are purged.
+     */
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     @OneToMany(cascade = { CascadeType.ALL }, mappedBy = "project")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "project_lists")
     private List<TaskList> taskLists;
 
     @OneToMany(cascade = { CascadeType.ALL }, mappedBy = "project")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "project_members")
     private List<UserProject> users;
 
     @OneToMany(cascade = { CascadeType.ALL }, mappedBy = "project")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "project_tags")
     private List<Tag> tags;
 
     public Project(){}
@@ -39,6 +59,14 @@ public class Project {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -47,6 +75,14 @@ public class Project {
         this.name = name;
     }
 
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
     public List<TaskList> getLists() {
         return taskLists;
     }
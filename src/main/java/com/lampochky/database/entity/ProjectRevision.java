@@ -0,0 +1,60 @@
+package com.lampochky.database.entity;
+
+import javax.persistence.*;
+import java.util.Objects;
+
+/**
+ * Latest revision of a project. Its row is locked while a change is recorded,
+ * so revisions of a project are committed in increasing order.
+ */
+@Entity
+@Table(name = "project_revision", schema = "lampochky")
+public class ProjectRevision {
+    @Id
+    @Column(name = "project_id", nullable = false)
+    private Integer projectId;
+
+    @Column(name = "revision", nullable = false)
+    private Long revision;
+
+    public ProjectRevision(){}
+
+    public ProjectRevision(Integer projectId, Long revision) {
+        this.projectId = projectId;
+        this.revision = revision;
+    }
+
+    public Integer getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Integer projectId) {
+        this.projectId = projectId;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ProjectRevision that = (ProjectRevision) o;
+        return Objects.equals(projectId, that.projectId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(projectId);
+    }
+
+    @Override
+    public String toString() {
+        return "ProjectRevision(" + projectId + ", " + revision + ')';
+    }
+}
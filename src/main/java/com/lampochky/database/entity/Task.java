@@ -1,18 +1,28 @@
 package com.lampochky.database.entity;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
+
 import javax.persistence.*;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 @Entity
+@DynamicUpdate
 @Table(name = "task", schema = "lampochky")
 public class Task {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_id_seq")
+    @SequenceGenerator(name = "task_id_seq", sequenceName = "task_id_seq", schema = "lampochky", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Integer id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "name", nullable = false, length = 20)
     private String name;
 
@@ -43,15 +53,13 @@ public class Task {
     @OneToMany(cascade = { CascadeType.ALL }, mappedBy = "task")
     private List<Message> messages;
 
-    @OneToMany(cascade = { CascadeType.ALL }, mappedBy = "task")
-    private List<Action> actions;
-
     @ManyToMany(fetch = FetchType.EAGER)
+    @BatchSize(size = 50)
     @JoinTable(
             name = "tag_task",
             joinColumns = {@JoinColumn(name = "task_id")},
             inverseJoinColumns = {@JoinColumn(name = "tag_id")})
-    private List<Tag> tags;
+    private Set<Tag> tags;
 
     public Task(){}
 
@@ -76,6 +84,14 @@ public class Task {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -140,11 +156,11 @@ public class Task {
         this.creator = creator;
     }
 
-    public List<Tag> getTags() {
+    public Set<Tag> getTags() {
         return tags;
     }
 
-    public void setTags(List<Tag> tags) {
+    public void setTags(Set<Tag> tags) {
         this.tags = tags;
     }
 
@@ -156,14 +172,6 @@ public class Task {
         this.messages = messages;
     }
 
-    public List<Action> getActions() {
-        return actions;
-    }
-
-    public void setActions(List<Action> actions) {
-        this.actions = actions;
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -1,20 +1,36 @@
 package com.lampochky.database.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+
 import javax.persistence.*;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
 
 @Entity(name = "list")
+@DynamicUpdate
 @Table(name = "list", schema = "lampochky")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "list")
 public class TaskList {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "list_id_seq")
+    @SequenceGenerator(name = "list_id_seq", sequenceName = "list_id_seq", schema = "lampochky", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Integer id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "name", nullable = false, length = 20)
     private String name;
 
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     @ManyToOne
     @JoinColumn(name = "project_id", nullable = false)
     private Project project;
@@ -22,9 +38,6 @@ public class TaskList {
     @OneToMany(cascade = { CascadeType.ALL }, mappedBy = "taskList")
     private List<Task> tasks;
 
-    @OneToMany(cascade = { CascadeType.ALL }, mappedBy = "taskList")
-    private List<Action> actions;
-
     public TaskList(){}
 
     public TaskList(Integer id, String name, Project project) {
@@ -41,6 +54,14 @@ public class TaskList {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -49,6 +70,21 @@ public class TaskList {
         this.name = name;
     }
 
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    /**
+     * Whether the list or its project is deleted.
+     */
+    public boolean isDeleted() {
+        return deletedAt != null || project.getDeletedAt() != null;
+    }
+
     public Project getProject() {
         return project;
     }
@@ -65,14 +101,6 @@ public class TaskList {
         this.tasks = tasks;
     }
 
-    public List<Action> getActions() {
-        return actions;
-    }
-
-    public void setActions(List<Action> actions) {
-        this.actions = actions;
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
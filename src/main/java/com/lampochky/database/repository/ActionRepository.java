@@ -1,7 +1,60 @@
 package com.lampochky.database.repository;
 
 import com.lampochky.database.entity.Action;
+import com.lampochky.database.entity.ActionType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface ActionRepository extends JpaRepository<Action, Integer> {
+    /**
+     * Columns of an action without its user, read without managing entities.
+     */
+    interface ActionEntry {
+        Integer getId();
+        LocalDateTime getDateTime();
+        ActionType getType();
+        Integer getUserId();
+        Integer getProjectId();
+        Integer getListId();
+        Integer getTaskId();
+    }
+
+    String entry = "select a.id as id, a.dateTime as dateTime, a.type as type, a.user.id as userId, " +
+            "a.projectId as projectId, a.listId as listId, a.taskId as taskId from Action a ";
+
+    @Query(entry + "where a.projectId = ?1 order by a.dateTime desc, a.id desc")
+    List<ActionEntry> findLatestInProject(Integer projectId, Pageable pageable);
+
+    @Query(entry + "where a.projectId = ?1 " +
+            "and (a.dateTime < ?2 or (a.dateTime = ?2 and a.id < ?3)) " +
+            "order by a.dateTime desc, a.id desc")
+    List<ActionEntry> findOlderInProject(Integer projectId, LocalDateTime dateTime, Integer id, Pageable pageable);
+
+    @Query(entry + "where a.taskId = ?1 order by a.dateTime desc, a.id desc")
+    List<ActionEntry> findLatestInTask(Integer taskId, Pageable pageable);
+
+    @Query(entry + "where a.taskId = ?1 " +
+            "and (a.dateTime < ?2 or (a.dateTime = ?2 and a.id < ?3)) " +
+            "order by a.dateTime desc, a.id desc")
+    List<ActionEntry> findOlderInTask(Integer taskId, LocalDateTime dateTime, Integer id, Pageable pageable);
+
+    @Query("select a.projectId from Action a where a.taskId = ?1 order by a.dateTime desc, a.id desc")
+    List<Integer> findProjectIdsOfTask(Integer taskId, Pageable pageable);
+
+    /**
+     * Actions of the project in the period, read from a cursor in chunks of the fetch size.
+     * The stream has to be consumed and closed inside a transaction.
+     */
+    @Query(entry + "where a.projectId = ?1 and a.dateTime >= ?2 and a.dateTime < ?3 order by a.dateTime, a.id")
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true")})
+    Stream<ActionEntry> streamInProject(Integer projectId, LocalDateTime from, LocalDateTime to);
 }
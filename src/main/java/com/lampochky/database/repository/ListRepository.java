@@ -1,7 +1,39 @@
 package com.lampochky.database.repository;
 
 import com.lampochky.database.entity.TaskList;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface ListRepository extends JpaRepository<TaskList, Integer> {
+    @Query("select l from list l where l.project.id = ?1 and l.deletedAt is null order by l.id")
+    List<TaskList> findAllByProjectId(Integer projectId);
+
+    @Query("select l from list l where l.id in ?1 and l.project.id = ?2 and l.deletedAt is null order by l.id")
+    List<TaskList> findAllByIdInProject(Collection<Integer> ids, Integer projectId);
+
+    @EntityGraph(attributePaths = "project")
+    @Query("select l from list l where l.id in ?1 and l.deletedAt is null and l.project.deletedAt is null")
+    List<TaskList> findAllByIdIn(Collection<Integer> ids);
+
+    @Modifying
+    @Query("delete from list l where l.id in ?1")
+    int deleteAllByIdIn(Collection<Integer> ids);
+
+    @Modifying
+    @Query("update list l set l.deletedAt = ?2 where l.id = ?1")
+    int markDeleted(Integer id, LocalDateTime time);
+
+    /**
+     * Ids of deleted lists and lists of deleted projects which have no tasks left.
+     */
+    @Query(value = "select l.id from lampochky.list l inner join lampochky.project p on p.id = l.project_id " +
+            "where (l.deleted_at is not null or p.deleted_at is not null) " +
+            "and not exists (select 1 from lampochky.task t where t.list_id = l.id) limit ?1", nativeQuery = true)
+    List<Integer> findIdsToPurge(int limit);
 }
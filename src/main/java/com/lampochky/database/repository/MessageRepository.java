@@ -2,11 +2,87 @@ package com.lampochky.database.repository;
 
 import com.lampochky.database.entity.Message;
 import com.lampochky.database.entity.Task;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface MessageRepository extends JpaRepository<Message, Integer> {
+    interface MessageTask {
+        Integer getId();
+        Integer getTaskId();
+    }
+
+    interface MessageText {
+        Integer getId();
+        Integer getTaskId();
+        String getText();
+    }
+
+    String messageText = "select m.id as id, t.id as taskId, m.text as text " +
+            "from Message m inner join m.task t inner join t.taskList l ";
+
     List<Message> findAllByTask(Task task, Sort sort);
+
+    @Query("select m from Message m inner join fetch m.user where m.task.taskList.project.id = ?1 " +
+            "and m.task.taskList.deletedAt is null order by m.dateTime, m.id")
+    List<Message> findBoardByProjectId(Integer projectId);
+
+    @Query("select m from Message m inner join fetch m.user where m.task.taskList.id = ?1 " +
+            "and m.task.taskList.deletedAt is null order by m.dateTime, m.id")
+    List<Message> findBoardByListId(Integer listId);
+
+    @Query("select m from Message m inner join fetch m.user where m.id in ?1 " +
+            "and m.task.taskList.project.id = ?2 and m.task.taskList.deletedAt is null " +
+            "order by m.dateTime, m.id")
+    List<Message> findBoardByIdInProject(Collection<Integer> ids, Integer projectId);
+
+    @Query("select m from Message m inner join fetch m.user where m.task in ?1 order by m.dateTime, m.id")
+    List<Message> findAllInTasks(Collection<Task> tasks);
+
+    @Query("select m.id as id, m.task.id as taskId from Message m where m.task.id in ?1")
+    List<MessageTask> findTaskIdsByTaskIdIn(Collection<Integer> taskIds);
+
+    @Query("select m from Message m inner join fetch m.user where m.task = ?1 " +
+            "order by m.dateTime desc, m.id desc")
+    List<Message> findLatestInTask(Task task, Pageable pageable);
+
+    @Query("select m from Message m inner join fetch m.user where m.task = ?1 " +
+            "order by m.dateTime, m.id")
+    List<Message> findEarliestInTask(Task task, Pageable pageable);
+
+    @Query("select m from Message m inner join fetch m.user where m.task = ?1 " +
+            "and (m.dateTime < ?2 or (m.dateTime = ?2 and m.id < ?3)) " +
+            "order by m.dateTime desc, m.id desc")
+    List<Message> findOlderInTask(Task task, LocalDateTime dateTime, Integer id, Pageable pageable);
+
+    @Query("select m from Message m inner join fetch m.user where m.task = ?1 " +
+            "and (m.dateTime > ?2 or (m.dateTime = ?2 and m.id > ?3)) " +
+            "order by m.dateTime, m.id")
+    List<Message> findNewerInTask(Task task, LocalDateTime dateTime, Integer id, Pageable pageable);
+
+    /**
+     * Texts of messages in the project, read from a cursor. The stream has to be consumed and closed
+     * inside a transaction.
+     */
+    @Query(messageText + "where l.project.id = ?1 and l.deletedAt is null")
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true")})
+    Stream<MessageText> streamTextInProject(Integer projectId);
+
+    @Query(messageText + "where m.id in ?1 and l.project.id = ?2 and l.deletedAt is null and l.project.deletedAt is null")
+    List<MessageText> findTextByIdInProject(Collection<Integer> ids, Integer projectId);
+
+    @Modifying
+    @Query("delete from Message m where m.task.id in ?1")
+    int deleteAllByTaskIdIn(Collection<Integer> taskIds);
 }
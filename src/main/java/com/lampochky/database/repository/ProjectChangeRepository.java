@@ -0,0 +1,27 @@
+package com.lampochky.database.repository;
+
+import com.lampochky.database.entity.ProjectChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProjectChangeRepository extends JpaRepository<ProjectChange, Long> {
+    @Query("select c from ProjectChange c where c.projectId = ?1 and c.revision > ?2 and c.revision <= ?3 " +
+            "order by c.revision, c.id")
+    List<ProjectChange> findAllInRevisions(Integer projectId, Long since, Long until);
+
+    /**
+     * Ids of changes older than the last {@code keepRevisions} revisions of their project.
+     */
+    @Query("select c.id from ProjectChange c, ProjectRevision r where r.projectId = c.projectId " +
+            "and c.revision <= r.revision - ?1")
+    List<Long> findIdsToPurge(long keepRevisions, Pageable pageable);
+
+    @Modifying
+    @Query("delete from ProjectChange c where c.id in ?1")
+    int deleteAllByIdIn(Collection<Long> ids);
+}
@@ -3,11 +3,30 @@ package com.lampochky.database.repository;
 import com.lampochky.database.entity.Project;
 import com.lampochky.database.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ProjectRepository extends JpaRepository<Project, Integer> {
-    @Query("select p from Project p inner join p.users up where up.confirmed = true and up.user = ?1")
+    @Query("select p from Project p inner join p.users up where up.confirmed = true and up.user = ?1 " +
+            "and p.deletedAt is null")
     List<Project> findAllByUser(User user);
+
+    @Modifying
+    @Query("delete from Project p where p.id in ?1")
+    int deleteAllByIdIn(Collection<Integer> ids);
+
+    @Modifying
+    @Query("update Project p set p.deletedAt = ?2 where p.id = ?1")
+    int markDeleted(Integer id, LocalDateTime time);
+
+    /**
+     * Ids of deleted projects which have no lists left.
+     */
+    @Query(value = "select p.id from lampochky.project p where p.deleted_at is not null " +
+            "and not exists (select 1 from lampochky.list l where l.project_id = p.id) limit ?1", nativeQuery = true)
+    List<Integer> findIdsToPurge(int limit);
 }
@@ -0,0 +1,23 @@
+package com.lampochky.database.repository;
+
+import com.lampochky.database.entity.ProjectRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+
+public interface ProjectRevisionRepository extends JpaRepository<ProjectRevision, Integer> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from ProjectRevision r where r.projectId = ?1")
+    Optional<ProjectRevision> findForUpdate(Integer projectId);
+
+    @Query("select r.revision from ProjectRevision r where r.projectId = ?1")
+    Optional<Long> findRevision(Integer projectId);
+
+    @Query("select r from ProjectRevision r, UserProject up where up.project.id = r.projectId and up.user.id = ?1 " +
+            "order by r.projectId")
+    List<ProjectRevision> findAllByUserId(Integer userId);
+}
@@ -1,7 +1,25 @@
 package com.lampochky.database.repository;
 
 import com.lampochky.database.entity.Tag;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface TagRepository extends JpaRepository<Tag, Integer> {
+    @Query("select t from Tag t where t.project.id = ?1 order by t.id")
+    List<Tag> findAllByProjectId(Integer projectId);
+
+    @Query("select t from Tag t where t.id in ?1 and t.project.id = ?2")
+    List<Tag> findAllByIdInProject(Collection<Integer> ids, Integer projectId);
+
+    @EntityGraph(attributePaths = "project")
+    List<Tag> findAllByIdIn(Collection<Integer> ids);
+
+    @Modifying
+    @Query("delete from Tag t where t.project.id = ?1")
+    int deleteAllByProjectId(Integer projectId);
 }
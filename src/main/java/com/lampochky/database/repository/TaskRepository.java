@@ -2,12 +2,143 @@ package com.lampochky.database.repository;
 
 import com.lampochky.database.entity.Project;
 import com.lampochky.database.entity.Task;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface TaskRepository extends JpaRepository<Task, Integer> {
-    @Query("select t from Task t inner join t.taskList l where l.project = ?1")
+public interface TaskRepository extends JpaRepository<Task, Integer>, JpaSpecificationExecutor<Task> {
+    interface TaskProject {
+        Integer getId();
+        Integer getProjectId();
+    }
+
+    /**
+     * Columns of a task shown in calendars, read without managing entities.
+     */
+    interface CalendarEntry {
+        Integer getId();
+        String getName();
+        LocalDate getDateToStart();
+        LocalDate getDateToFinish();
+        Integer getPriority();
+        Integer getListId();
+        Integer getProjectId();
+        Integer getAssignedUserId();
+    }
+
+    String calendarEntry = "select t.id as id, t.name as name, t.dateToStart as dateToStart, " +
+            "t.dateToFinish as dateToFinish, t.priority as priority, l.id as listId, l.project.id as projectId, " +
+            "t.assignedUser.id as assignedUserId from Task t inner join t.taskList l ";
+
+    interface TaskText {
+        Integer getId();
+        Integer getListId();
+        String getName();
+        String getDescription();
+    }
+
+    String taskText = "select t.id as id, l.id as listId, t.name as name, t.description as description " +
+            "from Task t inner join t.taskList l ";
+
+    String assignedToMember = "t.assignedUser.id = ?1 and l.deletedAt is null and l.project.deletedAt is null " +
+            "and exists (select r.id from UserProject r where r.user.id = ?1 and r.project = l.project) ";
+
+    @Query("select t from Task t inner join t.taskList l where l.project = ?1 and l.deletedAt is null")
     List<Task> findAllByProject(Project project);
+
+    @Query("select distinct t from Task t inner join fetch t.taskList l left join fetch t.assignedUser " +
+            "inner join fetch t.creator left join fetch t.tags where l.project.id = ?1 and l.deletedAt is null " +
+            "order by t.id")
+    List<Task> findBoardByProjectId(Integer projectId);
+
+    @Query("select distinct t from Task t inner join fetch t.taskList l left join fetch t.assignedUser " +
+            "inner join fetch t.creator left join fetch t.tags where l.id = ?1 and l.deletedAt is null order by t.id")
+    List<Task> findBoardByListId(Integer listId);
+
+    @Query("select distinct t from Task t inner join fetch t.taskList l left join fetch t.assignedUser " +
+            "inner join fetch t.creator left join fetch t.tags where t.id in ?1 and l.project.id = ?2 " +
+            "and l.deletedAt is null order by t.id")
+    List<Task> findBoardByIdInProject(Collection<Integer> ids, Integer projectId);
+
+    @EntityGraph(attributePaths = {"taskList", "taskList.project", "assignedUser", "creator"},
+            type = EntityGraph.EntityGraphType.LOAD)
+    @Query("select t from Task t inner join t.taskList l where t.id in ?1 and l.deletedAt is null " +
+            "and l.project.deletedAt is null")
+    List<Task> findAllByIdIn(Collection<Integer> ids);
+
+    @Query("select t.id as id, l.project.id as projectId from Task t inner join t.taskList l where t.id in ?1")
+    List<TaskProject> findProjectIdsByIdIn(Collection<Integer> ids);
+
+    @Override
+    @EntityGraph(attributePaths = {"taskList", "assignedUser", "creator"}, type = EntityGraph.EntityGraphType.LOAD)
+    Page<Task> findAll(Specification<Task> specification, Pageable pageable);
+
+    /**
+     * Tasks of the project overlapping the period, by due date. A task overlaps the period when it finishes
+     * not before its start and starts not after its end, so the index on the due date bounds the scan
+     * of every list from below. The stream has to be consumed and closed inside a transaction.
+     */
+    @Query(calendarEntry + "where l.project.id = ?1 and l.deletedAt is null " +
+            "and t.dateToFinish >= ?2 and t.dateToStart <= ?3 order by t.dateToFinish, t.id")
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true")})
+    Stream<CalendarEntry> streamInProject(Integer projectId, LocalDate from, LocalDate to);
+
+    @Query(calendarEntry + "where " + assignedToMember +
+            "and t.dateToFinish >= ?2 and t.dateToStart <= ?3 order by t.dateToFinish, t.id")
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true")})
+    Stream<CalendarEntry> streamAssigned(Integer userId, LocalDate from, LocalDate to);
+
+    @Query(calendarEntry + "where l.project.id = ?1 and l.deletedAt is null and t.dateToFinish < ?2 " +
+            "order by t.dateToFinish, t.id")
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true")})
+    Stream<CalendarEntry> streamOverdueInProject(Integer projectId, LocalDate date);
+
+    @Query(calendarEntry + "where " + assignedToMember + "and t.dateToFinish < ?2 order by t.dateToFinish, t.id")
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true")})
+    Stream<CalendarEntry> streamOverdueAssigned(Integer userId, LocalDate date);
+
+    /**
+     * Texts of tasks in the project, read from a cursor. The stream has to be consumed and closed
+     * inside a transaction.
+     */
+    @Query(taskText + "where l.project.id = ?1 and l.deletedAt is null")
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true")})
+    Stream<TaskText> streamTextInProject(Integer projectId);
+
+    @Query(taskText + "where t.id in ?1 and l.project.id = ?2 and l.deletedAt is null and l.project.deletedAt is null")
+    List<TaskText> findTextByIdInProject(Collection<Integer> ids, Integer projectId);
+
+    @Modifying
+    @Query("delete from Task t where t.id in ?1")
+    int deleteAllByIdIn(Collection<Integer> ids);
+
+    /**
+     * Ids of tasks in deleted lists and deleted projects.
+     */
+    @Query(value = "select t.id from lampochky.task t inner join lampochky.list l on l.id = t.list_id " +
+            "inner join lampochky.project p on p.id = l.project_id " +
+            "where l.deleted_at is not null or p.deleted_at is not null limit ?1", nativeQuery = true)
+    List<Integer> findIdsToPurge(int limit);
 }
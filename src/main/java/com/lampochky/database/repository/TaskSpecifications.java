@@ -0,0 +1,102 @@
+package com.lampochky.database.repository;
+
+import com.lampochky.database.entity.Tag;
+import com.lampochky.database.entity.Task;
+import com.lampochky.database.entity.TaskList;
+import com.lampochky.database.entity.UserProject;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.time.LocalDate;
+
+/**
+ * Filters of task listings. A filter with a null argument is null itself, so it is skipped
+ * when combined with {@link Specification#and}.
+ */
+public class TaskSpecifications {
+    private TaskSpecifications() {}
+
+    public static Specification<Task> inList(Integer listId) {
+        return (root, query, cb) -> cb.and(cb.equal(root.get("taskList").get("id"), listId),
+                cb.isNull(root.get("taskList").get("deletedAt")));
+    }
+
+    public static Specification<Task> inProject(Integer projectId) {
+        return (root, query, cb) -> cb.and(cb.equal(root.get("taskList").get("project").get("id"), projectId),
+                cb.isNull(root.get("taskList").get("deletedAt")));
+    }
+
+    /**
+     * Tasks assigned to the user in projects the user is a member of, skipping deleted lists and projects.
+     * With confirmedOnly, projects the user has not confirmed the membership in are skipped as well.
+     */
+    public static Specification<Task> assignedToMember(Integer userId, boolean confirmedOnly) {
+        return (root, query, cb) -> {
+            Join<Task, TaskList> taskList = root.join("taskList");
+            Subquery<Integer> subquery = query.subquery(Integer.class);
+            Root<UserProject> relation = subquery.from(UserProject.class);
+            Predicate membership = cb.and(cb.equal(relation.get("user").get("id"), userId),
+                    cb.equal(relation.get("project"), taskList.get("project")));
+            if(confirmedOnly) {
+                membership = cb.and(membership, cb.isTrue(relation.get("confirmed")));
+            }
+            subquery.select(relation.get("id")).where(membership);
+            return cb.and(cb.equal(root.get("assignedUser").get("id"), userId),
+                    cb.isNull(taskList.get("deletedAt")),
+                    cb.isNull(taskList.get("project").get("deletedAt")),
+                    cb.exists(subquery));
+        };
+    }
+
+    public static Specification<Task> assignedTo(Integer userId) {
+        if(userId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("assignedUser").get("id"), userId);
+    }
+
+    public static Specification<Task> taggedWith(Integer tagId) {
+        if(tagId == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Subquery<Integer> subquery = query.subquery(Integer.class);
+            Root<Task> tagged = subquery.from(Task.class);
+            Join<Task, Tag> tag = tagged.join("tags");
+            subquery.select(tagged.get("id"))
+                    .where(cb.equal(tagged, root), cb.equal(tag.get("id"), tagId));
+            return cb.exists(subquery);
+        };
+    }
+
+    public static Specification<Task> priorityFrom(Integer minPriority) {
+        if(minPriority == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("priority"), minPriority);
+    }
+
+    public static Specification<Task> priorityTo(Integer maxPriority) {
+        if(maxPriority == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("priority"), maxPriority);
+    }
+
+    public static Specification<Task> finishesFrom(LocalDate from) {
+        if(from == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dateToFinish"), from);
+    }
+
+    public static Specification<Task> startsTo(LocalDate to) {
+        if(to == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("dateToStart"), to);
+    }
+}
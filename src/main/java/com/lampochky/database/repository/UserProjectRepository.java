@@ -3,10 +3,31 @@ package com.lampochky.database.repository;
 import com.lampochky.database.entity.Project;
 import com.lampochky.database.entity.User;
 import com.lampochky.database.entity.UserProject;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 
 public interface UserProjectRepository extends JpaRepository<UserProject, Integer> {
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
     List<UserProject> findByUserAndProject(User user, Project project);
+
+    @EntityGraph(attributePaths = "project", type = EntityGraph.EntityGraphType.LOAD)
+    List<UserProject> findAllByUserIdOrderById(Integer userId);
+
+    @Query("select up from UserProject up inner join fetch up.user where up.project.id = ?1 order by up.id")
+    List<UserProject> findBoardByProjectId(Integer projectId);
+
+    @Query("select up from UserProject up inner join fetch up.user u where u.id in ?1 and up.project.id = ?2 " +
+            "order by up.id")
+    List<UserProject> findBoardByUserIdInProject(Collection<Integer> userIds, Integer projectId);
+
+    @Modifying
+    @Query("delete from UserProject up where up.project.id = ?1")
+    int deleteAllByProjectId(Integer projectId);
 }
@@ -4,6 +4,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +22,13 @@ public class AbstractService<T>{
         return repository.findById(id);
     }
 
+    public List<T> findAllById(Collection<Integer> ids) {
+        if(ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return repository.findAllById(ids);
+    }
+
     public List<T> findAll() {
         return repository.findAll();
     }
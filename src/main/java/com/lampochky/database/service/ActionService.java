@@ -1,14 +1,111 @@
 package com.lampochky.database.service;
 
 import com.lampochky.database.entity.Action;
+import com.lampochky.database.entity.ActionType;
+import com.lampochky.database.entity.Task;
+import com.lampochky.database.entity.TaskList;
+import com.lampochky.database.entity.User;
 import com.lampochky.database.repository.ActionRepository;
+import com.lampochky.database.repository.ActionRepository.ActionEntry;
+import com.lampochky.dto.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ActionService extends AbstractService<Action>{
+    private final ActionRepository repository;
+    private final ActionWriter writer;
+    private final int pageSize;
+    private final int maxPageSize;
+
     @Autowired
-    public ActionService(ActionRepository repository) {
+    public ActionService(ActionRepository repository, ActionWriter writer,
+                         @Value("${action.page.size:50}") Integer pageSize,
+                         @Value("${action.page.max-size:200}") Integer maxPageSize) {
         super(repository);
+        this.repository = repository;
+        this.writer = writer;
+        this.pageSize = pageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Records the action in the background, it is written after the request completes.
+     */
+    public void record(ActionType type, User user, Task task) {
+        TaskList taskList = task.getList();
+        writer.offer(new Action(LocalDateTime.now(), user, type,
+                taskList.getProject().getId(), taskList.getId(), task.getId()));
+    }
+
+    public void record(ActionType type, User user, TaskList taskList) {
+        writer.offer(new Action(LocalDateTime.now(), user, type,
+                taskList.getProject().getId(), taskList.getId(), null));
+    }
+
+    /**
+     * Page of actions in the project older than the cursor, the latest page without a cursor.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<ActionEntry> findPageInProject(Integer projectId, KeysetCursor cursor, Integer limit) {
+        Pageable pageable = pageable(limit);
+        return page(cursor == null
+                ? repository.findLatestInProject(projectId, pageable)
+                : repository.findOlderInProject(projectId, cursor.getDateTime(), cursor.getId(), pageable),
+                pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<ActionEntry> findPageInTask(Integer taskId, KeysetCursor cursor, Integer limit) {
+        Pageable pageable = pageable(limit);
+        return page(cursor == null
+                ? repository.findLatestInTask(taskId, pageable)
+                : repository.findOlderInTask(taskId, cursor.getDateTime(), cursor.getId(), pageable),
+                pageable);
+    }
+
+    /**
+     * Project of the latest action of the task, it outlives the task itself.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Integer> findProjectIdOfTask(Integer taskId) {
+        return repository.findProjectIdsOfTask(taskId, PageRequest.of(0, 1)).stream().findFirst();
+    }
+
+    /**
+     * Passes actions of the project in the period to the consumer one by one, oldest first,
+     * without reading all of them into memory.
+     */
+    @Transactional(readOnly = true)
+    public void exportInProject(Integer projectId, LocalDateTime from, LocalDateTime to,
+                                Consumer<ActionEntry> consumer) {
+        try(Stream<ActionEntry> actions = repository.streamInProject(projectId, from, to)) {
+            actions.forEach(consumer);
+        }
+    }
+
+    private Pageable pageable(Integer limit) {
+        int size = limit == null ? pageSize : Math.max(1, Math.min(limit, maxPageSize));
+        return PageRequest.of(0, size + 1);
+    }
+
+    private KeysetPage<ActionEntry> page(List<ActionEntry> actions, Pageable pageable) {
+        int size = pageable.getPageSize() - 1;
+        boolean hasMore = actions.size() > size;
+        actions = new ArrayList<>(actions.subList(0, Math.min(size, actions.size())));
+        Collections.reverse(actions);
+        return new KeysetPage<>(actions, hasMore);
     }
 }
@@ -0,0 +1,182 @@
+package com.lampochky.database.service;
+
+import com.lampochky.database.entity.Action;
+import com.lampochky.database.repository.ActionRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes actions in the background, so requests do not wait for the audit trail.
+ * Actions are queued in memory, up to {@code action.writer.capacity} of them, and inserted
+ * in batches of {@code action.writer.batch-size}. A batch is written once it is full or
+ * {@code action.writer.linger} ms after its first action.
+ * When the queue is full, a request waits up to {@code action.writer.offer-timeout} ms for free space,
+ * then the action is dropped. Queued actions are written before the application stops.
+ */
+@Component
+public class ActionWriter implements MeterBinder, DisposableBean {
+    private final Logger log = LogManager.getLogger(getClass());
+    private final ActionRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Action> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final long offerTimeout;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile Timer flushTimer;
+
+    @Autowired
+    public ActionWriter(ActionRepository repository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${action.writer.capacity:10000}") int capacity,
+                        @Value("${action.writer.batch-size:50}") int batchSize,
+                        @Value("${action.writer.linger:200}") long linger,
+                        @Value("${action.writer.offer-timeout:0}") long offerTimeout) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(linger);
+        this.offerTimeout = offerTimeout;
+        this.thread = new Thread(this::run, "action-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues the action. Returns false when it is dropped.
+     */
+    public boolean offer(Action action) {
+        boolean queued = false;
+        if(running) {
+            try {
+                queued = offerTimeout > 0
+                        ? queue.offer(action, offerTimeout, TimeUnit.MILLISECONDS)
+                        : queue.offer(action);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if(!queued) {
+            long count = dropped.incrementAndGet();
+            log.warn("{} of user {} is dropped, {} actions dropped so far",
+                    action.getType(), action.getUser().getId(), count);
+        }
+        return queued;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("action.writer.queue", this, ActionWriter::getQueueSize)
+                .description("Actions waiting to be written")
+                .register(registry);
+        FunctionCounter.builder("action.writer.written", written, AtomicLong::get)
+                .description("Actions written")
+                .register(registry);
+        FunctionCounter.builder("action.writer.dropped", dropped, AtomicLong::get)
+                .description("Actions dropped because the queue was full")
+                .register(registry);
+        FunctionCounter.builder("action.writer.failed", failed, AtomicLong::get)
+                .description("Actions lost because their batch failed")
+                .register(registry);
+        flushTimer = Timer.builder("action.writer.flush")
+                .description("Time to write a batch of actions")
+                .register(registry);
+    }
+
+    /**
+     * Stops accepting actions and waits for the queued ones to be written.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        thread.join(TimeUnit.NANOSECONDS.toMillis(lingerNanos) + 10000);
+        if(thread.isAlive()) {
+            log.warn("action writer did not stop, {} actions are not written", queue.size());
+        }
+    }
+
+    private void run() {
+        List<Action> batch = new ArrayList<>(batchSize);
+        while(running) {
+            try {
+                Action first = queue.poll(TimeUnit.NANOSECONDS.toMillis(lingerNanos) + 100, TimeUnit.MILLISECONDS);
+                if(first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+            } catch (InterruptedException ex) {
+                running = false;
+            }
+            write(batch);
+        }
+        while(!queue.isEmpty()) {
+            queue.drainTo(batch, batchSize);
+            write(batch);
+        }
+        log.info("action writer stopped, {} actions written, {} dropped", written.get(), dropped.get());
+    }
+
+    private void fill(List<Action> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + lingerNanos;
+        while(batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if(batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            Action next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if(next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<Action> batch) {
+        if(batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.saveAll(batch));
+            written.addAndGet(batch.size());
+        } catch (RuntimeException ex) {
+            failed.addAndGet(batch.size());
+            log.error("{} actions are not written: {}", batch.size(), ex.getMessage());
+        } finally {
+            Timer timer = flushTimer;
+            if(timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.lampochky.database.service;
+
+import com.lampochky.database.entity.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entities of a project changed after a revision, loaded in one transaction. Entities deleted
+ * or moved to another project since then are listed by ids, members by user ids.
+ */
+public class BoardChanges {
+    private final Project project;
+    private final long since;
+    private final long revision;
+    private final boolean projectChanged;
+    private final List<TaskList> lists;
+    private final List<Task> tasks;
+    private final List<Tag> tags;
+    private final List<Message> messages;
+    private final List<UserProject> members;
+    private final Map<ChangeType, List<Integer>> deletedIds;
+    private final boolean expired;
+
+    public BoardChanges(Project project, long since, long revision, boolean projectChanged,
+                        List<TaskList> lists, List<Task> tasks, List<Tag> tags, List<Message> messages,
+                        List<UserProject> members, Map<ChangeType, List<Integer>> deletedIds) {
+        this.project = project;
+        this.since = since;
+        this.revision = revision;
+        this.projectChanged = projectChanged;
+        this.lists = lists;
+        this.tasks = tasks;
+        this.tags = tags;
+        this.messages = messages;
+        this.members = members;
+        this.deletedIds = deletedIds;
+        this.expired = false;
+    }
+
+    /**
+     * No changes of the project up to the revision.
+     */
+    public BoardChanges(Project project, long since, long revision) {
+        this(project, since, revision, false);
+    }
+
+    /**
+     * No changes of the project up to the revision. Expired ones are not kept anymore,
+     * so the whole board has to be loaded instead.
+     */
+    public BoardChanges(Project project, long since, long revision, boolean expired) {
+        this.project = project;
+        this.since = since;
+        this.revision = revision;
+        this.projectChanged = false;
+        this.lists = Collections.emptyList();
+        this.tasks = Collections.emptyList();
+        this.tags = Collections.emptyList();
+        this.messages = Collections.emptyList();
+        this.members = Collections.emptyList();
+        this.deletedIds = Collections.emptyMap();
+        this.expired = expired;
+    }
+
+    public Project getProject() {
+        return project;
+    }
+
+    public long getSince() {
+        return since;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public boolean isProjectChanged() {
+        return projectChanged;
+    }
+
+    public List<TaskList> getLists() {
+        return lists;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public List<Tag> getTags() {
+        return tags;
+    }
+
+    public List<Message> getMessages() {
+        return messages;
+    }
+
+    public List<UserProject> getMembers() {
+        return members;
+    }
+
+    public boolean isExpired() {
+        return expired;
+    }
+
+    public List<Integer> getDeletedIds(ChangeType type) {
+        return deletedIds.getOrDefault(type, Collections.emptyList());
+    }
+}
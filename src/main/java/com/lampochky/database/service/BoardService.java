@@ -0,0 +1,149 @@
+package com.lampochky.database.service;
+
+import com.lampochky.database.entity.*;
+import com.lampochky.database.repository.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class BoardService {
+    private final ProjectRepository projectRepository;
+    private final ListRepository listRepository;
+    private final TaskRepository taskRepository;
+    private final MessageRepository messageRepository;
+    private final UserProjectRepository userProjectRepository;
+    private final TagRepository tagRepository;
+    private final ProjectRevisionRepository revisionRepository;
+    private final ProjectChangeRepository changeRepository;
+    private final long keepRevisions;
+
+    @Autowired
+    public BoardService(ProjectRepository projectRepository, ListRepository listRepository,
+                        TaskRepository taskRepository, MessageRepository messageRepository,
+                        UserProjectRepository userProjectRepository, TagRepository tagRepository,
+                        ProjectRevisionRepository revisionRepository, ProjectChangeRepository changeRepository,
+                        @Value("${purge.keep-revisions:10000}") long keepRevisions) {
+        this.projectRepository = projectRepository;
+        this.listRepository = listRepository;
+        this.taskRepository = taskRepository;
+        this.messageRepository = messageRepository;
+        this.userProjectRepository = userProjectRepository;
+        this.tagRepository = tagRepository;
+        this.revisionRepository = revisionRepository;
+        this.changeRepository = changeRepository;
+        this.keepRevisions = keepRevisions;
+    }
+
+    /**
+     * Loads the whole board with one query per level, independent of the number of lists,
+     * tasks and messages. The revision is read first, so the board contains at least its changes.
+     */
+    @Transactional(readOnly = true)
+    public Optional<BoardSnapshot> findByProjectId(Integer projectId) {
+        Long revision = revisionRepository.findRevision(projectId).orElse(0L);
+        return projectRepository.findById(projectId)
+                .filter(project -> project.getDeletedAt() == null)
+                .map(project -> new BoardSnapshot(
+                project,
+                revision,
+                listRepository.findAllByProjectId(projectId),
+                taskRepository.findBoardByProjectId(projectId),
+                messageRepository.findBoardByProjectId(projectId),
+                userProjectRepository.findBoardByProjectId(projectId),
+                tagRepository.findAllByProjectId(projectId)
+        ));
+    }
+
+    /**
+     * Loads lists of the project with their tasks and messages.
+     */
+    @Transactional(readOnly = true)
+    public BoardSnapshot findListsByProject(Project project) {
+        return new BoardSnapshot(
+                project,
+                null,
+                listRepository.findAllByProjectId(project.getId()),
+                taskRepository.findBoardByProjectId(project.getId()),
+                messageRepository.findBoardByProjectId(project.getId()),
+                Collections.emptyList(),
+                Collections.emptyList()
+        );
+    }
+
+    /**
+     * Loads tasks of the list with their messages.
+     */
+    @Transactional(readOnly = true)
+    public BoardSnapshot findByList(TaskList taskList) {
+        return new BoardSnapshot(
+                taskList.getProject(),
+                null,
+                Collections.singletonList(taskList),
+                taskRepository.findBoardByListId(taskList.getId()),
+                messageRepository.findBoardByListId(taskList.getId()),
+                Collections.emptyList(),
+                Collections.emptyList()
+        );
+    }
+
+    /**
+     * Loads entities of the project changed after the revision {@code since}. Every entity is
+     * loaded once in its current state, however many times it was changed. Changes since a revision
+     * older than the last {@code purge.keep-revisions} ones are expired, as they may be purged.
+     */
+    @Transactional(readOnly = true)
+    public BoardChanges findChanges(Project project, long since) {
+        Integer projectId = project.getId();
+        long revision = revisionRepository.findRevision(projectId).orElse(0L);
+        project = projectRepository.findById(projectId).orElse(project);
+        if(revision - since > keepRevisions) {
+            return new BoardChanges(project, since, revision, true);
+        }
+        Map<ChangeType, Map<Integer, Boolean>> changes = new EnumMap<>(ChangeType.class);
+        if(since < revision) {
+            for(ProjectChange change: changeRepository.findAllInRevisions(projectId, since, revision)) {
+                changes.computeIfAbsent(change.getEntityType(), type -> new LinkedHashMap<>())
+                        .put(change.getEntityId(), change.getDeleted());
+            }
+        }
+        Map<ChangeType, List<Integer>> deletedIds = new EnumMap<>(ChangeType.class);
+        List<TaskList> lists = load(changes, deletedIds, ChangeType.LIST,
+                ids -> listRepository.findAllByIdInProject(ids, projectId), TaskList::getId);
+        List<Task> tasks = load(changes, deletedIds, ChangeType.TASK,
+                ids -> taskRepository.findBoardByIdInProject(ids, projectId), Task::getId);
+        List<Tag> tags = load(changes, deletedIds, ChangeType.TAG,
+                ids -> tagRepository.findAllByIdInProject(ids, projectId), Tag::getId);
+        List<Message> messages = load(changes, deletedIds, ChangeType.MESSAGE,
+                ids -> messageRepository.findBoardByIdInProject(ids, projectId), Message::getId);
+        List<UserProject> members = load(changes, deletedIds, ChangeType.MEMBER,
+                ids -> userProjectRepository.findBoardByUserIdInProject(ids, projectId), up -> up.getUser().getId());
+        return new BoardChanges(project, since, revision, changes.containsKey(ChangeType.PROJECT),
+                lists, tasks, tags, messages, members, deletedIds);
+    }
+
+    /**
+     * Loads the changed entities of one type that are still in the project. Ids of the others are
+     * added to the deleted ones.
+     */
+    private <T> List<T> load(Map<ChangeType, Map<Integer, Boolean>> changes, Map<ChangeType, List<Integer>> deletedIds,
+                             ChangeType type, Function<Collection<Integer>, List<T>> finder, Function<T, Integer> id) {
+        Map<Integer, Boolean> changed = changes.getOrDefault(type, Collections.emptyMap());
+        Set<Integer> savedIds = changed.entrySet().stream().filter(e -> !e.getValue())
+                .map(Map.Entry::getKey).collect(Collectors.toCollection(LinkedHashSet::new));
+        List<T> saved = savedIds.isEmpty() ? Collections.emptyList() : finder.apply(savedIds);
+        saved.forEach(entity -> savedIds.remove(id.apply(entity)));
+        List<Integer> deleted = changed.entrySet().stream().filter(Map.Entry::getValue)
+                .map(Map.Entry::getKey).collect(Collectors.toList());
+        deleted.addAll(savedIds);
+        if(!deleted.isEmpty()) {
+            deletedIds.put(type, deleted);
+        }
+        return saved;
+    }
+}
@@ -0,0 +1,64 @@
+package com.lampochky.database.service;
+
+import com.lampochky.database.entity.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Fully loaded project graph. Children are grouped by their parent ids, so building DTOs
+ * from a snapshot never touches lazy associations.
+ */
+public class BoardSnapshot {
+    private final Project project;
+    private final Long revision;
+    private final List<TaskList> lists;
+    private final Map<Integer, List<Task>> tasksByList;
+    private final Map<Integer, List<Message>> messagesByTask;
+    private final List<UserProject> members;
+    private final List<Tag> tags;
+
+    public BoardSnapshot(Project project, Long revision, List<TaskList> lists, List<Task> tasks,
+                         List<Message> messages, List<UserProject> members, List<Tag> tags) {
+        this.project = project;
+        this.revision = revision;
+        this.lists = lists;
+        this.tasksByList = tasks.stream().collect(Collectors.groupingBy(t -> t.getList().getId(),
+                LinkedHashMap::new, Collectors.toList()));
+        this.messagesByTask = messages.stream().collect(Collectors.groupingBy(m -> m.getTask().getId(),
+                LinkedHashMap::new, Collectors.toList()));
+        this.members = members;
+        this.tags = tags;
+    }
+
+    public Project getProject() {
+        return project;
+    }
+
+    /**
+     * Revision of the project read before the board, or null when the snapshot is a part of the board.
+     */
+    public Long getRevision() {
+        return revision;
+    }
+
+    public List<TaskList> getLists() {
+        return lists;
+    }
+
+    public List<Task> getTasks(TaskList taskList) {
+        return tasksByList.getOrDefault(taskList.getId(), Collections.emptyList());
+    }
+
+    public List<Message> getMessages(Task task) {
+        return messagesByTask.getOrDefault(task.getId(), Collections.emptyList());
+    }
+
+    public List<UserProject> getMembers() {
+        return members;
+    }
+
+    public List<Tag> getTags() {
+        return tags;
+    }
+}
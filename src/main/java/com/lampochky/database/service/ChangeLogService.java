@@ -0,0 +1,93 @@
+package com.lampochky.database.service;
+
+import com.lampochky.database.entity.ChangeType;
+import com.lampochky.database.entity.Project;
+import com.lampochky.database.entity.ProjectChange;
+import com.lampochky.database.entity.ProjectRevision;
+import com.lampochky.database.entity.User;
+import com.lampochky.database.repository.ProjectChangeRepository;
+import com.lampochky.database.repository.ProjectRevisionRepository;
+import com.lampochky.events.ProjectChangedEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the revision of every project and the log of entities changed under each revision.
+ * Services record their changes in the transaction of the change itself, every new revision
+ * is published as a {@link ProjectChangedEvent}.
+ */
+@Service
+public class ChangeLogService {
+    private final Logger log = LogManager.getLogger(getClass());
+    private final ProjectRevisionRepository revisionRepository;
+    private final ProjectChangeRepository changeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public ChangeLogService(ProjectRevisionRepository revisionRepository,
+                            ProjectChangeRepository changeRepository,
+                            ApplicationEventPublisher eventPublisher) {
+        this.revisionRepository = revisionRepository;
+        this.changeRepository = changeRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Revision of the project. It is read from the primary database: a read replica lagging behind
+     * would give back a revision the client has already seen, and its request would get 304.
+     */
+    @Transactional
+    public long findRevision(Project project) {
+        return revisionRepository.findRevision(project.getId()).orElse(0L);
+    }
+
+    /**
+     * Revisions of all projects the user is a member of or invited to, read from the primary database.
+     */
+    @Transactional
+    public List<ProjectRevision> findAllByUser(User user) {
+        return revisionRepository.findAllByUserId(user.getId());
+    }
+
+    public void createRevision(Project project) {
+        revisionRepository.save(new ProjectRevision(project.getId(), 0L));
+    }
+
+    @Transactional
+    public void record(ChangeType type, Project project, Integer entityId, boolean deleted) {
+        record(Collections.singletonList(new ProjectChange(project.getId(), type, entityId, deleted)));
+    }
+
+    /**
+     * Stores the changes under a new revision of every project they belong to. Projects are locked
+     * in the order of their ids, so concurrent changes of several projects do not deadlock.
+     */
+    @Transactional
+    public void record(List<ProjectChange> changes) {
+        Map<Integer, List<ProjectChange>> changesByProject = changes.stream()
+                .collect(Collectors.groupingBy(ProjectChange::getProjectId, TreeMap::new, Collectors.toList()));
+        changesByProject.forEach((projectId, projectChanges) -> {
+            Optional<ProjectRevision> optRevision = revisionRepository.findForUpdate(projectId);
+            if(!optRevision.isPresent()) {
+                log.warn("changes of project {} are not recorded, it has no revision", projectId);
+                return;
+            }
+            ProjectRevision revision = optRevision.get();
+            revision.setRevision(revision.getRevision() + 1);
+            projectChanges.forEach(change -> change.setRevision(revision.getRevision()));
+            changeRepository.saveAll(projectChanges);
+            eventPublisher.publishEvent(new ProjectChangedEvent(projectId, revision.getRevision(), projectChanges));
+        });
+    }
+}
@@ -0,0 +1,117 @@
+package com.lampochky.database.service;
+
+import com.lampochky.database.repository.*;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Removes the content of deleted projects and lists in the background, so deleting them does not
+ * hold locks on their whole subtree. Every {@code purge.interval} ms tasks, then lists, then projects
+ * are removed in chunks of {@code purge.chunk-size}, each chunk in its own transaction.
+ * At most {@code purge.max-chunks} chunks of every kind are removed per run.
+ * Changes of projects are kept for their last {@code purge.keep-revisions} revisions.
+ */
+@Component
+public class DeletedEntityPurger {
+    private final Logger log = LogManager.getLogger(getClass());
+    private final TaskRepository taskRepository;
+    private final MessageRepository messageRepository;
+    private final ListRepository listRepository;
+    private final ProjectRepository projectRepository;
+    private final TagRepository tagRepository;
+    private final UserProjectRepository userProjectRepository;
+    private final ProjectChangeRepository changeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int maxChunks;
+    private final long keepRevisions;
+
+    @Autowired
+    public DeletedEntityPurger(TaskRepository taskRepository,
+                               MessageRepository messageRepository,
+                               ListRepository listRepository,
+                               ProjectRepository projectRepository,
+                               TagRepository tagRepository,
+                               UserProjectRepository userProjectRepository,
+                               ProjectChangeRepository changeRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${purge.enabled:true}") boolean enabled,
+                               @Value("${purge.chunk-size:500}") int chunkSize,
+                               @Value("${purge.max-chunks:20}") int maxChunks,
+                               @Value("${purge.keep-revisions:10000}") long keepRevisions) {
+        this.taskRepository = taskRepository;
+        this.messageRepository = messageRepository;
+        this.listRepository = listRepository;
+        this.projectRepository = projectRepository;
+        this.tagRepository = tagRepository;
+        this.userProjectRepository = userProjectRepository;
+        this.changeRepository = changeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+        this.keepRevisions = keepRevisions;
+    }
+
+    @Scheduled(fixedDelayString = "${purge.interval:60000}", initialDelayString = "${purge.interval:60000}")
+    public void scheduledPurge() {
+        if(enabled) {
+            try {
+                purge();
+            } catch (RuntimeException ex) {
+                log.error("purge failed: {}", ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Removes what is left of deleted projects and lists, children first, then changes
+     * out of the kept revisions.
+     */
+    public void purge() {
+        int tasks = purge(taskRepository::findIdsToPurge, ids -> {
+            messageRepository.deleteAllByTaskIdIn(ids);
+            return taskRepository.deleteAllByIdIn(ids);
+        });
+        int lists = purge(listRepository::findIdsToPurge, listRepository::deleteAllByIdIn);
+        int projects = purge(projectRepository::findIdsToPurge, ids -> {
+            for(Integer id : ids) {
+                tagRepository.deleteAllByProjectId(id);
+                userProjectRepository.deleteAllByProjectId(id);
+            }
+            return projectRepository.deleteAllByIdIn(ids);
+        });
+        int changes = purge(limit -> changeRepository.findIdsToPurge(keepRevisions, PageRequest.of(0, limit)),
+                changeRepository::deleteAllByIdIn);
+        if(tasks + lists + projects + changes > 0) {
+            log.info("purged {} tasks, {} lists, {} projects and {} changes", tasks, lists, projects, changes);
+        }
+    }
+
+    private <T> int purge(IntFunction<List<T>> findIds, Function<List<T>, Integer> delete) {
+        int total = 0;
+        for(int chunk = 0; chunk < maxChunks; chunk++) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<T> ids = findIds.apply(chunkSize);
+                return ids.isEmpty() ? 0 : delete.apply(ids);
+            });
+            if(deleted == null || deleted == 0) {
+                break;
+            }
+            total += deleted;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,25 @@
+package com.lampochky.database.service;
+
+import java.util.List;
+
+/**
+ * One page of a keyset paginated list. Items are in ascending order regardless of the direction
+ * the page was read in, hasMore tells if there are more items in that direction.
+ */
+public class KeysetPage<T> {
+    private final List<T> items;
+    private final boolean hasMore;
+
+    public KeysetPage(List<T> items, boolean hasMore) {
+        this.items = items;
+        this.hasMore = hasMore;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
@@ -1,17 +1,68 @@
 package com.lampochky.database.service;
 
+import com.lampochky.database.entity.ChangeType;
+import com.lampochky.database.entity.Project;
 import com.lampochky.database.entity.TaskList;
 import com.lampochky.database.repository.ListRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
 @Service
 public class ListService extends AbstractService<TaskList> {
     private final ListRepository repository;
+    private final ChangeLogService changeLogService;
 
     @Autowired
-    public ListService(ListRepository repository) {
+    public ListService(ListRepository repository, ChangeLogService changeLogService) {
         super(repository);
         this.repository = repository;
+        this.changeLogService = changeLogService;
+    }
+
+    /**
+     * Finds the list unless it or its project is deleted.
+     */
+    @Override
+    public Optional<TaskList> findById(Integer id) {
+        return repository.findById(id).filter(taskList -> !taskList.isDeleted());
+    }
+
+    @Override
+    public List<TaskList> findAllById(Collection<Integer> ids) {
+        if(ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return repository.findAllByIdIn(ids);
+    }
+
+    public List<TaskList> findAllInProject(Project project) {
+        return repository.findAllByProjectId(project.getId());
+    }
+
+    @Override
+    @Transactional
+    public TaskList save(TaskList entity) {
+        TaskList saved = super.save(entity);
+        changeLogService.record(ChangeType.LIST, saved.getProject(), saved.getId(), false);
+        return saved;
+    }
+
+    /**
+     * Marks the list as deleted, which hides its tasks as well. Only the list is recorded as deleted,
+     * its tasks are removed later by {@link DeletedEntityPurger}.
+     */
+    @Override
+    @Transactional
+    public void delete(TaskList entity) {
+        repository.markDeleted(entity.getId(), LocalDateTime.now());
+        log.info("{} deleted", entity);
+        changeLogService.record(ChangeType.LIST, entity.getProject(), entity.getId(), true);
     }
 }
@@ -1,25 +1,97 @@
 package com.lampochky.database.service;
 
+import com.lampochky.database.entity.ChangeType;
 import com.lampochky.database.entity.Message;
 import com.lampochky.database.entity.Task;
 import com.lampochky.database.repository.MessageRepository;
+import com.lampochky.dto.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class MessageService extends AbstractService<Message> {
     private final MessageRepository repository;
+    private final ChangeLogService changeLogService;
+    private final int pageSize;
+    private final int maxPageSize;
 
     @Autowired
-    public MessageService(MessageRepository repository) {
+    public MessageService(MessageRepository repository, ChangeLogService changeLogService,
+                          @Value("${message.page.size:50}") Integer pageSize,
+                          @Value("${message.page.max-size:200}") Integer maxPageSize) {
         super(repository);
         this.repository = repository;
+        this.changeLogService = changeLogService;
+        this.pageSize = pageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Finds the message unless the list or the project of its task is deleted.
+     */
+    @Override
+    public Optional<Message> findById(Integer id) {
+        return repository.findById(id).filter(message -> !message.getTask().getList().isDeleted());
+    }
+
+    @Override
+    @Transactional
+    public Message save(Message entity) {
+        Message saved = super.save(entity);
+        changeLogService.record(ChangeType.MESSAGE, saved.getTask().getList().getProject(), saved.getId(), false);
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public void delete(Message entity) {
+        super.delete(entity);
+        changeLogService.record(ChangeType.MESSAGE, entity.getTask().getList().getProject(), entity.getId(), true);
     }
 
     public List<Message> findAllInTaskSortByDate(Task task) {
-        return repository.findAllByTask(task, Sort.by(Sort.Direction.ASC, "dateTime"));
+        return repository.findAllByTask(task, Sort.by(Sort.Direction.ASC, "dateTime", "id"));
+    }
+
+    public List<Message> findAllInTasks(List<Task> tasks) {
+        if(tasks.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return repository.findAllInTasks(tasks);
+    }
+
+    /**
+     * Page of messages in a task next to the cursor. Without a cursor it is the latest page when
+     * reading older messages and the earliest page when reading newer ones.
+     */
+    public KeysetPage<Message> findPageInTask(Task task, KeysetCursor cursor, boolean newer, Integer limit) {
+        int size = limit == null ? pageSize : Math.max(1, Math.min(limit, maxPageSize));
+        Pageable pageable = PageRequest.of(0, size + 1);
+        List<Message> messages;
+        if(newer) {
+            messages = cursor == null
+                    ? repository.findEarliestInTask(task, pageable)
+                    : repository.findNewerInTask(task, cursor.getDateTime(), cursor.getId(), pageable);
+        } else {
+            messages = cursor == null
+                    ? repository.findLatestInTask(task, pageable)
+                    : repository.findOlderInTask(task, cursor.getDateTime(), cursor.getId(), pageable);
+        }
+        boolean hasMore = messages.size() > size;
+        messages = new ArrayList<>(messages.subList(0, Math.min(size, messages.size())));
+        if(!newer) {
+            Collections.reverse(messages);
+        }
+        return new KeysetPage<>(messages, hasMore);
     }
 }
@@ -1,25 +1,76 @@
 package com.lampochky.database.service;
 
+import com.lampochky.database.entity.ChangeType;
 import com.lampochky.database.entity.Project;
 import com.lampochky.database.entity.User;
 import com.lampochky.database.repository.ProjectRepository;
+import com.lampochky.database.repository.UserProjectRepository;
+import com.lampochky.events.ProjectDeletedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class ProjectService extends AbstractService<Project> {
     private final ProjectRepository repository;
+    private final UserProjectRepository userProjectRepository;
+    private final ChangeLogService changeLogService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public ProjectService(ProjectRepository repository) {
+    public ProjectService(ProjectRepository repository, UserProjectRepository userProjectRepository,
+                          ChangeLogService changeLogService, ApplicationEventPublisher eventPublisher) {
         super(repository);
         this.repository = repository;
+        this.userProjectRepository = userProjectRepository;
+        this.changeLogService = changeLogService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Finds the project unless it is deleted.
+     */
+    @Override
+    public Optional<Project> findById(Integer id) {
+        return repository.findById(id).filter(project -> project.getDeletedAt() == null);
     }
 
     public List<Project> findAllByUser(User user){
         List<Project> result = repository.findAllByUser(user);
         return result;
     }
+
+    /**
+     * Saves the project. A new project starts at revision 0, a renamed one gets a new revision.
+     */
+    @Override
+    @Transactional
+    public Project save(Project entity) {
+        boolean created = entity.getId() == null;
+        Project saved = super.save(entity);
+        if(created) {
+            changeLogService.createRevision(saved);
+        } else {
+            changeLogService.record(ChangeType.PROJECT, saved, saved.getId(), false);
+        }
+        return saved;
+    }
+
+    /**
+     * Marks the project as deleted and removes its members, so nothing in it is reachable anymore.
+     * Its content is removed later by {@link DeletedEntityPurger}.
+     */
+    @Override
+    @Transactional
+    public void delete(Project entity) {
+        repository.markDeleted(entity.getId(), LocalDateTime.now());
+        int members = userProjectRepository.deleteAllByProjectId(entity.getId());
+        log.info("{} deleted, {} members removed", entity, members);
+        eventPublisher.publishEvent(new ProjectDeletedEvent(entity.getId()));
+    }
 }
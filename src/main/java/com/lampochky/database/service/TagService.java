@@ -1,17 +1,60 @@
 package com.lampochky.database.service;
 
+import com.lampochky.database.entity.ChangeType;
+import com.lampochky.database.entity.Project;
 import com.lampochky.database.entity.Tag;
 import com.lampochky.database.repository.TagRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 @Service
 public class TagService extends AbstractService<Tag>{
     private final TagRepository repository;
+    private final ChangeLogService changeLogService;
 
     @Autowired
-    public TagService(TagRepository repository) {
+    public TagService(TagRepository repository, ChangeLogService changeLogService) {
         super(repository);
         this.repository = repository;
+        this.changeLogService = changeLogService;
+    }
+
+    @Override
+    public List<Tag> findAllById(Collection<Integer> ids) {
+        if(ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return repository.findAllByIdIn(ids);
+    }
+
+    public List<Tag> findAllInProject(Project project) {
+        return repository.findAllByProjectId(project.getId());
+    }
+
+    public List<Tag> findAllInProject(Collection<Integer> ids, Project project) {
+        if(ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return repository.findAllByIdInProject(ids, project.getId());
+    }
+
+    @Override
+    @Transactional
+    public Tag save(Tag entity) {
+        Tag saved = super.save(entity);
+        changeLogService.record(ChangeType.TAG, saved.getProject(), saved.getId(), false);
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public void delete(Tag entity) {
+        super.delete(entity);
+        changeLogService.record(ChangeType.TAG, entity.getProject(), entity.getId(), true);
     }
 }
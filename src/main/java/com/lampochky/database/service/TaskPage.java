@@ -0,0 +1,28 @@
+package com.lampochky.database.service;
+
+import com.lampochky.database.entity.Message;
+import com.lampochky.database.entity.Task;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Page of tasks with messages of these tasks, empty if messages were not requested.
+ */
+public class TaskPage {
+    private final Page<Task> page;
+    private final List<Message> messages;
+
+    public TaskPage(Page<Task> page, List<Message> messages) {
+        this.page = page;
+        this.messages = messages;
+    }
+
+    public Page<Task> getPage() {
+        return page;
+    }
+
+    public List<Message> getMessages() {
+        return messages;
+    }
+}
@@ -1,23 +1,220 @@
 package com.lampochky.database.service;
 
+import com.lampochky.database.entity.ChangeType;
 import com.lampochky.database.entity.Project;
+import com.lampochky.database.entity.ProjectChange;
 import com.lampochky.database.entity.Task;
+import com.lampochky.database.entity.TaskList;
+import com.lampochky.database.repository.MessageRepository;
 import com.lampochky.database.repository.TaskRepository;
+import com.lampochky.database.repository.TaskRepository.CalendarEntry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TaskService extends AbstractService<Task> {
     private final TaskRepository repository;
+    private final MessageRepository messageRepository;
+    private final ChangeLogService changeLogService;
+    private final int pageSize;
+    private final int maxPageSize;
+
     @Autowired
-    public TaskService(TaskRepository repository) {
+    public TaskService(TaskRepository repository, MessageRepository messageRepository,
+                       ChangeLogService changeLogService,
+                       @Value("${task.page.size:50}") Integer pageSize,
+                       @Value("${task.page.max-size:200}") Integer maxPageSize) {
         super(repository);
         this.repository = repository;
+        this.messageRepository = messageRepository;
+        this.changeLogService = changeLogService;
+        this.pageSize = pageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Finds the task unless its list or project is deleted.
+     */
+    @Override
+    public Optional<Task> findById(Integer id) {
+        return repository.findById(id).filter(task -> !task.getList().isDeleted());
     }
 
     public List<Task> findByProject(Project project){
         return repository.findAllByProject(project);
     }
+
+    public List<Task> findAllInList(TaskList taskList) {
+        return repository.findBoardByListId(taskList.getId());
+    }
+
+    @Override
+    public List<Task> findAllById(Collection<Integer> ids) {
+        if(ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return repository.findAllByIdIn(ids);
+    }
+
+    @Override
+    @Transactional
+    public Task save(Task entity) {
+        Map<Integer, Integer> previousProjectIds = findProjectIds(Collections.singletonList(entity));
+        Task saved = super.save(entity);
+        changeLogService.record(changes(previousProjectIds, Collections.singletonList(saved), Collections.emptyList()));
+        return saved;
+    }
+
+    /**
+     * Deletes the task with its messages and tag links without loading them.
+     * Only the task is recorded as deleted.
+     */
+    @Override
+    @Transactional
+    public void delete(Task entity) {
+        deleteAllById(Collections.singletonList(entity.getId()));
+        changeLogService.record(ChangeType.TASK, entity.getList().getProject(), entity.getId(), true);
+    }
+
+    /**
+     * Saves and deletes tasks in one transaction. Returns saved tasks in the order they are given.
+     */
+    @Transactional
+    public List<Task> saveAndDeleteAll(List<Task> saved, List<Task> deleted) {
+        Map<Integer, Integer> previousProjectIds = findProjectIds(saved);
+        List<Task> result = repository.saveAll(saved);
+        if(!deleted.isEmpty()) {
+            deleteAllById(deleted.stream().map(Task::getId).collect(Collectors.toList()));
+        }
+        changeLogService.record(changes(previousProjectIds, result, deleted));
+        log.info("{} tasks saved, {} tasks deleted", result.size(), deleted.size());
+        return result;
+    }
+
+    /**
+     * Deletes tasks by set-based statements, messages first. Hibernate removes their tag links
+     * before the tasks themselves.
+     */
+    private void deleteAllById(Collection<Integer> ids) {
+        int messages = messageRepository.deleteAllByTaskIdIn(ids);
+        int tasks = repository.deleteAllByIdIn(ids);
+        log.info("{} tasks deleted with {} messages", tasks, messages);
+    }
+
+    /**
+     * Ids of projects the stored tasks belong to, by task id.
+     */
+    private Map<Integer, Integer> findProjectIds(List<Task> tasks) {
+        List<Integer> ids = tasks.stream().map(Task::getId).filter(Objects::nonNull).collect(Collectors.toList());
+        if(ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return repository.findProjectIdsByIdIn(ids).stream()
+                .collect(Collectors.toMap(TaskRepository.TaskProject::getId, TaskRepository.TaskProject::getProjectId));
+    }
+
+    /**
+     * Change log entries of saved and deleted tasks. A task moved to another project is deleted
+     * from the previous one and brings its messages to the new one.
+     */
+    private List<ProjectChange> changes(Map<Integer, Integer> previousProjectIds, List<Task> saved, List<Task> deleted) {
+        List<ProjectChange> changes = new ArrayList<>();
+        Map<Integer, Integer> movedTaskProjectIds = new HashMap<>();
+        for(Task task: saved) {
+            Integer projectId = task.getList().getProject().getId();
+            Integer previousProjectId = previousProjectIds.get(task.getId());
+            if(previousProjectId != null && !previousProjectId.equals(projectId)) {
+                changes.add(new ProjectChange(previousProjectId, ChangeType.TASK, task.getId(), true));
+                movedTaskProjectIds.put(task.getId(), projectId);
+            }
+            changes.add(new ProjectChange(projectId, ChangeType.TASK, task.getId(), false));
+        }
+        if(!movedTaskProjectIds.isEmpty()) {
+            for(MessageRepository.MessageTask message: messageRepository.findTaskIdsByTaskIdIn(movedTaskProjectIds.keySet())) {
+                changes.add(new ProjectChange(movedTaskProjectIds.get(message.getTaskId()),
+                        ChangeType.MESSAGE, message.getId(), false));
+            }
+        }
+        for(Task task: deleted) {
+            changes.add(new ProjectChange(task.getList().getProject().getId(), ChangeType.TASK, task.getId(), true));
+        }
+        return changes;
+    }
+
+    /**
+     * Page of tasks matching the specification. Ties in the sort order are broken by id,
+     * so pages stay stable between requests.
+     */
+    public Page<Task> findPage(Specification<Task> specification, Integer page, Integer size, Sort sort) {
+        int limit = size == null ? pageSize : Math.min(size, maxPageSize);
+        if(sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by("id"));
+        }
+        return repository.findAll(specification, PageRequest.of(page, limit, sort));
+    }
+
+    /**
+     * Page of tasks with their messages, both read in one transaction so that messages
+     * refer to the tasks already loaded.
+     */
+    @Transactional(readOnly = true)
+    public TaskPage findPage(Specification<Task> specification, Integer page, Integer size, Sort sort,
+                             boolean withMessages) {
+        Page<Task> tasks = findPage(specification, page, size, sort);
+        if(!withMessages || tasks.isEmpty()) {
+            return new TaskPage(tasks, Collections.emptyList());
+        }
+        return new TaskPage(tasks, messageRepository.findAllInTasks(tasks.getContent()));
+    }
+
+    /**
+     * Passes tasks of the project overlapping the period to the consumer by due date,
+     * without reading all of them into memory.
+     */
+    @Transactional(readOnly = true)
+    public void calendarInProject(Integer projectId, LocalDate from, LocalDate to, Consumer<CalendarEntry> consumer) {
+        try(Stream<CalendarEntry> tasks = repository.streamInProject(projectId, from, to)) {
+            tasks.forEach(consumer);
+        }
+    }
+
+    /**
+     * Passes tasks assigned to the user in projects the user is a member of and overlapping the period
+     * to the consumer by due date.
+     */
+    @Transactional(readOnly = true)
+    public void calendarAssigned(Integer userId, LocalDate from, LocalDate to, Consumer<CalendarEntry> consumer) {
+        try(Stream<CalendarEntry> tasks = repository.streamAssigned(userId, from, to)) {
+            tasks.forEach(consumer);
+        }
+    }
+
+    /**
+     * Passes tasks of the project due before the date to the consumer, the most overdue first.
+     */
+    @Transactional(readOnly = true)
+    public void overdueInProject(Integer projectId, LocalDate date, Consumer<CalendarEntry> consumer) {
+        try(Stream<CalendarEntry> tasks = repository.streamOverdueInProject(projectId, date)) {
+            tasks.forEach(consumer);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void overdueAssigned(Integer userId, LocalDate date, Consumer<CalendarEntry> consumer) {
+        try(Stream<CalendarEntry> tasks = repository.streamOverdueAssigned(userId, date)) {
+            tasks.forEach(consumer);
+        }
+    }
 }
@@ -1,22 +1,35 @@
 package com.lampochky.database.service;
 
+import com.lampochky.cache.LruCache;
+import com.lampochky.database.entity.ChangeType;
 import com.lampochky.database.entity.Project;
 import com.lampochky.database.entity.User;
 import com.lampochky.database.entity.UserProject;
+import com.lampochky.database.entity.UserRole;
 import com.lampochky.database.repository.UserProjectRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class UserProjectService extends AbstractService<UserProject> {
     private final UserProjectRepository repository;
+    private final ChangeLogService changeLogService;
+    private final LruCache<MembershipKey, Membership> membershipCache;
+
     @Autowired
-    public UserProjectService(UserProjectRepository repository) {
+    public UserProjectService(UserProjectRepository repository, ChangeLogService changeLogService,
+                              @Value("${membership.cache.size:10000}") Integer cacheSize,
+                              @Value("${membership.cache.ttl:60000}") Long cacheTtlInMillis) {
         super(repository);
         this.repository = repository;
+        this.changeLogService = changeLogService;
+        this.membershipCache = new LruCache<>(cacheSize, cacheTtlInMillis);
     }
 
     public Optional<UserProject> findByUserAndProject(User user, Project project) {
@@ -28,10 +41,96 @@ public class UserProjectService extends AbstractService<UserProject> {
         }
     }
 
+    public List<UserProject> findAllByUser(User user) {
+        return repository.findAllByUserIdOrderById(user.getId());
+    }
+
+    public List<UserProject> findAllInProject(Project project) {
+        return repository.findBoardByProjectId(project.getId());
+    }
+
+    /**
+     * Cached role and confirmation of the user in the project. The returned relation is a detached
+     * snapshot for permission checks, use {@link #findByUserAndProject} to modify a relation.
+     */
+    public UserProject findMembership(User user, Project project) {
+        MembershipKey key = new MembershipKey(user.getId(), project.getId());
+        Membership membership = membershipCache.get(key).orElseGet(() -> {
+            Membership loaded = findByUserAndProject(user, project)
+                    .map(Membership::new)
+                    .orElse(Membership.NO_RELATION);
+            membershipCache.put(key, loaded);
+            return loaded;
+        });
+        return new UserProject(membership.id, membership.role, membership.confirmed, user, project);
+    }
+
+    public void evictProject(Project project) {
+        membershipCache.removeIf(key -> key.projectId.equals(project.getId()));
+    }
+
+    /**
+     * Saves the relation. It is recorded in the change log of the project by user id.
+     */
+    @Override
+    @Transactional
+    public UserProject save(UserProject entity) {
+        UserProject saved = super.save(entity);
+        evict(saved);
+        changeLogService.record(ChangeType.MEMBER, saved.getProject(), saved.getUser().getId(), false);
+        return saved;
+    }
+
     @Override
+    @Transactional
     public void delete(UserProject entity) {
-        entity.getUser().getProjects().remove(entity);
-        entity.getProject().getUsers().remove(entity);
         super.delete(entity);
+        evict(entity);
+        changeLogService.record(ChangeType.MEMBER, entity.getProject(), entity.getUser().getId(), true);
+    }
+
+    private void evict(UserProject entity) {
+        membershipCache.remove(new MembershipKey(entity.getUser().getId(), entity.getProject().getId()));
+    }
+
+    private static class MembershipKey {
+        private final Integer userId;
+        private final Integer projectId;
+
+        private MembershipKey(Integer userId, Integer projectId) {
+            this.userId = userId;
+            this.projectId = projectId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            MembershipKey that = (MembershipKey) o;
+            return Objects.equals(userId, that.userId) && Objects.equals(projectId, that.projectId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, projectId);
+        }
+    }
+
+    private static class Membership {
+        private static final Membership NO_RELATION = new Membership(null, UserRole.NO_RELATION, false);
+
+        private final Integer id;
+        private final UserRole role;
+        private final Boolean confirmed;
+
+        private Membership(Integer id, UserRole role, Boolean confirmed) {
+            this.id = id;
+            this.role = role;
+            this.confirmed = confirmed;
+        }
+
+        private Membership(UserProject relation) {
+            this(relation.getId(), relation.getRole(), relation.getConfirmed());
+        }
     }
 }
@@ -1,8 +1,10 @@
 package com.lampochky.database.service;
 
+import com.lampochky.cache.LruCache;
 import com.lampochky.database.entity.User;
 import com.lampochky.database.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -13,12 +15,35 @@ import java.util.Optional;
 public class UserService extends AbstractService<User>{
     private UserRepository repository;
     private PasswordEncoder passwordEncoder;
+    private final LruCache<Integer, Account> accountCache;
 
     @Autowired
-    public UserService(UserRepository repository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository repository, PasswordEncoder passwordEncoder,
+                       @Value("${user.cache.size:10000}") Integer cacheSize,
+                       @Value("${user.cache.ttl:60000}") Long cacheTtlInMillis) {
         super(repository);
         this.repository = repository;
         this.passwordEncoder = passwordEncoder;
+        this.accountCache = new LruCache<>(cacheSize, cacheTtlInMillis);
+    }
+
+    /**
+     * Cached username and email of an existing user, empty for a deleted one. The returned user
+     * is a detached snapshot with id, username and email only, changes made on another instance
+     * are seen once the entry expires.
+     */
+    public Optional<User> findAccount(Integer id) {
+        Account account = accountCache.get(id).orElseGet(() -> {
+            Account loaded = repository.findById(id).map(Account::new).orElse(Account.DELETED);
+            accountCache.put(id, loaded);
+            return loaded;
+        });
+        if(account == Account.DELETED) {
+            return Optional.empty();
+        }
+        User user = new User(account.username, null, account.email);
+        user.setId(id);
+        return Optional.of(user);
     }
 
     public Optional<User> findByUsername(String username) {
@@ -57,6 +82,30 @@ public class UserService extends AbstractService<User>{
     @Override
     public User save(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return super.save(user);
+        User saved = super.save(user);
+        accountCache.remove(saved.getId());
+        return saved;
+    }
+
+    @Override
+    public void delete(User user) {
+        super.delete(user);
+        accountCache.remove(user.getId());
+    }
+
+    private static class Account {
+        private static final Account DELETED = new Account(null, null);
+
+        private final String username;
+        private final String email;
+
+        private Account(String username, String email) {
+            this.username = username;
+            this.email = email;
+        }
+
+        private Account(User user) {
+            this(user.getUsername(), user.getEmail());
+        }
     }
 }
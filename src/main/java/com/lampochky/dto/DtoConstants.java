@@ -4,4 +4,6 @@ public class DtoConstants {
     public static final String dateFormat = "dd-MM-yyyy";
     public static final String timeFormat = "HH:mm:ss.SSS";
     public static final String dateTimeFormat = dateFormat + " " + timeFormat;
+    public static final String mergePatchJson = "application/merge-patch+json";
+    public static final String ndjson = "application/x-ndjson";
 }
@@ -0,0 +1,58 @@
+package com.lampochky.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Opaque position in a list ordered by date and id. Clients get it in a page response and
+ * send it back to continue from that position.
+ */
+public class KeysetCursor {
+    private static final String separator = "|";
+
+    private final LocalDateTime dateTime;
+    private final Integer id;
+
+    public KeysetCursor(LocalDateTime dateTime, Integer id) {
+        this.dateTime = dateTime;
+        this.id = id;
+    }
+
+    public static Optional<KeysetCursor> decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int index = decoded.lastIndexOf(separator);
+            if(index < 0) {
+                return Optional.empty();
+            }
+            return Optional.of(new KeysetCursor(LocalDateTime.parse(decoded.substring(0, index)),
+                    Integer.valueOf(decoded.substring(index + 1))));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    public String encode() {
+        String value = dateTime + separator + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getDateTime() {
+        return dateTime;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetCursor{" +
+                "dateTime=" + dateTime +
+                ", id=" + id +
+                '}';
+    }
+}
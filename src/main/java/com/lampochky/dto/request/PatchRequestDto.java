@@ -0,0 +1,21 @@
+package com.lampochky.dto.request;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Body of a JSON merge patch. Jackson calls setters only for properties present in the body,
+ * so setters mark their property as present and properties left out keep their values.
+ * A property present with {@code null} clears the value.
+ */
+public abstract class PatchRequestDto {
+    private final Set<String> present = new HashSet<>();
+
+    protected void present(String property) {
+        present.add(property);
+    }
+
+    public boolean has(String property) {
+        return present.contains(property);
+    }
+}
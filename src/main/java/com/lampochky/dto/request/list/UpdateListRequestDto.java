@@ -8,6 +8,8 @@ public class UpdateListRequestDto {
     @JsonProperty(required = true)
     private String name;
 
+    private Long version;
+
     public String getName() {
         return name;
     }
@@ -16,5 +18,11 @@ public class UpdateListRequestDto {
         this.name = name;
     }
 
+    public Long getVersion() {
+        return version;
+    }
 
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
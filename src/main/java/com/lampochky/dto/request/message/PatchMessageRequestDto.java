@@ -0,0 +1,28 @@
+package com.lampochky.dto.request.message;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.lampochky.dto.request.PatchRequestDto;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PatchMessageRequestDto extends PatchRequestDto {
+    private String text;
+
+    private Long version;
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        present("text");
+        this.text = text;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -6,6 +6,8 @@ public class UpdateMessageRequestDto {
     @JsonProperty(required = true)
     private String text;
 
+    private Long version;
+
     public String getText() {
         return text;
     }
@@ -13,4 +15,12 @@ public class UpdateMessageRequestDto {
     public void setText(String text) {
         this.text = text;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
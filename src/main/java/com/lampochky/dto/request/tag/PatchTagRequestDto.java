@@ -0,0 +1,28 @@
+package com.lampochky.dto.request.tag;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.lampochky.dto.request.PatchRequestDto;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PatchTagRequestDto extends PatchRequestDto {
+    private String name;
+
+    private Long version;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        present("name");
+        this.name = name;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -8,6 +8,8 @@ public class UpdateTagRequestDto {
     @JsonProperty(required = true)
     private String name;
 
+    private Long version;
+
     public String getName() {
         return name;
     }
@@ -15,4 +17,12 @@ public class UpdateTagRequestDto {
     public void setName(String name) {
         this.name = name;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
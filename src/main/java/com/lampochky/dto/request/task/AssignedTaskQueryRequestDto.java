@@ -0,0 +1,21 @@
+package com.lampochky.dto.request.task;
+
+/**
+ * Query parameters of tasks assigned to the current user, sorted by the date to finish and id by default.
+ * With confirmed, tasks of projects the user has not confirmed the membership in are skipped.
+ */
+public class AssignedTaskQueryRequestDto extends TaskQueryRequestDto {
+    private Boolean confirmed = false;
+
+    public AssignedTaskQueryRequestDto() {
+        setSort("dateToFinish");
+    }
+
+    public Boolean getConfirmed() {
+        return confirmed;
+    }
+
+    public void setConfirmed(Boolean confirmed) {
+        this.confirmed = confirmed;
+    }
+}
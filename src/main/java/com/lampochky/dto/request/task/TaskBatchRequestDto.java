@@ -0,0 +1,20 @@
+package com.lampochky.dto.request.task;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TaskBatchRequestDto {
+    @JsonProperty(required = true)
+    private List<TaskOperationRequestDto> operations;
+
+    public List<TaskOperationRequestDto> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<TaskOperationRequestDto> operations) {
+        this.operations = operations;
+    }
+}
@@ -0,0 +1,37 @@
+package com.lampochky.dto.request.task;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One operation of a task batch. Create and update use all task fields, move uses listId only
+ * and delete uses id only.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TaskOperationRequestDto extends TaskRequestDto {
+    public static final String create = "create";
+    public static final String update = "update";
+    public static final String move = "move";
+    public static final String delete = "delete";
+
+    @JsonProperty(required = true)
+    private String type;
+
+    private Integer id;
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,112 @@
+package com.lampochky.dto.request.task;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.lampochky.dto.DtoConstants;
+import com.lampochky.dto.request.PatchRequestDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TaskPatchRequestDto extends PatchRequestDto {
+    private String name;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = DtoConstants.dateFormat)
+    private LocalDate dateToStart;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = DtoConstants.dateFormat)
+    private LocalDate dateToFinish;
+
+    private Integer priority;
+
+    private String description;
+
+    private Integer listId;
+
+    private Integer assignedUserId;
+
+    private List<Integer> tagIds;
+
+    private Long version;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        present("name");
+        this.name = name;
+    }
+
+    public LocalDate getDateToStart() {
+        return dateToStart;
+    }
+
+    public void setDateToStart(LocalDate dateToStart) {
+        present("dateToStart");
+        this.dateToStart = dateToStart;
+    }
+
+    public LocalDate getDateToFinish() {
+        return dateToFinish;
+    }
+
+    public void setDateToFinish(LocalDate dateToFinish) {
+        present("dateToFinish");
+        this.dateToFinish = dateToFinish;
+    }
+
+    public Integer getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Integer priority) {
+        present("priority");
+        this.priority = priority;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        present("description");
+        this.description = description;
+    }
+
+    public Integer getListId() {
+        return listId;
+    }
+
+    public void setListId(Integer listId) {
+        present("listId");
+        this.listId = listId;
+    }
+
+    public Integer getAssignedUserId() {
+        return assignedUserId;
+    }
+
+    public void setAssignedUserId(Integer assignedUserId) {
+        present("assignedUserId");
+        this.assignedUserId = assignedUserId;
+    }
+
+    public List<Integer> getTagIds() {
+        return tagIds;
+    }
+
+    public void setTagIds(List<Integer> tagIds) {
+        present("tagIds");
+        this.tagIds = tagIds;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,117 @@
+package com.lampochky.dto.request.task;
+
+import com.lampochky.dto.DtoConstants;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Query parameters of task listings. Every filter is optional, from and to select tasks
+ * whose dates overlap the window.
+ */
+public class TaskQueryRequestDto {
+    private Integer assignedUserId;
+    private Integer tagId;
+    private Integer minPriority;
+    private Integer maxPriority;
+
+    @DateTimeFormat(pattern = DtoConstants.dateFormat)
+    private LocalDate from;
+
+    @DateTimeFormat(pattern = DtoConstants.dateFormat)
+    private LocalDate to;
+
+    private String sort = "id";
+    private String order = "asc";
+    private Integer page = 0;
+    private Integer size;
+    private Boolean messages = false;
+
+    public Integer getAssignedUserId() {
+        return assignedUserId;
+    }
+
+    public void setAssignedUserId(Integer assignedUserId) {
+        this.assignedUserId = assignedUserId;
+    }
+
+    public Integer getTagId() {
+        return tagId;
+    }
+
+    public void setTagId(Integer tagId) {
+        this.tagId = tagId;
+    }
+
+    public Integer getMinPriority() {
+        return minPriority;
+    }
+
+    public void setMinPriority(Integer minPriority) {
+        this.minPriority = minPriority;
+    }
+
+    public Integer getMaxPriority() {
+        return maxPriority;
+    }
+
+    public void setMaxPriority(Integer maxPriority) {
+        this.maxPriority = maxPriority;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public String getOrder() {
+        return order;
+    }
+
+    public void setOrder(String order) {
+        this.order = order;
+    }
+
+    public Integer getPage() {
+        return page;
+    }
+
+    public void setPage(Integer page) {
+        this.page = page;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+
+    public Boolean getMessages() {
+        return messages;
+    }
+
+    public void setMessages(Boolean messages) {
+        this.messages = messages;
+    }
+}
@@ -36,6 +36,12 @@ public class TaskRequestDto {
     @JsonProperty(required = true)
     protected List<Integer> tagIds;
 
+    /**
+     * Version of the entity the client has read. When set, the update fails with a conflict
+     * if the entity has been changed since then.
+     */
+    protected Long version;
+
     public String getName() {
         return name;
     }
@@ -99,4 +105,12 @@ public class TaskRequestDto {
     public void setTagIds(List<Integer> tagIds) {
         this.tagIds = tagIds;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -1,20 +1,32 @@
 package com.lampochky.dto.response;
 
 import com.lampochky.database.entity.*;
+import com.lampochky.database.repository.ActionRepository.ActionEntry;
+import com.lampochky.database.repository.TaskRepository.CalendarEntry;
+import com.lampochky.database.service.BoardSnapshot;
+import com.lampochky.dto.response.action.ActionDto;
 import com.lampochky.dto.response.list.ListDto;
 import com.lampochky.dto.response.message.MessageDto;
+import com.lampochky.dto.response.project.BoardEventDto;
+import com.lampochky.dto.response.project.ChangeDto;
 import com.lampochky.dto.response.project.ProjectDto;
+import com.lampochky.dto.response.search.SearchHitDto;
 import com.lampochky.dto.response.tag.TagDto;
+import com.lampochky.dto.response.task.CalendarTaskDto;
 import com.lampochky.dto.response.task.TaskDto;
 import com.lampochky.dto.response.user.UserDto;
+import com.lampochky.search.SearchHit;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class DtoBuilder {
     private static ProjectDto buildProjectDto_base(Project project, UserRole role, Boolean confirmed) {
         ProjectDto dto = new ProjectDto();
         dto.setId(project.getId());
+        dto.setVersion(project.getVersion());
         dto.setName(project.getName());
         dto.setRole(role);
         dto.setConfirmed(confirmed);
@@ -32,16 +44,19 @@ public class DtoBuilder {
         return dto;
     }
 
-    public static ProjectDto buildFullProjectDto(Project project, UserRole role, Boolean confirmed){
-        if(project == null) {
+    public static ProjectDto buildBoardProjectDto(BoardSnapshot board, UserRole role, Boolean confirmed){
+        if(board == null) {
             return null;
         }
-        ProjectDto dto = buildProjectDto_base(project, role, confirmed);
-        dto.setLists(project.getLists().stream().map(DtoBuilder::buildFullListDto).collect(Collectors.toList()));
-        dto.setUsers(project.getUsers().stream()
+        ProjectDto dto = buildProjectDto_base(board.getProject(), role, confirmed);
+        dto.setRevision(board.getRevision());
+        dto.setLists(board.getLists().stream()
+                .map(taskList -> buildBoardListDto(board, taskList))
+                .collect(Collectors.toList()));
+        dto.setUsers(board.getMembers().stream()
                 .map(up -> buildUserDto(up.getUser(), up.getRole(), up.getConfirmed()))
                 .collect(Collectors.toList()));
-        dto.setTags(project.getTags().stream().map(DtoBuilder::buildTagDto).collect(Collectors.toList()));
+        dto.setTags(board.getTags().stream().map(DtoBuilder::buildTagDto).collect(Collectors.toList()));
         return dto;
     }
 
@@ -58,6 +73,7 @@ public class DtoBuilder {
     private static ListDto buildListDto_base(TaskList taskList) {
         ListDto dto = new ListDto();
         dto.setId(taskList.getId());
+        dto.setVersion(taskList.getVersion());
         dto.setName(taskList.getName());
         return dto;
     }
@@ -72,13 +88,12 @@ public class DtoBuilder {
         return dto;
     }
 
-    public static ListDto buildFullListDto(TaskList taskList){
-        if(taskList == null){
-            return null;
-        }
+    public static ListDto buildBoardListDto(BoardSnapshot board, TaskList taskList){
         ListDto dto = buildListDto_base(taskList);
-        dto.setProjectId(taskList.getProject().getId());
-        dto.setTasks(taskList.getTasks().stream().map(DtoBuilder::buildFullTaskDto).collect(Collectors.toList()));
+        dto.setProjectId(board.getProject().getId());
+        dto.setTasks(board.getTasks(taskList).stream()
+                .map(task -> buildBoardTaskDto(board, task))
+                .collect(Collectors.toList()));
         return dto;
     }
 
@@ -95,24 +110,41 @@ public class DtoBuilder {
     private static TaskDto buildTaskDto_base(Task task){
         TaskDto dto = new TaskDto();
         dto.setId(task.getId());
+        dto.setVersion(task.getVersion());
         dto.setName(task.getName());
         dto.setDateToStart(task.getDateToStart());
         dto.setDateToFinish(task.getDateToFinish());
         dto.setPriority(task.getPriority());
         dto.setDescription(task.getDescription());
         dto.setListId(task.getList().getId());
+        dto.setProjectId(task.getList().getProject().getId());
         dto.setAssignedUser(buildUserDto(task.getAssignedUser(), null, null));
         dto.setCreator(buildUserDto(task.getCreator(), null, null));
         return dto;
     }
 
-    public static TaskDto buildFullTaskDto(Task task){
+    public static TaskDto buildTaskDto(Task task, List<Message> messages){
         if(task == null){
             return null;
         }
         TaskDto dto = buildTaskDto_base(task);
         dto.setTags(task.getTags().stream().map(DtoBuilder::buildTagDto).collect(Collectors.toList()));
-        dto.setMessages(task.getMessages().stream().map(DtoBuilder::buildMessageDto).collect(Collectors.toList()));
+        dto.setMessages(messages.stream().map(DtoBuilder::buildMessageDto).collect(Collectors.toList()));
+        return dto;
+    }
+
+    public static List<TaskDto> buildTaskDtos(List<Task> tasks, List<Message> messages){
+        Map<Integer, List<Message>> messagesByTask = messages.stream()
+                .collect(Collectors.groupingBy(m -> m.getTask().getId()));
+        return tasks.stream()
+                .map(task -> buildTaskDto(task, messagesByTask.getOrDefault(task.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
+
+    private static TaskDto buildBoardTaskDto(BoardSnapshot board, Task task){
+        TaskDto dto = buildTaskDto_base(task);
+        dto.setTags(task.getTags().stream().map(DtoBuilder::buildTagDto).collect(Collectors.toList()));
+        dto.setMessages(board.getMessages(task).stream().map(DtoBuilder::buildMessageDto).collect(Collectors.toList()));
         return dto;
     }
 
@@ -147,6 +179,7 @@ public class DtoBuilder {
         }
         TagDto dto = new TagDto();
         dto.setId(tag.getId());
+        dto.setVersion(tag.getVersion());
         dto.setName(tag.getName());
         dto.setProjectId(tag.getProject().getId());
         return dto;
@@ -159,10 +192,61 @@ public class DtoBuilder {
         }
         MessageDto dto = new MessageDto();
         dto.setId(message.getId());
+        dto.setVersion(message.getVersion());
         dto.setUser(buildUserDto(message.getUser(), null, null));
         dto.setText(message.getText());
         dto.setDateTime(message.getDateTime());
         dto.setTaskId(message.getTask().getId());
         return dto;
     }
+
+    public static BoardEventDto buildBoardEventDto(Integer projectId, Long revision, List<ProjectChange> changes){
+        BoardEventDto dto = new BoardEventDto();
+        dto.setProjectId(projectId);
+        dto.setRevision(revision);
+        dto.setChanges(changes.stream().map(DtoBuilder::buildChangeDto).collect(Collectors.toList()));
+        return dto;
+    }
+
+    public static ChangeDto buildChangeDto(ProjectChange change){
+        ChangeDto dto = new ChangeDto();
+        dto.setType(change.getEntityType());
+        dto.setId(change.getEntityId());
+        dto.setDeleted(change.getDeleted());
+        return dto;
+    }
+
+    public static ActionDto buildActionDto(ActionEntry action){
+        ActionDto dto = new ActionDto();
+        dto.setId(action.getId());
+        dto.setType(action.getType());
+        dto.setDateTime(action.getDateTime());
+        dto.setUserId(action.getUserId());
+        dto.setProjectId(action.getProjectId());
+        dto.setListId(action.getListId());
+        dto.setTaskId(action.getTaskId());
+        return dto;
+    }
+
+    public static CalendarTaskDto buildCalendarTaskDto(CalendarEntry task){
+        CalendarTaskDto dto = new CalendarTaskDto();
+        dto.setId(task.getId());
+        dto.setName(task.getName());
+        dto.setDateToStart(task.getDateToStart());
+        dto.setDateToFinish(task.getDateToFinish());
+        dto.setPriority(task.getPriority());
+        dto.setListId(task.getListId());
+        dto.setProjectId(task.getProjectId());
+        dto.setAssignedUserId(task.getAssignedUserId());
+        return dto;
+    }
+
+    public static SearchHitDto buildSearchHitDto(SearchHit hit){
+        SearchHitDto dto = new SearchHitDto();
+        dto.setType(hit.getType());
+        dto.setId(hit.getId());
+        dto.setTaskId(hit.getTaskId());
+        dto.setScore(hit.getScore());
+        return dto;
+    }
 }
@@ -0,0 +1,75 @@
+package com.lampochky.dto.response.action;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.lampochky.database.entity.ActionType;
+import com.lampochky.dto.DtoConstants;
+
+import java.time.LocalDateTime;
+
+public class ActionDto {
+    private Integer id;
+    private ActionType type;
+    private Integer userId;
+    private Integer projectId;
+    private Integer listId;
+    private Integer taskId;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = DtoConstants.dateTimeFormat)
+    private LocalDateTime dateTime;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public ActionType getType() {
+        return type;
+    }
+
+    public void setType(ActionType type) {
+        this.type = type;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public Integer getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Integer projectId) {
+        this.projectId = projectId;
+    }
+
+    public Integer getListId() {
+        return listId;
+    }
+
+    public void setListId(Integer listId) {
+        this.listId = listId;
+    }
+
+    public Integer getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Integer taskId) {
+        this.taskId = taskId;
+    }
+
+    public LocalDateTime getDateTime() {
+        return dateTime;
+    }
+
+    public void setDateTime(LocalDateTime dateTime) {
+        this.dateTime = dateTime;
+    }
+}
@@ -0,0 +1,77 @@
+package com.lampochky.dto.response.action;
+
+import com.lampochky.database.repository.ActionRepository.ActionEntry;
+import com.lampochky.database.service.KeysetPage;
+import com.lampochky.dto.KeysetCursor;
+import com.lampochky.dto.response.DtoBuilder;
+import com.lampochky.dto.response.ResponseDto;
+import com.lampochky.validation.Error;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Page of the activity feed of a project or a task. Actions are ordered by date, the cursor
+ * continues the feed with older actions.
+ */
+public class GetActionsResponseDto extends ResponseDto {
+    private Integer id;
+    private List<ActionDto> actions;
+    private String cursor;
+    private Boolean hasMore;
+
+    public GetActionsResponseDto(List<Error> errors, Integer id, List<ActionDto> actions) {
+        super(errors);
+        this.id = id;
+        this.actions = actions;
+    }
+
+    public static GetActionsResponseDto success(Integer id, KeysetPage<ActionEntry> page) {
+        List<ActionEntry> actions = page.getItems();
+        GetActionsResponseDto dto = new GetActionsResponseDto(Collections.emptyList(), id,
+                actions.stream().map(DtoBuilder::buildActionDto).collect(Collectors.toList()));
+        if(!actions.isEmpty()) {
+            ActionEntry oldest = actions.get(0);
+            dto.setCursor(new KeysetCursor(oldest.getDateTime(), oldest.getId()).encode());
+        }
+        dto.setHasMore(page.hasMore());
+        return dto;
+    }
+
+    public static GetActionsResponseDto fail(Integer id, Error error) {
+        return new GetActionsResponseDto(Collections.singletonList(error), id, Collections.emptyList());
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public List<ActionDto> getActions() {
+        return actions;
+    }
+
+    public void setActions(List<ActionDto> actions) {
+        this.actions = actions;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public Boolean getHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(Boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
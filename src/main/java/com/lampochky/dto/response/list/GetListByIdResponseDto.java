@@ -1,6 +1,7 @@
 package com.lampochky.dto.response.list;
 
 import com.lampochky.database.entity.TaskList;
+import com.lampochky.database.service.BoardSnapshot;
 import com.lampochky.dto.response.DtoBuilder;
 import com.lampochky.dto.response.ResponseDto;
 import com.lampochky.validation.Error;
@@ -18,9 +19,10 @@ public class GetListByIdResponseDto extends ResponseDto {
         this.list = list;
     }
 
-    public static GetListByIdResponseDto success(TaskList taskList){
+    public static GetListByIdResponseDto success(BoardSnapshot board){
+        TaskList taskList = board.getLists().get(0);
         return new GetListByIdResponseDto(Collections.emptyList(),
-                taskList.getId(), DtoBuilder.buildFullListDto(taskList));
+                taskList.getId(), DtoBuilder.buildBoardListDto(board, taskList));
     }
 
     public static GetListByIdResponseDto fail(Integer id, Error error) {
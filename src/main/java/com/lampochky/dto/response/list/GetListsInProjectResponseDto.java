@@ -1,7 +1,7 @@
 package com.lampochky.dto.response.list;
 
 
-import com.lampochky.database.entity.TaskList;
+import com.lampochky.database.service.BoardSnapshot;
 import com.lampochky.dto.response.DtoBuilder;
 import com.lampochky.dto.response.ResponseDto;
 import com.lampochky.validation.Error;
@@ -20,9 +20,11 @@ public class GetListsInProjectResponseDto extends ResponseDto {
         this.lists = lists;
     }
 
-    public static GetListsInProjectResponseDto success(Integer projectId, List<TaskList> taskLists){
-        return new GetListsInProjectResponseDto(Collections.emptyList(),
-                projectId, taskLists.stream().map(DtoBuilder::buildFullListDto).collect(Collectors.toList()));
+    public static GetListsInProjectResponseDto success(BoardSnapshot board){
+        return new GetListsInProjectResponseDto(Collections.emptyList(), board.getProject().getId(),
+                board.getLists().stream()
+                        .map(taskList -> DtoBuilder.buildBoardListDto(board, taskList))
+                        .collect(Collectors.toList()));
     }
 
     public static GetListsInProjectResponseDto fail(Integer projectId, Error error){
@@ -6,6 +6,7 @@ import java.util.List;
 
 public class ListDto {
     private Integer id;
+    private Long version;
     private String name;
     private Integer projectId;
     private List<TaskDto> tasks;
@@ -18,6 +19,14 @@ public class ListDto {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -1,6 +1,8 @@
 package com.lampochky.dto.response.message;
 
 import com.lampochky.database.entity.Message;
+import com.lampochky.database.service.KeysetPage;
+import com.lampochky.dto.KeysetCursor;
 import com.lampochky.dto.response.DtoBuilder;
 import com.lampochky.dto.response.ResponseDto;
 import com.lampochky.validation.Error;
@@ -12,6 +14,9 @@ import java.util.stream.Collectors;
 public class GetMessagesInTaskResponseDto extends ResponseDto {
     private Integer taskId;
     private List<MessageDto> messages;
+    private String oldestCursor;
+    private String newestCursor;
+    private Boolean hasMore;
 
     public GetMessagesInTaskResponseDto(List<Error> errors, Integer taskId, List<MessageDto> messages) {
         super(errors);
@@ -24,6 +29,21 @@ public class GetMessagesInTaskResponseDto extends ResponseDto {
                 messages.stream().map(DtoBuilder::buildMessageDto).collect(Collectors.toList()));
     }
 
+    public static GetMessagesInTaskResponseDto success(Integer taskId, KeysetPage<Message> page) {
+        List<Message> messages = page.getItems();
+        GetMessagesInTaskResponseDto dto = success(taskId, messages);
+        if(!messages.isEmpty()) {
+            dto.setOldestCursor(cursorOf(messages.get(0)));
+            dto.setNewestCursor(cursorOf(messages.get(messages.size() - 1)));
+        }
+        dto.setHasMore(page.hasMore());
+        return dto;
+    }
+
+    private static String cursorOf(Message message) {
+        return new KeysetCursor(message.getDateTime(), message.getId()).encode();
+    }
+
     public static GetMessagesInTaskResponseDto fail(Integer id, Error error) {
         return new GetMessagesInTaskResponseDto(Collections.singletonList(error), id, Collections.emptyList());
     }
@@ -47,4 +67,28 @@ public class GetMessagesInTaskResponseDto extends ResponseDto {
     public void setMessages(List<MessageDto> messages) {
         this.messages = messages;
     }
+
+    public String getOldestCursor() {
+        return oldestCursor;
+    }
+
+    public void setOldestCursor(String oldestCursor) {
+        this.oldestCursor = oldestCursor;
+    }
+
+    public String getNewestCursor() {
+        return newestCursor;
+    }
+
+    public void setNewestCursor(String newestCursor) {
+        this.newestCursor = newestCursor;
+    }
+
+    public Boolean getHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(Boolean hasMore) {
+        this.hasMore = hasMore;
+    }
 }
@@ -8,6 +8,7 @@ import java.time.LocalDateTime;
 
 public class MessageDto {
     private Integer id;
+    private Long version;
     private String text;
     private UserDto user;
     private Integer taskId;
@@ -23,6 +24,14 @@ public class MessageDto {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getText() {
         return text;
     }
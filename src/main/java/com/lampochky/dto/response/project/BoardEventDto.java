@@ -0,0 +1,37 @@
+package com.lampochky.dto.response.project;
+
+import java.util.List;
+
+/**
+ * Data of a board event. Changes name entities by type and id, their state is loaded
+ * with the changes of the project since the previous revision.
+ */
+public class BoardEventDto {
+    private Integer projectId;
+    private Long revision;
+    private List<ChangeDto> changes;
+
+    public Integer getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Integer projectId) {
+        this.projectId = projectId;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+
+    public List<ChangeDto> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<ChangeDto> changes) {
+        this.changes = changes;
+    }
+}
@@ -0,0 +1,33 @@
+package com.lampochky.dto.response.project;
+
+import com.lampochky.database.entity.ChangeType;
+
+public class ChangeDto {
+    private ChangeType type;
+    private Integer id;
+    private Boolean deleted;
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public void setType(ChangeType type) {
+        this.type = type;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Boolean getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(Boolean deleted) {
+        this.deleted = deleted;
+    }
+}
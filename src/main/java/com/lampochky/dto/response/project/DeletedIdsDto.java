@@ -0,0 +1,51 @@
+package com.lampochky.dto.response.project;
+
+import java.util.List;
+
+public class DeletedIdsDto {
+    private List<Integer> lists;
+    private List<Integer> tasks;
+    private List<Integer> tags;
+    private List<Integer> messages;
+    private List<Integer> users;
+
+    public List<Integer> getLists() {
+        return lists;
+    }
+
+    public void setLists(List<Integer> lists) {
+        this.lists = lists;
+    }
+
+    public List<Integer> getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(List<Integer> tasks) {
+        this.tasks = tasks;
+    }
+
+    public List<Integer> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<Integer> tags) {
+        this.tags = tags;
+    }
+
+    public List<Integer> getMessages() {
+        return messages;
+    }
+
+    public void setMessages(List<Integer> messages) {
+        this.messages = messages;
+    }
+
+    public List<Integer> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<Integer> users) {
+        this.users = users;
+    }
+}
@@ -1,7 +1,7 @@
 package com.lampochky.dto.response.project;
 
-import com.lampochky.database.entity.Project;
 import com.lampochky.database.entity.UserRole;
+import com.lampochky.database.service.BoardSnapshot;
 import com.lampochky.dto.response.DtoBuilder;
 import com.lampochky.dto.response.ResponseDto;
 import com.lampochky.validation.Error;
@@ -19,9 +19,9 @@ public class GetProjectByIdResponseDto extends ResponseDto {
         this.project = project;
     }
 
-    public static GetProjectByIdResponseDto success(Project project, UserRole role){
+    public static GetProjectByIdResponseDto success(BoardSnapshot board, UserRole role){
         return new GetProjectByIdResponseDto(Collections.emptyList(),
-                project.getId(), DtoBuilder.buildFullProjectDto(project, role, true));
+                board.getProject().getId(), DtoBuilder.buildBoardProjectDto(board, role, true));
     }
 
     public static GetProjectByIdResponseDto fail(Integer id, Error error){
@@ -0,0 +1,147 @@
+package com.lampochky.dto.response.project;
+
+import com.lampochky.database.entity.ChangeType;
+import com.lampochky.database.service.BoardChanges;
+import com.lampochky.dto.response.DtoBuilder;
+import com.lampochky.dto.response.ResponseDto;
+import com.lampochky.dto.response.list.ListDto;
+import com.lampochky.dto.response.message.MessageDto;
+import com.lampochky.dto.response.tag.TagDto;
+import com.lampochky.dto.response.task.TaskDto;
+import com.lampochky.dto.response.user.UserDto;
+import com.lampochky.validation.Error;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Changes of a project after the revision {@code since}. The name is set only when the project
+ * was renamed. Tasks come without messages, changed messages are listed separately.
+ * Children of deleted lists and tasks are deleted with them and are not listed.
+ */
+public class GetProjectChangesResponseDto extends ResponseDto {
+    private Integer id;
+    private Long since;
+    private Long revision;
+    private String name;
+    private List<ListDto> lists;
+    private List<TaskDto> tasks;
+    private List<TagDto> tags;
+    private List<MessageDto> messages;
+    private List<UserDto> users;
+    private DeletedIdsDto deleted;
+
+    private GetProjectChangesResponseDto(List<Error> errors, Integer id, Long since) {
+        super(errors);
+        this.id = id;
+        this.since = since;
+    }
+
+    public static GetProjectChangesResponseDto success(BoardChanges changes) {
+        GetProjectChangesResponseDto dto = new GetProjectChangesResponseDto(Collections.emptyList(),
+                changes.getProject().getId(), changes.getSince());
+        dto.revision = changes.getRevision();
+        dto.name = changes.isProjectChanged() ? changes.getProject().getName() : null;
+        dto.lists = changes.getLists().stream().map(DtoBuilder::buildShortListDto).collect(Collectors.toList());
+        dto.tasks = changes.getTasks().stream()
+                .map(task -> DtoBuilder.buildTaskDto(task, Collections.emptyList()))
+                .collect(Collectors.toList());
+        dto.tags = changes.getTags().stream().map(DtoBuilder::buildTagDto).collect(Collectors.toList());
+        dto.messages = changes.getMessages().stream().map(DtoBuilder::buildMessageDto).collect(Collectors.toList());
+        dto.users = changes.getMembers().stream()
+                .map(up -> DtoBuilder.buildUserDto(up.getUser(), up.getRole(), up.getConfirmed()))
+                .collect(Collectors.toList());
+        dto.deleted = new DeletedIdsDto();
+        dto.deleted.setLists(changes.getDeletedIds(ChangeType.LIST));
+        dto.deleted.setTasks(changes.getDeletedIds(ChangeType.TASK));
+        dto.deleted.setTags(changes.getDeletedIds(ChangeType.TAG));
+        dto.deleted.setMessages(changes.getDeletedIds(ChangeType.MESSAGE));
+        dto.deleted.setUsers(changes.getDeletedIds(ChangeType.MEMBER));
+        return dto;
+    }
+
+    public static GetProjectChangesResponseDto fail(Integer id, Long since, Error error) {
+        return new GetProjectChangesResponseDto(Collections.singletonList(error), id, since);
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Long getSince() {
+        return since;
+    }
+
+    public void setSince(Long since) {
+        this.since = since;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<ListDto> getLists() {
+        return lists;
+    }
+
+    public void setLists(List<ListDto> lists) {
+        this.lists = lists;
+    }
+
+    public List<TaskDto> getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(List<TaskDto> tasks) {
+        this.tasks = tasks;
+    }
+
+    public List<TagDto> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<TagDto> tags) {
+        this.tags = tags;
+    }
+
+    public List<MessageDto> getMessages() {
+        return messages;
+    }
+
+    public void setMessages(List<MessageDto> messages) {
+        this.messages = messages;
+    }
+
+    public List<UserDto> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<UserDto> users) {
+        this.users = users;
+    }
+
+    public DeletedIdsDto getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(DeletedIdsDto deleted) {
+        this.deleted = deleted;
+    }
+}
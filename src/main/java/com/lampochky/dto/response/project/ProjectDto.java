@@ -11,12 +11,14 @@ import java.util.List;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class ProjectDto {
     private Integer id;
+    private Long version;
     private String name;
     private List<ListDto> lists;
     private List<UserDto> users;
     private List<TagDto> tags;
     private UserRole role;
     private Boolean confirmed;
+    private Long revision;
 
     public Integer getId() {
         return id;
@@ -26,6 +28,14 @@ public class ProjectDto {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -73,4 +83,12 @@ public class ProjectDto {
     public void setConfirmed(Boolean confirmed) {
         this.confirmed = confirmed;
     }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
 }
@@ -0,0 +1,42 @@
+package com.lampochky.dto.response.search;
+
+import com.lampochky.search.SearchHitType;
+
+public class SearchHitDto {
+    private SearchHitType type;
+    private Integer id;
+    private Integer taskId;
+    private Double score;
+
+    public SearchHitType getType() {
+        return type;
+    }
+
+    public void setType(SearchHitType type) {
+        this.type = type;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Integer taskId) {
+        this.taskId = taskId;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+}
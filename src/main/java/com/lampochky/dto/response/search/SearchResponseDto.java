@@ -0,0 +1,49 @@
+package com.lampochky.dto.response.search;
+
+import com.lampochky.dto.response.DtoBuilder;
+import com.lampochky.dto.response.ResponseDto;
+import com.lampochky.search.SearchHit;
+import com.lampochky.validation.Error;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Tasks and messages of a project matching the query, best matches first.
+ */
+public class SearchResponseDto extends ResponseDto {
+    private Integer projectId;
+    private List<SearchHitDto> hits;
+
+    public SearchResponseDto(List<Error> errors, Integer projectId, List<SearchHitDto> hits) {
+        super(errors);
+        this.projectId = projectId;
+        this.hits = hits;
+    }
+
+    public static SearchResponseDto success(Integer projectId, List<SearchHit> hits) {
+        return new SearchResponseDto(Collections.emptyList(), projectId,
+                hits.stream().map(DtoBuilder::buildSearchHitDto).collect(Collectors.toList()));
+    }
+
+    public static SearchResponseDto fail(Integer projectId, Error error) {
+        return new SearchResponseDto(Collections.singletonList(error), projectId, Collections.emptyList());
+    }
+
+    public Integer getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Integer projectId) {
+        this.projectId = projectId;
+    }
+
+    public List<SearchHitDto> getHits() {
+        return hits;
+    }
+
+    public void setHits(List<SearchHitDto> hits) {
+        this.hits = hits;
+    }
+}
@@ -2,6 +2,7 @@ package com.lampochky.dto.response.tag;
 
 public class TagDto {
     private Integer id;
+    private Long version;
     private Integer projectId;
     private String name;
 
@@ -13,6 +14,14 @@ public class TagDto {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Integer getProjectId() {
         return projectId;
     }
@@ -0,0 +1,85 @@
+package com.lampochky.dto.response.task;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.lampochky.dto.DtoConstants;
+
+import java.time.LocalDate;
+
+public class CalendarTaskDto {
+    private Integer id;
+    private String name;
+    private Integer priority;
+    private Integer listId;
+    private Integer projectId;
+    private Integer assignedUserId;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = DtoConstants.dateFormat)
+    private LocalDate dateToStart;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = DtoConstants.dateFormat)
+    private LocalDate dateToFinish;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Integer priority) {
+        this.priority = priority;
+    }
+
+    public Integer getListId() {
+        return listId;
+    }
+
+    public void setListId(Integer listId) {
+        this.listId = listId;
+    }
+
+    public Integer getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Integer projectId) {
+        this.projectId = projectId;
+    }
+
+    public Integer getAssignedUserId() {
+        return assignedUserId;
+    }
+
+    public void setAssignedUserId(Integer assignedUserId) {
+        this.assignedUserId = assignedUserId;
+    }
+
+    public LocalDate getDateToStart() {
+        return dateToStart;
+    }
+
+    public void setDateToStart(LocalDate dateToStart) {
+        this.dateToStart = dateToStart;
+    }
+
+    public LocalDate getDateToFinish() {
+        return dateToFinish;
+    }
+
+    public void setDateToFinish(LocalDate dateToFinish) {
+        this.dateToFinish = dateToFinish;
+    }
+}
@@ -0,0 +1,92 @@
+package com.lampochky.dto.response.task;
+
+import com.lampochky.database.entity.Message;
+import com.lampochky.database.entity.Task;
+import com.lampochky.dto.response.DtoBuilder;
+import com.lampochky.dto.response.ResponseDto;
+import com.lampochky.validation.Error;
+import org.springframework.data.domain.Page;
+
+import java.util.Collections;
+import java.util.List;
+
+public class GetAssignedTaskResponseDto extends ResponseDto {
+    private Integer userId;
+    private List<TaskDto> tasks;
+    private Integer page;
+    private Integer size;
+    private Long totalElements;
+    private Integer totalPages;
+
+    public GetAssignedTaskResponseDto(List<Error> errors, Integer userId, List<TaskDto> tasks) {
+        super(errors);
+        this.userId = userId;
+        this.tasks = tasks;
+    }
+
+    public static GetAssignedTaskResponseDto success(Integer userId, Page<Task> page, List<Message> messages){
+        GetAssignedTaskResponseDto dto = new GetAssignedTaskResponseDto(Collections.emptyList(), userId,
+                DtoBuilder.buildTaskDtos(page.getContent(), messages));
+        dto.setPage(page.getNumber());
+        dto.setSize(page.getSize());
+        dto.setTotalElements(page.getTotalElements());
+        dto.setTotalPages(page.getTotalPages());
+        return dto;
+    }
+
+    public static GetAssignedTaskResponseDto fail(Integer userId, Error error){
+        return new GetAssignedTaskResponseDto(Collections.singletonList(error), userId, Collections.emptyList());
+    }
+
+    public static GetAssignedTaskResponseDto fail(Integer userId, List<Error> errors){
+        return new GetAssignedTaskResponseDto(errors, userId, Collections.emptyList());
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public List<TaskDto> getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(List<TaskDto> tasks) {
+        this.tasks = tasks;
+    }
+
+    public Integer getPage() {
+        return page;
+    }
+
+    public void setPage(Integer page) {
+        this.page = page;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(Long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public Integer getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(Integer totalPages) {
+        this.totalPages = totalPages;
+    }
+}
@@ -1,5 +1,6 @@
 package com.lampochky.dto.response.task;
 
+import com.lampochky.database.entity.Message;
 import com.lampochky.database.entity.Task;
 import com.lampochky.dto.response.DtoBuilder;
 import com.lampochky.dto.response.ResponseDto;
@@ -18,9 +19,9 @@ public class GetTaskByIdResponseDto extends ResponseDto {
         this.task = task;
     }
 
-    public static GetTaskByIdResponseDto success(Task task) {
+    public static GetTaskByIdResponseDto success(Task task, List<Message> messages) {
         return new GetTaskByIdResponseDto(Collections.emptyList(),
-                task.getId(), DtoBuilder.buildFullTaskDto(task));
+                task.getId(), DtoBuilder.buildTaskDto(task, messages));
     }
 
     public static GetTaskByIdResponseDto fail(Integer id, Error error) {
@@ -1,17 +1,22 @@
 package com.lampochky.dto.response.task;
 
-import com.lampochky.database.entity.TaskList;
+import com.lampochky.database.entity.Message;
+import com.lampochky.database.entity.Task;
 import com.lampochky.dto.response.DtoBuilder;
 import com.lampochky.dto.response.ResponseDto;
 import com.lampochky.validation.Error;
+import org.springframework.data.domain.Page;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class GetTaskByListResponseDto extends ResponseDto {
     private Integer listId;
     private List<TaskDto> tasks;
+    private Integer page;
+    private Integer size;
+    private Long totalElements;
+    private Integer totalPages;
 
     public GetTaskByListResponseDto(List<Error> errors, Integer listId, List<TaskDto> tasks) {
         super(errors);
@@ -19,17 +24,22 @@ public class GetTaskByListResponseDto extends ResponseDto {
         this.tasks = tasks;
     }
 
-    public static GetTaskByListResponseDto success(TaskList taskList){
-        return new GetTaskByListResponseDto(Collections.emptyList(), taskList.getId(),
-                taskList.getTasks().stream().map(DtoBuilder::buildFullTaskDto).collect(Collectors.toList()));
+    public static GetTaskByListResponseDto success(Integer listId, Page<Task> page, List<Message> messages){
+        GetTaskByListResponseDto dto = new GetTaskByListResponseDto(Collections.emptyList(), listId,
+                DtoBuilder.buildTaskDtos(page.getContent(), messages));
+        dto.setPage(page.getNumber());
+        dto.setSize(page.getSize());
+        dto.setTotalElements(page.getTotalElements());
+        dto.setTotalPages(page.getTotalPages());
+        return dto;
     }
 
-    public static GetTaskByListResponseDto fail(Integer taskId, Error error){
-        return new GetTaskByListResponseDto(Collections.singletonList(error), taskId, Collections.emptyList());
+    public static GetTaskByListResponseDto fail(Integer listId, Error error){
+        return new GetTaskByListResponseDto(Collections.singletonList(error), listId, Collections.emptyList());
     }
 
-    public static GetTaskByListResponseDto fail(Integer taskId, List<Error> errors){
-        return new GetTaskByListResponseDto(errors, taskId, Collections.emptyList());
+    public static GetTaskByListResponseDto fail(Integer listId, List<Error> errors){
+        return new GetTaskByListResponseDto(errors, listId, Collections.emptyList());
     }
 
     public Integer getListId() {
@@ -47,4 +57,36 @@ public class GetTaskByListResponseDto extends ResponseDto {
     public void setTasks(List<TaskDto> tasks) {
         this.tasks = tasks;
     }
+
+    public Integer getPage() {
+        return page;
+    }
+
+    public void setPage(Integer page) {
+        this.page = page;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(Long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public Integer getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(Integer totalPages) {
+        this.totalPages = totalPages;
+    }
 }
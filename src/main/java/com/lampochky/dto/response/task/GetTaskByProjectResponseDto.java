@@ -0,0 +1,92 @@
+package com.lampochky.dto.response.task;
+
+import com.lampochky.database.entity.Message;
+import com.lampochky.database.entity.Task;
+import com.lampochky.dto.response.DtoBuilder;
+import com.lampochky.dto.response.ResponseDto;
+import com.lampochky.validation.Error;
+import org.springframework.data.domain.Page;
+
+import java.util.Collections;
+import java.util.List;
+
+public class GetTaskByProjectResponseDto extends ResponseDto {
+    private Integer projectId;
+    private List<TaskDto> tasks;
+    private Integer page;
+    private Integer size;
+    private Long totalElements;
+    private Integer totalPages;
+
+    public GetTaskByProjectResponseDto(List<Error> errors, Integer projectId, List<TaskDto> tasks) {
+        super(errors);
+        this.projectId = projectId;
+        this.tasks = tasks;
+    }
+
+    public static GetTaskByProjectResponseDto success(Integer projectId, Page<Task> page, List<Message> messages){
+        GetTaskByProjectResponseDto dto = new GetTaskByProjectResponseDto(Collections.emptyList(), projectId,
+                DtoBuilder.buildTaskDtos(page.getContent(), messages));
+        dto.setPage(page.getNumber());
+        dto.setSize(page.getSize());
+        dto.setTotalElements(page.getTotalElements());
+        dto.setTotalPages(page.getTotalPages());
+        return dto;
+    }
+
+    public static GetTaskByProjectResponseDto fail(Integer projectId, Error error){
+        return new GetTaskByProjectResponseDto(Collections.singletonList(error), projectId, Collections.emptyList());
+    }
+
+    public static GetTaskByProjectResponseDto fail(Integer projectId, List<Error> errors){
+        return new GetTaskByProjectResponseDto(errors, projectId, Collections.emptyList());
+    }
+
+    public Integer getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Integer projectId) {
+        this.projectId = projectId;
+    }
+
+    public List<TaskDto> getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(List<TaskDto> tasks) {
+        this.tasks = tasks;
+    }
+
+    public Integer getPage() {
+        return page;
+    }
+
+    public void setPage(Integer page) {
+        this.page = page;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(Long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public Integer getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(Integer totalPages) {
+        this.totalPages = totalPages;
+    }
+}
@@ -0,0 +1,36 @@
+package com.lampochky.dto.response.task;
+
+import com.lampochky.dto.response.ResponseDto;
+import com.lampochky.validation.Error;
+
+import java.util.Collections;
+import java.util.List;
+
+public class TaskBatchResponseDto extends ResponseDto {
+    private List<TaskOperationResultDto> results;
+
+    public TaskBatchResponseDto(List<Error> errors, List<TaskOperationResultDto> results) {
+        super(errors);
+        this.results = results;
+    }
+
+    public static TaskBatchResponseDto success(List<TaskOperationResultDto> results) {
+        return new TaskBatchResponseDto(Collections.emptyList(), results);
+    }
+
+    public static TaskBatchResponseDto fail(Error error) {
+        return new TaskBatchResponseDto(Collections.singletonList(error), Collections.emptyList());
+    }
+
+    public static TaskBatchResponseDto fail(List<TaskOperationResultDto> results) {
+        return new TaskBatchResponseDto(Collections.singletonList(Error.BATCH_FAILED), results);
+    }
+
+    public List<TaskOperationResultDto> getResults() {
+        return results;
+    }
+
+    public void setResults(List<TaskOperationResultDto> results) {
+        this.results = results;
+    }
+}
@@ -14,6 +14,8 @@ public class TaskDto {
     @JsonProperty(required = true)
     protected Integer id;
 
+    protected Long version;
+
     @JsonProperty(required = true)
     protected String name;
 
@@ -34,6 +36,9 @@ public class TaskDto {
     @JsonProperty(required = true)
     protected Integer listId;
 
+    @JsonProperty(required = true)
+    protected Integer projectId;
+
     @JsonProperty(required = true)
     protected UserDto assignedUser;
 
@@ -54,6 +59,14 @@ public class TaskDto {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -102,6 +115,14 @@ public class TaskDto {
         this.listId = listId;
     }
 
+    public Integer getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Integer projectId) {
+        this.projectId = projectId;
+    }
+
     public UserDto getAssignedUser() {
         return assignedUser;
     }
@@ -0,0 +1,68 @@
+package com.lampochky.dto.response.task;
+
+import com.lampochky.database.entity.Task;
+import com.lampochky.dto.response.DtoBuilder;
+import com.lampochky.dto.response.ResponseDto;
+import com.lampochky.validation.Error;
+
+import java.util.Collections;
+import java.util.List;
+
+public class TaskOperationResultDto extends ResponseDto {
+    private Integer index;
+    private String type;
+    private TaskDto task;
+    private List<Integer> missingTagIds;
+
+    public TaskOperationResultDto(List<Error> errors, Integer index, String type, TaskDto task) {
+        super(errors);
+        this.index = index;
+        this.type = type;
+        this.task = task;
+    }
+
+    public static TaskOperationResultDto success(Integer index, String type, Task task) {
+        return new TaskOperationResultDto(Collections.emptyList(), index, type, DtoBuilder.buildShortTaskDto(task));
+    }
+
+    public static TaskOperationResultDto fail(Integer index, String type, List<Error> errors,
+                                              List<Integer> missingTagIds) {
+        TaskOperationResultDto dto = new TaskOperationResultDto(errors, index, type, null);
+        if(!missingTagIds.isEmpty()) {
+            dto.setMissingTagIds(missingTagIds);
+        }
+        return dto;
+    }
+
+    public Integer getIndex() {
+        return index;
+    }
+
+    public void setIndex(Integer index) {
+        this.index = index;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public TaskDto getTask() {
+        return task;
+    }
+
+    public void setTask(TaskDto task) {
+        this.task = task;
+    }
+
+    public List<Integer> getMissingTagIds() {
+        return missingTagIds;
+    }
+
+    public void setMissingTagIds(List<Integer> missingTagIds) {
+        this.missingTagIds = missingTagIds;
+    }
+}
@@ -10,6 +10,7 @@ import java.util.List;
 
 public class TaskResponseDto extends ResponseDto {
     private TaskDto task;
+    private List<Integer> missingTagIds;
 
     public TaskResponseDto(List<Error> errors, TaskDto task) {
         super(errors);
@@ -24,6 +25,12 @@ public class TaskResponseDto extends ResponseDto {
         return new TaskResponseDto(Collections.singletonList(error), null);
     }
 
+    public static TaskResponseDto fail(Error error, List<Integer> missingTagIds) {
+        TaskResponseDto dto = fail(error);
+        dto.setMissingTagIds(missingTagIds);
+        return dto;
+    }
+
     public static TaskResponseDto fail(List<Error> errors) {
         return new TaskResponseDto(errors, null);
     }
@@ -35,4 +42,12 @@ public class TaskResponseDto extends ResponseDto {
     public void setTask(TaskDto task) {
         this.task = task;
     }
+
+    public List<Integer> getMissingTagIds() {
+        return missingTagIds;
+    }
+
+    public void setMissingTagIds(List<Integer> missingTagIds) {
+        this.missingTagIds = missingTagIds;
+    }
 }
@@ -0,0 +1,266 @@
+package com.lampochky.events;
+
+import com.lampochky.database.entity.ChangeType;
+import com.lampochky.database.entity.Project;
+import com.lampochky.database.entity.ProjectChange;
+import com.lampochky.database.entity.User;
+import com.lampochky.dto.response.DtoBuilder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Sends changes of a project to its subscribers as server-sent events once they are committed.
+ * An event names the changed entities only, the client loads them from
+ * {@code /data/project/{id}/changes} since its last revision.
+ * Every subscriber has a buffer of {@code board.events.buffer-size} events. A subscriber which
+ * does not keep up is disconnected instead of holding events in memory, it reconnects and
+ * catches up with the changes since its last revision.
+ */
+@Component
+public class BoardEventBroadcaster implements MeterBinder, DisposableBean {
+    private final Logger log = LogManager.getLogger(getClass());
+    private final Map<Integer, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private final ScheduledExecutorService executor;
+    private final int bufferSize;
+    private final long timeout;
+
+    @Autowired
+    public BoardEventBroadcaster(@Value("${board.events.buffer-size:100}") int bufferSize,
+                                 @Value("${board.events.timeout:1800000}") long timeout,
+                                 @Value("${board.events.heartbeat:15000}") long heartbeat,
+                                 @Value("${board.events.threads:2}") int threads) {
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "board-events-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::heartbeat, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Subscribes the user to the events of the project. The first event carries the current
+     * revision, so the client knows since which revision to load changes.
+     */
+    public SseEmitter subscribe(Project project, User user, long revision) {
+        Subscriber subscriber = new Subscriber(project.getId(), user.getId(), new SseEmitter(timeout));
+        subscribers.computeIfAbsent(project.getId(), id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriber.offer(new Event("revision", String.valueOf(revision),
+                DtoBuilder.buildBoardEventDto(project.getId(), revision, Collections.emptyList())));
+        log.debug("user {} subscribed to events of project {}", user.getId(), project.getId());
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        Set<Subscriber> projectSubscribers = subscribers.get(event.getProjectId());
+        if(projectSubscribers == null) {
+            return;
+        }
+        Event change = new Event("change", String.valueOf(event.getRevision()),
+                DtoBuilder.buildBoardEventDto(event.getProjectId(), event.getRevision(), event.getChanges()));
+        Set<Integer> removedUsers = event.getChanges().stream()
+                .filter(item -> item.getEntityType() == ChangeType.MEMBER && item.getDeleted())
+                .map(ProjectChange::getEntityId)
+                .collect(Collectors.toSet());
+        projectSubscribers.forEach(subscriber -> {
+            if(removedUsers.contains(subscriber.userId)) {
+                subscriber.close();
+            } else {
+                subscriber.offer(change);
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProjectDeleted(ProjectDeletedEvent event) {
+        Set<Subscriber> projectSubscribers = subscribers.remove(event.getProjectId());
+        if(projectSubscribers == null) {
+            return;
+        }
+        Event deleted = new Event("deleted", null,
+                DtoBuilder.buildBoardEventDto(event.getProjectId(), null, Collections.emptyList()));
+        projectSubscribers.forEach(subscriber -> {
+            subscriber.offer(deleted);
+            subscriber.closeAfterSent();
+        });
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("board.events.subscribers", this, BoardEventBroadcaster::getSubscriberCount)
+                .description("Clients subscribed to board events")
+                .register(registry);
+        FunctionCounter.builder("board.events.dropped", dropped, AtomicLong::get)
+                .description("Subscribers disconnected because their buffer was full")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+        subscribers.values().forEach(projectSubscribers -> projectSubscribers.forEach(Subscriber::close));
+        subscribers.clear();
+    }
+
+    private void heartbeat() {
+        subscribers.values().forEach(projectSubscribers -> projectSubscribers.forEach(subscriber -> {
+            if(subscriber.buffer.isEmpty()) {
+                subscriber.offer(Event.heartbeat);
+            }
+        }));
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.projectId, (id, projectSubscribers) -> {
+            projectSubscribers.remove(subscriber);
+            return projectSubscribers.isEmpty() ? null : projectSubscribers;
+        });
+    }
+
+    /**
+     * Events of a subscriber are written by one task at a time, in the order they were offered.
+     */
+    private class Subscriber {
+        private final Integer projectId;
+        private final Integer userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean closeAfterSent;
+
+        private Subscriber(Integer projectId, Integer userId, SseEmitter emitter) {
+            this.projectId = projectId;
+            this.userId = userId;
+            this.emitter = emitter;
+            emitter.onCompletion(() -> {
+                closed.set(true);
+                remove(this);
+            });
+            emitter.onTimeout(this::close);
+            emitter.onError(ex -> close());
+        }
+
+        private void offer(Event event) {
+            if(closed.get()) {
+                return;
+            }
+            if(!buffer.offer(event)) {
+                log.info("user {} is disconnected from events of project {}, {} events are not sent",
+                        userId, projectId, buffer.size());
+                dropped.incrementAndGet();
+                close();
+                return;
+            }
+            schedule();
+        }
+
+        private void closeAfterSent() {
+            closeAfterSent = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if(draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RuntimeException ex) {
+                    draining.set(false);
+                    close();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Event event;
+                while(!closed.get() && (event = buffer.poll()) != null) {
+                    emitter.send(event.build());
+                }
+                if(closeAfterSent) {
+                    close();
+                }
+            } catch (IOException | RuntimeException ex) {
+                log.debug("events of project {} are not sent to user {}: {}", projectId, userId, ex.getMessage());
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if(!closed.get() && !buffer.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void close() {
+            if(closed.compareAndSet(false, true)) {
+                buffer.clear();
+                remove(this);
+                emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * Event shared by the subscribers of a project. A builder of Spring appends to its content
+     * every time it is built, so every send builds a new one from this.
+     */
+    private static class Event {
+        private static final Event heartbeat = new Event(null, null, null);
+
+        private final String name;
+        private final String id;
+        private final Object data;
+
+        private Event(String name, String id, Object data) {
+            this.name = name;
+            this.id = id;
+            this.data = data;
+        }
+
+        private SseEmitter.SseEventBuilder build() {
+            if(name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            SseEmitter.SseEventBuilder builder = SseEmitter.event().name(name);
+            if(id != null) {
+                builder.id(id);
+            }
+            return builder.data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+}
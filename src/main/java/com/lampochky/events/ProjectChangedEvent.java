@@ -0,0 +1,32 @@
+package com.lampochky.events;
+
+import com.lampochky.database.entity.ProjectChange;
+
+import java.util.List;
+
+/**
+ * Published in the transaction that records changes of a project under a new revision.
+ */
+public class ProjectChangedEvent {
+    private final Integer projectId;
+    private final long revision;
+    private final List<ProjectChange> changes;
+
+    public ProjectChangedEvent(Integer projectId, long revision, List<ProjectChange> changes) {
+        this.projectId = projectId;
+        this.revision = revision;
+        this.changes = changes;
+    }
+
+    public Integer getProjectId() {
+        return projectId;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public List<ProjectChange> getChanges() {
+        return changes;
+    }
+}
@@ -0,0 +1,16 @@
+package com.lampochky.events;
+
+/**
+ * Published in the transaction that deletes a project.
+ */
+public class ProjectDeletedEvent {
+    private final Integer projectId;
+
+    public ProjectDeletedEvent(Integer projectId) {
+        this.projectId = projectId;
+    }
+
+    public Integer getProjectId() {
+        return projectId;
+    }
+}
@@ -0,0 +1,212 @@
+package com.lampochky.search;
+
+import com.lampochky.database.entity.ProjectChange;
+
+import java.util.*;
+
+/**
+ * Inverted index of the tasks and messages of one project. A word of a task name weighs more
+ * than a word of its description or of a message. Every query word has to match a word of
+ * the document exactly or as its prefix, prefix matches score less than exact ones and rare
+ * words score more than frequent ones.
+ * Changes made while the index is built are kept aside and applied once it is built.
+ */
+class ProjectIndex {
+    private static final float nameWeight = 3;
+    private static final float textWeight = 1;
+    private static final double prefixFactor = 0.5;
+
+    private final Integer projectId;
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final List<ProjectChange> pending = new ArrayList<>();
+    private final Object buildLock = new Object();
+    private int postingCount;
+    private volatile boolean built;
+
+    ProjectIndex(Integer projectId) {
+        this.projectId = projectId;
+    }
+
+    Integer getProjectId() {
+        return projectId;
+    }
+
+    Object getBuildLock() {
+        return buildLock;
+    }
+
+    boolean isBuilt() {
+        return built;
+    }
+
+    synchronized int getPostingCount() {
+        return postingCount;
+    }
+
+    /**
+     * Keeps the changes until the index is built. Returns false when it is built already.
+     */
+    synchronized boolean defer(List<ProjectChange> changes) {
+        if(built) {
+            return false;
+        }
+        pending.addAll(changes);
+        return true;
+    }
+
+    /**
+     * Changes kept while the index was built, or null when there are none left and the index is built.
+     */
+    synchronized List<ProjectChange> drainOrComplete() {
+        if(pending.isEmpty()) {
+            built = true;
+            return null;
+        }
+        List<ProjectChange> changes = new ArrayList<>(pending);
+        pending.clear();
+        return changes;
+    }
+
+    synchronized void putTask(Integer id, Integer listId, String name, String description, int maxTerms) {
+        Map<String, Float> weights = new LinkedHashMap<>();
+        addTerms(weights, name, nameWeight, maxTerms);
+        addTerms(weights, description, textWeight, maxTerms);
+        put(new Document(SearchHitType.TASK, id, id, listId), weights);
+    }
+
+    synchronized void putMessage(Integer id, Integer taskId, String text, int maxTerms) {
+        Map<String, Float> weights = new LinkedHashMap<>();
+        addTerms(weights, text, textWeight, maxTerms);
+        put(new Document(SearchHitType.MESSAGE, id, taskId, null), weights);
+    }
+
+    /**
+     * Removes the task with its messages.
+     */
+    synchronized void removeTask(Integer id) {
+        removeTasks(Collections.singleton(id));
+    }
+
+    synchronized void removeMessage(Integer id) {
+        remove(key(SearchHitType.MESSAGE, id));
+    }
+
+    /**
+     * Removes tasks of the list with their messages.
+     */
+    synchronized void removeList(Integer listId) {
+        Set<Integer> taskIds = new HashSet<>();
+        for(Document document: documents.values()) {
+            if(listId.equals(document.listId)) {
+                taskIds.add(document.id);
+            }
+        }
+        removeTasks(taskIds);
+    }
+
+    synchronized List<SearchHit> search(Collection<String> words, int limit) {
+        Map<Long, Double> scores = null;
+        for(String word: words) {
+            Map<Long, Double> wordScores = score(word);
+            if(scores == null) {
+                scores = wordScores;
+            } else {
+                scores.keySet().retainAll(wordScores.keySet());
+                scores.replaceAll((key, score) -> score + wordScores.get(key));
+            }
+            if(scores.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+        if(scores == null) {
+            return Collections.emptyList();
+        }
+        List<SearchHit> hits = new ArrayList<>();
+        scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .forEach(entry -> {
+                    Document document = documents.get(entry.getKey());
+                    hits.add(new SearchHit(document.type, document.id, document.taskId, entry.getValue()));
+                });
+        return hits;
+    }
+
+    /**
+     * Best score of the word in every document containing it or a word it is a prefix of.
+     */
+    private Map<Long, Double> score(String word) {
+        Map<Long, Double> scores = new HashMap<>();
+        for(Map.Entry<String, Map<Long, Float>> term: postings.subMap(word, true, word + Character.MAX_VALUE, false).entrySet()) {
+            double idf = Math.log(1 + (double) documents.size() / term.getValue().size());
+            double factor = term.getKey().equals(word) ? 1 : prefixFactor;
+            term.getValue().forEach((key, weight) -> scores.merge(key, weight * idf * factor, Math::max));
+        }
+        return scores;
+    }
+
+    private static void addTerms(Map<String, Float> weights, String text, float weight, int maxTerms) {
+        for(String token: Tokenizer.tokenize(text)) {
+            if(weights.size() < maxTerms || weights.containsKey(token)) {
+                weights.merge(token, weight, Float::sum);
+            }
+        }
+    }
+
+    private void put(Document document, Map<String, Float> weights) {
+        long key = key(document.type, document.id);
+        remove(key);
+        document.terms = weights.keySet().toArray(new String[0]);
+        documents.put(key, document);
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(key, weight));
+        postingCount += weights.size();
+    }
+
+    private void remove(long key) {
+        Document document = documents.remove(key);
+        if(document == null) {
+            return;
+        }
+        for(String term: document.terms) {
+            Map<Long, Float> termPostings = postings.get(term);
+            termPostings.remove(key);
+            if(termPostings.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        postingCount -= document.terms.length;
+    }
+
+    private void removeTasks(Set<Integer> taskIds) {
+        if(taskIds.isEmpty()) {
+            return;
+        }
+        List<Long> keys = new ArrayList<>();
+        documents.forEach((key, document) -> {
+            if(taskIds.contains(document.taskId)) {
+                keys.add(key);
+            }
+        });
+        keys.forEach(this::remove);
+    }
+
+    private static long key(SearchHitType type, Integer id) {
+        return ((long) id << 1) | (type == SearchHitType.MESSAGE ? 1 : 0);
+    }
+
+    private static class Document {
+        private final SearchHitType type;
+        private final Integer id;
+        private final Integer taskId;
+        private final Integer listId;
+        private String[] terms;
+
+        private Document(SearchHitType type, Integer id, Integer taskId, Integer listId) {
+            this.type = type;
+            this.id = id;
+            this.taskId = taskId;
+            this.listId = listId;
+        }
+    }
+}
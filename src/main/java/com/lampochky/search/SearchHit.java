@@ -0,0 +1,34 @@
+package com.lampochky.search;
+
+/**
+ * Task or message matching a search query. For a task, the task id is its own id.
+ */
+public class SearchHit {
+    private final SearchHitType type;
+    private final Integer id;
+    private final Integer taskId;
+    private final double score;
+
+    public SearchHit(SearchHitType type, Integer id, Integer taskId, double score) {
+        this.type = type;
+        this.id = id;
+        this.taskId = taskId;
+        this.score = score;
+    }
+
+    public SearchHitType getType() {
+        return type;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public Integer getTaskId() {
+        return taskId;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,6 @@
+package com.lampochky.search;
+
+public enum SearchHitType {
+    TASK,
+    MESSAGE
+}
@@ -0,0 +1,254 @@
+package com.lampochky.search;
+
+import com.lampochky.database.entity.ChangeType;
+import com.lampochky.database.entity.ProjectChange;
+import com.lampochky.database.repository.MessageRepository;
+import com.lampochky.database.repository.MessageRepository.MessageText;
+import com.lampochky.database.repository.TaskRepository;
+import com.lampochky.database.repository.TaskRepository.TaskText;
+import com.lampochky.events.ProjectChangedEvent;
+import com.lampochky.events.ProjectDeletedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Full-text search over tasks and messages, one in-memory {@link ProjectIndex} per project.
+ * An index is built on the first search in its project, so nothing is stored and a restart
+ * rebuilds indexes on demand. Committed changes of indexed projects are applied to them
+ * by reloading the changed tasks and messages.
+ * Memory is bounded by {@code search.index.max-projects} indexes and {@code search.index.max-postings}
+ * words of documents in all of them, least recently used indexes are dropped first.
+ * A document contributes at most {@code search.index.max-terms} distinct words.
+ */
+@Component
+public class SearchIndex implements MeterBinder {
+    private final Logger log = LogManager.getLogger(getClass());
+    private final TaskRepository taskRepository;
+    private final MessageRepository messageRepository;
+    private final TransactionTemplate buildTemplate;
+    private final TransactionTemplate reloadTemplate;
+    private final LinkedHashMap<Integer, ProjectIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxProjects;
+    private final long maxPostings;
+    private final int maxTerms;
+
+    @Autowired
+    public SearchIndex(TaskRepository taskRepository,
+                       MessageRepository messageRepository,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${search.index.max-projects:200}") int maxProjects,
+                       @Value("${search.index.max-postings:1000000}") long maxPostings,
+                       @Value("${search.index.max-terms:500}") int maxTerms) {
+        this.taskRepository = taskRepository;
+        this.messageRepository = messageRepository;
+        this.buildTemplate = new TransactionTemplate(transactionManager);
+        buildTemplate.setReadOnly(true);
+        buildTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.reloadTemplate = new TransactionTemplate(transactionManager);
+        reloadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxProjects = maxProjects;
+        this.maxPostings = maxPostings;
+        this.maxTerms = maxTerms;
+    }
+
+    /**
+     * Tasks and messages of the project matching all words of the query, best matches first.
+     */
+    public List<SearchHit> search(Integer projectId, Collection<String> words, int limit) {
+        ProjectIndex index = find(projectId);
+        return index.search(words, limit);
+    }
+
+    public boolean isIndexed(Integer projectId) {
+        synchronized(indexes) {
+            ProjectIndex index = indexes.get(projectId);
+            return index != null && index.isBuilt();
+        }
+    }
+
+    public int getProjectCount() {
+        synchronized(indexes) {
+            return indexes.size();
+        }
+    }
+
+    public long getPostingCount() {
+        synchronized(indexes) {
+            return indexes.values().stream().mapToLong(ProjectIndex::getPostingCount).sum();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        ProjectIndex index;
+        synchronized(indexes) {
+            index = indexes.get(event.getProjectId());
+        }
+        if(index == null || index.defer(event.getChanges())) {
+            return;
+        }
+        try {
+            apply(index, event.getChanges());
+        } catch (RuntimeException ex) {
+            log.warn("search index of project {} is dropped, changes of revision {} are not applied: {}",
+                    event.getProjectId(), event.getRevision(), ex.getMessage());
+            drop(index);
+        }
+        trim(index);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProjectDeleted(ProjectDeletedEvent event) {
+        synchronized(indexes) {
+            indexes.remove(event.getProjectId());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("search.index.projects", this, SearchIndex::getProjectCount)
+                .description("Projects with a search index in memory")
+                .register(registry);
+        Gauge.builder("search.index.postings", this, SearchIndex::getPostingCount)
+                .description("Words of documents in all search indexes")
+                .register(registry);
+    }
+
+    private ProjectIndex find(Integer projectId) {
+        ProjectIndex index;
+        synchronized(indexes) {
+            index = indexes.computeIfAbsent(projectId, ProjectIndex::new);
+        }
+        if(!index.isBuilt()) {
+            synchronized(index.getBuildLock()) {
+                if(!index.isBuilt()) {
+                    build(index);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Loads all tasks and messages of the project, then applies the changes committed meanwhile.
+     */
+    private void build(ProjectIndex index) {
+        long start = System.currentTimeMillis();
+        try {
+            buildTemplate.executeWithoutResult(status -> {
+                try(Stream<TaskText> tasks = taskRepository.streamTextInProject(index.getProjectId())) {
+                    tasks.forEach(task -> index.putTask(task.getId(), task.getListId(), task.getName(),
+                            task.getDescription(), maxTerms));
+                }
+                try(Stream<MessageText> messages = messageRepository.streamTextInProject(index.getProjectId())) {
+                    messages.forEach(message -> index.putMessage(message.getId(), message.getTaskId(),
+                            message.getText(), maxTerms));
+                }
+            });
+            List<ProjectChange> changes;
+            while((changes = index.drainOrComplete()) != null) {
+                apply(index, changes);
+            }
+        } catch (RuntimeException ex) {
+            drop(index);
+            throw ex;
+        }
+        log.info("search index of project {} is built with {} words in {} ms",
+                index.getProjectId(), index.getPostingCount(), System.currentTimeMillis() - start);
+        trim(index);
+    }
+
+    /**
+     * Reloads the changed documents under the build lock of the index. Listeners of concurrent
+     * commits would otherwise put texts they reloaded in any order, and an older text could
+     * replace a newer one until the next change.
+     */
+    private void apply(ProjectIndex index, List<ProjectChange> changes) {
+        synchronized(index.getBuildLock()) {
+            reload(index, changes);
+        }
+    }
+
+    /**
+     * Reads the changed documents from the primary database: a replica may not have the commit
+     * that published the changes yet, and would give back the texts they replaced.
+     */
+    private void reload(ProjectIndex index, List<ProjectChange> changes) {
+        Set<Integer> taskIds = new HashSet<>();
+        Set<Integer> messageIds = new HashSet<>();
+        for(ProjectChange change: changes) {
+            if(change.getEntityType() == ChangeType.TASK) {
+                if(change.getDeleted()) {
+                    index.removeTask(change.getEntityId());
+                } else {
+                    taskIds.add(change.getEntityId());
+                }
+            } else if(change.getEntityType() == ChangeType.MESSAGE) {
+                if(change.getDeleted()) {
+                    index.removeMessage(change.getEntityId());
+                } else {
+                    messageIds.add(change.getEntityId());
+                }
+            } else if(change.getEntityType() == ChangeType.LIST && change.getDeleted()) {
+                index.removeList(change.getEntityId());
+            }
+        }
+        if(taskIds.isEmpty() && messageIds.isEmpty()) {
+            return;
+        }
+        reloadTemplate.executeWithoutResult(status -> {
+            if(!taskIds.isEmpty()) {
+                for(TaskText task: taskRepository.findTextByIdInProject(taskIds, index.getProjectId())) {
+                    index.putTask(task.getId(), task.getListId(), task.getName(), task.getDescription(), maxTerms);
+                    taskIds.remove(task.getId());
+                }
+                taskIds.forEach(index::removeTask);
+            }
+            if(!messageIds.isEmpty()) {
+                for(MessageText message: messageRepository.findTextByIdInProject(messageIds, index.getProjectId())) {
+                    index.putMessage(message.getId(), message.getTaskId(), message.getText(), maxTerms);
+                    messageIds.remove(message.getId());
+                }
+                messageIds.forEach(index::removeMessage);
+            }
+        });
+    }
+
+    private void drop(ProjectIndex index) {
+        synchronized(indexes) {
+            indexes.remove(index.getProjectId(), index);
+        }
+    }
+
+    /**
+     * Drops least recently used indexes other than the current one until the limits are met.
+     */
+    private void trim(ProjectIndex current) {
+        synchronized(indexes) {
+            long postings = indexes.values().stream().mapToLong(ProjectIndex::getPostingCount).sum();
+            Iterator<ProjectIndex> iterator = indexes.values().iterator();
+            while(iterator.hasNext() && (indexes.size() > maxProjects || postings > maxPostings)) {
+                ProjectIndex index = iterator.next();
+                if(index != current && index.isBuilt()) {
+                    postings -= index.getPostingCount();
+                    iterator.remove();
+                    log.debug("search index of project {} is dropped to free memory", index.getProjectId());
+                }
+            }
+        }
+    }
+}
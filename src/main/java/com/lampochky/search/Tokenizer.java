@@ -0,0 +1,36 @@
+package com.lampochky.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into lowercased words of letters and digits. Words shorter than {@link #minLength}
+ * are skipped, longer than {@link #maxLength} are cut.
+ */
+public class Tokenizer {
+    public static final int minLength = 2;
+    public static final int maxLength = 32;
+
+    private Tokenizer() {}
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if(text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for(int i = 0; i <= text.length(); ++i) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if(wordChar && start < 0) {
+                start = i;
+            } else if(!wordChar && start >= 0) {
+                if(i - start >= minLength) {
+                    tokens.add(text.substring(start, Math.min(i, start + maxLength)).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -10,14 +10,22 @@ public enum Error {
     AUTHENTICATION_FAIL("authentication failed"),
     PERMISSIONS_NOT_GRANTED("permissions to action not granted"),
     USER_NOT_FOUND("user not found"),
+    VERSION_CONFLICT("entity has been changed by another request, reload it and retry"),
 
     PROJECT_NOT_FOUND("project not found"),
     USER_IS_ALREADY_MEMBER("user is already member of project"),
     INVITION_NOT_FOUND("invition not found"),
+    REVISION_INVALID("since must not be negative or greater than the revision of the project"),
+    CHANGES_EXPIRED("changes since the revision are not kept anymore, reload the whole project"),
 
     LIST_NOT_FOUND("list not found"),
 
     TASK_NOT_FOUND("task not found"),
+    BATCH_EMPTY("batch must contain operations"),
+    BATCH_TOO_LARGE("batch contains too many operations"),
+    BATCH_FAILED("batch contains invalid operations, none of them are applied"),
+    OPERATION_TYPE_INVALID("operation type must be create, update, move or delete"),
+    OPERATION_TASK_DUPLICATED("task must not be changed by several operations of a batch"),
 
     TAG_NOT_FOUND("tag not found"),
 
@@ -25,6 +33,16 @@ public enum Error {
     MESSAGE_TEXT_EMPTY("text must not be empty"),
     MESSAGE_TEXT_TOO_LONG("text must not be longer then 1000 characters"),
 
+    CURSOR_INVALID("cursor is malformed"),
+    DIRECTION_INVALID("direction must be older or newer"),
+    PERIOD_INVALID("from must not be after to"),
+    SORT_INVALID("sort must be one of id, name, priority, dateToStart, dateToFinish"),
+    ORDER_INVALID("order must be asc or desc"),
+    PAGE_INVALID("page must not be negative and size must be positive"),
+    PRIORITY_RANGE_INVALID("min priority must not be greater than max priority"),
+    SEARCH_QUERY_INVALID("query must contain a word of 2 or more letters or digits"),
+
+    DATE_EMPTY("dates to start and to finish are required"),
     DATE_ORDER_INVALID("date to start must not be after date to finish"),
     ASSIGNING_NOT_GRANTED_USER("assigned user must have role " + UserRole.DEVELOPER.name() + " or higher"),
 
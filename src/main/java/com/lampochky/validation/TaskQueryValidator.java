@@ -0,0 +1,46 @@
+package com.lampochky.validation;
+
+import com.lampochky.dto.request.task.TaskQueryRequestDto;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class TaskQueryValidator extends AbstractValidator<TaskQueryRequestDto> {
+    public static final List<String> sortFields = Arrays.asList("id", "name", "priority", "dateToStart", "dateToFinish");
+
+    private void validateSort(TaskQueryRequestDto query) {
+        if(query.getSort() == null || !sortFields.contains(query.getSort())) {
+            errors.add(Error.SORT_INVALID);
+        }
+        if(!"asc".equalsIgnoreCase(query.getOrder()) && !"desc".equalsIgnoreCase(query.getOrder())) {
+            errors.add(Error.ORDER_INVALID);
+        }
+    }
+
+    private void validatePage(TaskQueryRequestDto query) {
+        if(query.getPage() == null || query.getPage() < 0 || (query.getSize() != null && query.getSize() < 1)) {
+            errors.add(Error.PAGE_INVALID);
+        }
+    }
+
+    private void validateRanges(TaskQueryRequestDto query) {
+        if(query.getMinPriority() != null && query.getMaxPriority() != null &&
+                query.getMinPriority() > query.getMaxPriority()) {
+            errors.add(Error.PRIORITY_RANGE_INVALID);
+        }
+        if(query.getFrom() != null && query.getTo() != null && query.getFrom().isAfter(query.getTo())) {
+            errors.add(Error.DATE_ORDER_INVALID);
+        }
+    }
+
+    @Override
+    public boolean validate(TaskQueryRequestDto query) {
+        errors.clear();
+
+        validateSort(query);
+        validatePage(query);
+        validateRanges(query);
+
+        return errors.isEmpty();
+    }
+}
@@ -1,17 +1,19 @@
 package com.lampochky.validation;
 
 import com.lampochky.database.entity.*;
-import com.lampochky.database.service.UserService;
+import com.lampochky.database.service.UserProjectService;
 
 public class TaskValidator extends AbstractValidator<Task>{
-    private final UserService userService;
+    private final UserProjectService userProjectService;
 
-    public TaskValidator(UserService userService) {
-        this.userService = userService;
+    public TaskValidator(UserProjectService userProjectService) {
+        this.userProjectService = userProjectService;
     }
 
     private void validateDates(Task task) {
-        if(task.getDateToStart().isAfter(task.getDateToFinish())){
+        if(task.getDateToStart() == null || task.getDateToFinish() == null) {
+            errors.add(Error.DATE_EMPTY);
+        } else if(task.getDateToStart().isAfter(task.getDateToFinish())){
             errors.add(Error.DATE_ORDER_INVALID);
         }
     }
@@ -33,16 +35,8 @@ public class TaskValidator extends AbstractValidator<Task>{
         Project project = task.getList().getProject();
 
         if(assignedUser != null) {
-            UserRole assignedRole = project.getUsers().stream()
-                    .filter(u -> u.getUser().equals(assignedUser))
-                    .findAny()
-                    .orElseGet(() -> {
-                        UserProject defaultRelation = new UserProject();
-                        defaultRelation.setRole(UserRole.NO_RELATION);
-                        return defaultRelation;
-                    }).getRole();
-
-            if(!assignedRole.greaterOrEquals(UserRole.DEVELOPER)){
+            UserProject relation = userProjectService.findMembership(assignedUser, project);
+            if(!relation.getRole().greaterOrEquals(UserRole.DEVELOPER)){
                 errors.add(Error.ASSIGNING_NOT_GRANTED_USER);
             }
         }
@@ -0,0 +1,4 @@
+-- Calendars read tasks of the lists of a project by due date.
+-- H2 keeps idx_task_list, it backs the foreign key constraint.
+
+CREATE INDEX IF NOT EXISTS idx_task_list_finish ON lampochky.task (list_id, date_to_finish, id);
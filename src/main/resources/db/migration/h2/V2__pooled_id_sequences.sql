@@ -0,0 +1,10 @@
+-- Pooled id sequences. Sequences restart after the highest id of tables filled by identity columns.
+
+ALTER SEQUENCE lampochky.users_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM lampochky.users);
+ALTER SEQUENCE lampochky.project_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM lampochky.project);
+ALTER SEQUENCE lampochky.user_project_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM lampochky.user_project);
+ALTER SEQUENCE lampochky.list_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM lampochky.list);
+ALTER SEQUENCE lampochky.task_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM lampochky.task);
+ALTER SEQUENCE lampochky.tag_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM lampochky.tag);
+ALTER SEQUENCE lampochky.message_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM lampochky.message);
+ALTER SEQUENCE lampochky.action_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM lampochky.action);
@@ -0,0 +1,16 @@
+-- Indexes on the foreign keys queries filter and join on.
+
+CREATE INDEX IF NOT EXISTS idx_list_project ON lampochky.list (project_id);
+CREATE INDEX IF NOT EXISTS idx_task_list ON lampochky.task (list_id);
+CREATE INDEX IF NOT EXISTS idx_task_assigned_user ON lampochky.task (assigned_user_id);
+CREATE INDEX IF NOT EXISTS idx_task_creator ON lampochky.task (creator_id);
+CREATE INDEX IF NOT EXISTS idx_message_task_time ON lampochky.message (task_id, time, id);
+CREATE INDEX IF NOT EXISTS idx_message_user ON lampochky.message (user_id);
+CREATE INDEX IF NOT EXISTS idx_user_project_user_project ON lampochky.user_project (user_id, project_id);
+CREATE INDEX IF NOT EXISTS idx_user_project_project ON lampochky.user_project (project_id);
+CREATE INDEX IF NOT EXISTS idx_tag_project ON lampochky.tag (project_id);
+CREATE INDEX IF NOT EXISTS idx_tag_task_task_tag ON tag_task (task_id, tag_id);
+CREATE INDEX IF NOT EXISTS idx_tag_task_tag ON tag_task (tag_id);
+CREATE INDEX IF NOT EXISTS idx_action_user ON lampochky.action (user_id);
+CREATE INDEX IF NOT EXISTS idx_action_task ON lampochky.action (task_id);
+CREATE INDEX IF NOT EXISTS idx_action_list ON lampochky.action (list_id);
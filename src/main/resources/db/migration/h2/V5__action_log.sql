@@ -0,0 +1,19 @@
+-- Actions are an append-only audit trail written after the change itself, so they keep
+-- plain ids of the project, list and task instead of foreign keys to rows that may be deleted.
+-- Keys of databases created by Hibernate have generated names and H2 cannot drop a constraint
+-- by a looked up name, so the columns are rebuilt, which drops their keys and indexes.
+
+ALTER TABLE lampochky.action ADD COLUMN task_ref INTEGER;
+ALTER TABLE lampochky.action ADD COLUMN list_ref INTEGER;
+UPDATE lampochky.action SET task_ref = task_id, list_ref = list_id;
+ALTER TABLE lampochky.action DROP COLUMN task_id;
+ALTER TABLE lampochky.action DROP COLUMN list_id;
+ALTER TABLE lampochky.action ALTER COLUMN task_ref RENAME TO task_id;
+ALTER TABLE lampochky.action ALTER COLUMN list_ref RENAME TO list_id;
+CREATE INDEX IF NOT EXISTS idx_action_task ON lampochky.action (task_id);
+CREATE INDEX IF NOT EXISTS idx_action_list ON lampochky.action (list_id);
+
+ALTER TABLE lampochky.action ADD COLUMN IF NOT EXISTS action_type VARCHAR(20);
+ALTER TABLE lampochky.action ADD COLUMN IF NOT EXISTS project_id INTEGER;
+UPDATE lampochky.action SET action_type = 'TASK_UPDATED' WHERE action_type IS NULL;
+ALTER TABLE lampochky.action ALTER COLUMN action_type SET NOT NULL;
@@ -0,0 +1,7 @@
+-- Version of every mutable entity, incremented on each update for optimistic locking.
+
+ALTER TABLE lampochky.project ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE lampochky.list ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE lampochky.task ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE lampochky.tag ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE lampochky.message ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+-- Tasks assigned to a user are listed across projects by due date.
+-- H2 keeps idx_task_assigned_user, it backs the foreign key constraint.
+
+CREATE INDEX IF NOT EXISTS idx_task_assigned_finish ON lampochky.task (assigned_user_id, date_to_finish, id);
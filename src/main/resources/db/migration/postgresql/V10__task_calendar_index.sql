@@ -0,0 +1,4 @@
+-- Calendars read tasks of the lists of a project by due date.
+
+CREATE INDEX IF NOT EXISTS idx_task_list_finish ON lampochky.task (list_id, date_to_finish, id);
+DROP INDEX IF EXISTS lampochky.idx_task_list;
@@ -0,0 +1,22 @@
+-- V5 dropped the foreign keys of actions to tasks and lists by the names V1 gives them.
+-- Databases created by Hibernate before migrations have generated names, so the keys
+-- are looked up by column and dropped whatever they are named.
+
+DO '
+DECLARE
+    foreign_key RECORD;
+BEGIN
+    FOR foreign_key IN
+        SELECT DISTINCT key_constraint.constraint_name
+        FROM information_schema.table_constraints key_constraint
+        JOIN information_schema.key_column_usage key_column
+            ON key_column.constraint_schema = key_constraint.constraint_schema
+            AND key_column.constraint_name = key_constraint.constraint_name
+        WHERE key_constraint.table_schema = ''lampochky''
+            AND key_constraint.table_name = ''action''
+            AND key_constraint.constraint_type = ''FOREIGN KEY''
+            AND key_column.column_name IN (''task_id'', ''list_id'')
+    LOOP
+        EXECUTE format(''ALTER TABLE lampochky.action DROP CONSTRAINT %I'', foreign_key.constraint_name);
+    END LOOP;
+END';
@@ -0,0 +1,99 @@
+-- Baseline schema. Statements are skipped on databases created before migrations were introduced.
+
+CREATE SEQUENCE IF NOT EXISTS lampochky.users_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS lampochky.project_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS lampochky.user_project_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS lampochky.list_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS lampochky.task_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS lampochky.tag_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS lampochky.message_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS lampochky.action_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS lampochky.users (
+    id INTEGER NOT NULL,
+    email VARCHAR(30),
+    password VARCHAR(100),
+    username VARCHAR(20),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE IF NOT EXISTS lampochky.project (
+    id INTEGER NOT NULL,
+    name VARCHAR(20) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS lampochky.user_project (
+    id INTEGER NOT NULL,
+    confirmed BOOLEAN NOT NULL,
+    role INTEGER NOT NULL,
+    project_id INTEGER NOT NULL,
+    user_id INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_user_project_project FOREIGN KEY (project_id) REFERENCES lampochky.project (id),
+    CONSTRAINT fk_user_project_user FOREIGN KEY (user_id) REFERENCES lampochky.users (id)
+);
+
+CREATE TABLE IF NOT EXISTS lampochky.list (
+    id INTEGER NOT NULL,
+    name VARCHAR(20) NOT NULL,
+    project_id INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_list_project FOREIGN KEY (project_id) REFERENCES lampochky.project (id)
+);
+
+CREATE TABLE IF NOT EXISTS lampochky.task (
+    id INTEGER NOT NULL,
+    date_to_finish DATE NOT NULL,
+    date_to_start DATE NOT NULL,
+    description VARCHAR(10000),
+    name VARCHAR(20) NOT NULL,
+    priority INTEGER NOT NULL,
+    assigned_user_id INTEGER,
+    creator_id INTEGER NOT NULL,
+    list_id INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_task_assigned_user FOREIGN KEY (assigned_user_id) REFERENCES lampochky.users (id),
+    CONSTRAINT fk_task_creator FOREIGN KEY (creator_id) REFERENCES lampochky.users (id),
+    CONSTRAINT fk_task_list FOREIGN KEY (list_id) REFERENCES lampochky.list (id)
+);
+
+CREATE TABLE IF NOT EXISTS lampochky.tag (
+    id INTEGER NOT NULL,
+    name VARCHAR(40) NOT NULL,
+    project_id INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_tag_project FOREIGN KEY (project_id) REFERENCES lampochky.project (id)
+);
+
+CREATE TABLE IF NOT EXISTS tag_task (
+    task_id INTEGER NOT NULL,
+    tag_id INTEGER NOT NULL,
+    CONSTRAINT fk_tag_task_tag FOREIGN KEY (tag_id) REFERENCES lampochky.tag (id),
+    CONSTRAINT fk_tag_task_task FOREIGN KEY (task_id) REFERENCES lampochky.task (id)
+);
+
+CREATE TABLE IF NOT EXISTS lampochky.message (
+    id INTEGER NOT NULL,
+    time TIMESTAMP NOT NULL,
+    text VARCHAR(1000) NOT NULL,
+    task_id INTEGER NOT NULL,
+    user_id INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_message_task FOREIGN KEY (task_id) REFERENCES lampochky.task (id),
+    CONSTRAINT fk_message_user FOREIGN KEY (user_id) REFERENCES lampochky.users (id)
+);
+
+CREATE TABLE IF NOT EXISTS lampochky.action (
+    id INTEGER NOT NULL,
+    date TIMESTAMP NOT NULL,
+    task_id INTEGER NOT NULL,
+    list_id INTEGER NOT NULL,
+    user_id INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_action_task FOREIGN KEY (task_id) REFERENCES lampochky.task (id),
+    CONSTRAINT fk_action_list FOREIGN KEY (list_id) REFERENCES lampochky.list (id),
+    CONSTRAINT fk_action_user FOREIGN KEY (user_id) REFERENCES lampochky.users (id)
+);
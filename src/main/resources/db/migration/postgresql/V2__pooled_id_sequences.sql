@@ -0,0 +1,25 @@
+-- Pooled id sequences. Sequences of former serial columns get increment 50 and restart after the highest id.
+
+ALTER SEQUENCE lampochky.users_id_seq INCREMENT BY 50;
+SELECT setval('lampochky.users_id_seq', COALESCE((SELECT MAX(id) FROM lampochky.users), 0) + 50, false);
+
+ALTER SEQUENCE lampochky.project_id_seq INCREMENT BY 50;
+SELECT setval('lampochky.project_id_seq', COALESCE((SELECT MAX(id) FROM lampochky.project), 0) + 50, false);
+
+ALTER SEQUENCE lampochky.user_project_id_seq INCREMENT BY 50;
+SELECT setval('lampochky.user_project_id_seq', COALESCE((SELECT MAX(id) FROM lampochky.user_project), 0) + 50, false);
+
+ALTER SEQUENCE lampochky.list_id_seq INCREMENT BY 50;
+SELECT setval('lampochky.list_id_seq', COALESCE((SELECT MAX(id) FROM lampochky.list), 0) + 50, false);
+
+ALTER SEQUENCE lampochky.task_id_seq INCREMENT BY 50;
+SELECT setval('lampochky.task_id_seq', COALESCE((SELECT MAX(id) FROM lampochky.task), 0) + 50, false);
+
+ALTER SEQUENCE lampochky.tag_id_seq INCREMENT BY 50;
+SELECT setval('lampochky.tag_id_seq', COALESCE((SELECT MAX(id) FROM lampochky.tag), 0) + 50, false);
+
+ALTER SEQUENCE lampochky.message_id_seq INCREMENT BY 50;
+SELECT setval('lampochky.message_id_seq', COALESCE((SELECT MAX(id) FROM lampochky.message), 0) + 50, false);
+
+ALTER SEQUENCE lampochky.action_id_seq INCREMENT BY 50;
+SELECT setval('lampochky.action_id_seq', COALESCE((SELECT MAX(id) FROM lampochky.action), 0) + 50, false);
@@ -0,0 +1,26 @@
+-- Revision of every project and the log of entities changed under each revision.
+
+CREATE SEQUENCE IF NOT EXISTS lampochky.project_change_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS lampochky.project_revision (
+    project_id INTEGER NOT NULL,
+    revision BIGINT NOT NULL,
+    PRIMARY KEY (project_id),
+    CONSTRAINT fk_project_revision_project FOREIGN KEY (project_id) REFERENCES lampochky.project (id) ON DELETE CASCADE
+);
+
+INSERT INTO lampochky.project_revision (project_id, revision)
+SELECT id, 0 FROM lampochky.project;
+
+CREATE TABLE IF NOT EXISTS lampochky.project_change (
+    id BIGINT NOT NULL,
+    project_id INTEGER NOT NULL,
+    revision BIGINT NOT NULL,
+    entity_type VARCHAR(10) NOT NULL,
+    entity_id INTEGER NOT NULL,
+    deleted BOOLEAN NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_project_change_project FOREIGN KEY (project_id) REFERENCES lampochky.project (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_project_change_project_revision ON lampochky.project_change (project_id, revision);
@@ -0,0 +1,12 @@
+-- Actions are an append-only audit trail written after the change itself, so they keep
+-- plain ids of the project, list and task instead of foreign keys to rows that may be deleted.
+
+ALTER TABLE lampochky.action DROP CONSTRAINT IF EXISTS fk_action_task;
+ALTER TABLE lampochky.action DROP CONSTRAINT IF EXISTS fk_action_list;
+ALTER TABLE lampochky.action ALTER COLUMN task_id DROP NOT NULL;
+ALTER TABLE lampochky.action ALTER COLUMN list_id DROP NOT NULL;
+
+ALTER TABLE lampochky.action ADD COLUMN IF NOT EXISTS action_type VARCHAR(20);
+ALTER TABLE lampochky.action ADD COLUMN IF NOT EXISTS project_id INTEGER;
+UPDATE lampochky.action SET action_type = 'TASK_UPDATED' WHERE action_type IS NULL;
+ALTER TABLE lampochky.action ALTER COLUMN action_type SET NOT NULL;
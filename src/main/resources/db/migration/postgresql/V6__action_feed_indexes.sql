@@ -0,0 +1,5 @@
+-- Activity feeds read actions of a project or a task by date, newest first.
+
+CREATE INDEX IF NOT EXISTS idx_action_project_date ON lampochky.action (project_id, date, id);
+CREATE INDEX IF NOT EXISTS idx_action_task_date ON lampochky.action (task_id, date, id);
+DROP INDEX IF EXISTS lampochky.idx_action_task;
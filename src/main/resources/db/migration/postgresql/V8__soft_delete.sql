@@ -0,0 +1,7 @@
+-- Deleted projects and lists are hidden at once and purged later in the background.
+
+ALTER TABLE lampochky.project ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+ALTER TABLE lampochky.list ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_project_deleted ON lampochky.project (deleted_at) WHERE deleted_at IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_list_deleted ON lampochky.list (deleted_at) WHERE deleted_at IS NOT NULL;
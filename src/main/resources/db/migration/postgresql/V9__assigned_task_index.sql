@@ -0,0 +1,4 @@
+-- Tasks assigned to a user are listed across projects by due date.
+
+CREATE INDEX IF NOT EXISTS idx_task_assigned_finish ON lampochky.task (assigned_user_id, date_to_finish, id);
+DROP INDEX IF EXISTS lampochky.idx_task_assigned_user;
@@ -0,0 +1,155 @@
+package com.lampochky.test.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.lampochky.Application;
+import com.lampochky.config.security.UserSecurity;
+import com.lampochky.database.entity.*;
+import com.lampochky.database.repository.ActionRepository;
+import com.lampochky.database.service.*;
+import com.lampochky.test.crud.AbstractCrudTest;
+import com.lampochky.validation.Error;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@TestPropertySource(locations = "classpath:application-test.properties")
+@SpringBootTest(classes = Application.class)
+public class ActionFeedTest extends AbstractCrudTest {
+    private final ActionRepository actionRepository;
+
+    @Autowired
+    public ActionFeedTest(WebApplicationContext context,
+                          UserService userService,
+                          ProjectService projectService,
+                          UserProjectService userProjectService,
+                          ListService listService,
+                          TaskService taskService,
+                          TagService tagService,
+                          MessageService messageService,
+                          ActionRepository actionRepository) {
+        super(context, userService, projectService, userProjectService,
+                listService, taskService, tagService, messageService);
+        this.actionRepository = actionRepository;
+    }
+
+    /**
+     * Actions of a task in the project, one per day from the oldest to the newest.
+     */
+    private List<Action> createActions(User user, Project project, int count) {
+        List<Action> actions = new ArrayList<>();
+        LocalDateTime start = LocalDate.now().minusDays(count).atTime(12, 0);
+        for(int i = 0; i < count; ++i) {
+            actions.add(new Action(start.plusDays(i), user, ActionType.TASK_UPDATED, project.getId(), 1, 1000 + project.getId()));
+        }
+        return actionRepository.saveAll(actions);
+    }
+
+    @Test
+    @DisplayName("the feed is read page by page from the newest action")
+    public void getAllInProject_pages() throws Exception {
+        User user = userService.save(new User("feed_1", "Test1", "feed_1@gmail.com"));
+        Project project = createProject(user, UserRole.GUEST);
+        List<Action> actions = createActions(user, project, 5);
+
+        String response = mvc.perform(get("/data/action/in_project").param("id", project.getId().toString())
+                        .param("limit", "2").with(user(new UserSecurity(user))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.actions[*].id", contains(actions.get(3).getId(), actions.get(4).getId())))
+                .andExpect(jsonPath("$.hasMore", is(true)))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = mapper.readTree(response).get("cursor").asText();
+        response = mvc.perform(get("/data/action/in_project").param("id", project.getId().toString())
+                        .param("limit", "2").param("cursor", cursor).with(user(new UserSecurity(user))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.actions[*].id", contains(actions.get(1).getId(), actions.get(2).getId())))
+                .andReturn().getResponse().getContentAsString();
+        cursor = mapper.readTree(response).get("cursor").asText();
+        mvc.perform(get("/data/action/in_project").param("id", project.getId().toString())
+                        .param("limit", "2").param("cursor", cursor).with(user(new UserSecurity(user))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.actions[*].id", contains(actions.get(0).getId())))
+                .andExpect(jsonPath("$.hasMore", is(false)));
+
+        mvc.perform(get("/data/action/in_project").param("id", project.getId().toString())
+                        .param("cursor", "malformed").with(user(new UserSecurity(user))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[*].errName", contains(Error.CURSOR_INVALID.name())));
+    }
+
+    @Test
+    @DisplayName("the history of a deleted task is read through the project of its actions")
+    public void getAllInTask_deletedTask() throws Exception {
+        User user = userService.save(new User("feed_4", "Test1", "feed_4@gmail.com"));
+        User stranger = userService.save(new User("feed_5", "Test1", "feed_5@gmail.com"));
+        Project project = createProject(user, UserRole.GUEST);
+        List<Action> actions = createActions(user, project, 2);
+        Integer taskId = actions.get(0).getTaskId();
+
+        mvc.perform(get("/data/action/in_task").param("id", taskId.toString())
+                        .with(user(new UserSecurity(user))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.actions[*].id", contains(actions.get(0).getId(), actions.get(1).getId())));
+        mvc.perform(get("/data/action/in_task").param("id", taskId.toString())
+                        .with(user(new UserSecurity(stranger))))
+                .andExpect(status().isForbidden());
+        mvc.perform(get("/data/action/in_task").param("id", String.valueOf(taskId + 100000))
+                        .with(user(new UserSecurity(user))))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errors[*].errName", contains(Error.TASK_NOT_FOUND.name())));
+    }
+
+    @Test
+    @DisplayName("admins export actions of a period as json lines")
+    public void exportInProject() throws Exception {
+        User admin = userService.save(new User("feed_2", "Test1", "feed_2@gmail.com"));
+        User guest = userService.save(new User("feed_3", "Test1", "feed_3@gmail.com"));
+        Project project = createProject(admin, UserRole.ADMIN);
+        userProjectService.save(new UserProject(null, UserRole.GUEST, true, guest, project));
+        List<Action> actions = createActions(admin, project, 5);
+        String from = LocalDate.now().minusDays(4).format(dateFormat);
+        String to = LocalDate.now().minusDays(2).format(dateFormat);
+
+        MvcResult result = mvc.perform(get("/data/action/in_project/export").param("id", project.getId().toString())
+                        .param("from", from).param("to", to).with(user(new UserSecurity(admin))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String content = mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", startsWith("application/x-ndjson")))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = content.trim().split("\n");
+        Assertions.assertEquals(3, lines.length);
+        for(int i = 0; i < lines.length; ++i) {
+            JsonNode line = mapper.readTree(lines[i]);
+            Assertions.assertEquals(actions.get(i + 1).getId(), line.get("id").asInt());
+            Assertions.assertEquals(ActionType.TASK_UPDATED.name(), line.get("type").asText());
+            Assertions.assertEquals(admin.getId(), line.get("userId").asInt());
+        }
+
+        mvc.perform(get("/data/action/in_project/export").param("id", project.getId().toString())
+                        .param("from", from).param("to", to).with(user(new UserSecurity(guest))))
+                .andExpect(status().isForbidden());
+        result = mvc.perform(get("/data/action/in_project/export").param("id", project.getId().toString())
+                        .param("from", to).param("to", from).with(user(new UserSecurity(admin))))
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[*].errName", contains(Error.PERIOD_INVALID.name())));
+    }
+}
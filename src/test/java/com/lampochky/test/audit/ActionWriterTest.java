@@ -0,0 +1,138 @@
+package com.lampochky.test.audit;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lampochky.Application;
+import com.lampochky.config.security.UserSecurity;
+import com.lampochky.database.entity.*;
+import com.lampochky.database.repository.ActionRepository;
+import com.lampochky.database.service.*;
+import com.lampochky.test.crud.AbstractCrudTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(locations = "classpath:application-test.properties")
+@SpringBootTest(classes = Application.class)
+public class ActionWriterTest extends AbstractCrudTest {
+    private final ActionRepository actionRepository;
+
+    @Autowired
+    public ActionWriterTest(WebApplicationContext context,
+                            UserService userService,
+                            ProjectService projectService,
+                            UserProjectService userProjectService,
+                            ListService listService,
+                            TaskService taskService,
+                            TagService tagService,
+                            MessageService messageService,
+                            ActionRepository actionRepository) {
+        super(context, userService, projectService, userProjectService,
+                listService, taskService, tagService, messageService);
+        this.actionRepository = actionRepository;
+    }
+
+    private List<ActionType> awaitActions(Project project, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        List<ActionType> types;
+        do {
+            Thread.sleep(50);
+            types = actionRepository.findAll().stream()
+                    .filter(action -> project.getId().equals(action.getProjectId()))
+                    .sorted((a, b) -> a.getId().compareTo(b.getId()))
+                    .map(Action::getType)
+                    .collect(Collectors.toList());
+        } while(types.size() < count && System.currentTimeMillis() < deadline);
+        return types;
+    }
+
+    @Test
+    @DisplayName("list and task changes are recorded after the request")
+    public void changes_recorded() throws Exception {
+        User user = userService.save(new User("actions_1", "Test1", "actions_1@gmail.com"));
+        Project project = projectService.save(new Project(null, "actions"));
+        userProjectService.save(new UserProject(null, UserRole.ADMIN, true, user, project));
+
+        ObjectNode listRequest = mapper.createObjectNode()
+                .put("name", "actions")
+                .put("projectId", project.getId());
+        String listResponse = mvc.perform(post("/data/list").contentType(MediaType.APPLICATION_JSON)
+                        .content(listRequest.toString()).with(user(new UserSecurity(user))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        int listId = mapper.readTree(listResponse).at("/list/id").asInt();
+
+        DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+        ObjectNode taskRequest = mapper.createObjectNode()
+                .put("name", "task")
+                .put("dateToStart", LocalDate.now().format(dateFormat))
+                .put("dateToFinish", LocalDate.now().plusDays(1).format(dateFormat))
+                .put("priority", 1)
+                .put("description", "description")
+                .put("listId", listId)
+                .putNull("assignedUserId");
+        taskRequest.putArray("tagIds");
+        String taskResponse = mvc.perform(post("/data/task").contentType(MediaType.APPLICATION_JSON)
+                        .content(taskRequest.toString()).with(user(new UserSecurity(user))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        int taskId = mapper.readTree(taskResponse).at("/task/id").asInt();
+        mvc.perform(delete("/data/task/{id}", taskId).with(user(new UserSecurity(user))))
+                .andExpect(status().isOk());
+
+        Assertions.assertEquals(Arrays.asList(ActionType.LIST_CREATED, ActionType.TASK_CREATED,
+                ActionType.TASK_DELETED), awaitActions(project, 3));
+        Action deleted = actionRepository.findAll().stream()
+                .filter(action -> action.getType() == ActionType.TASK_DELETED
+                        && project.getId().equals(action.getProjectId()))
+                .findFirst().get();
+        Assertions.assertEquals(taskId, deleted.getTaskId());
+        Assertions.assertEquals(listId, deleted.getListId());
+    }
+
+    @Test
+    @DisplayName("actions beyond the capacity are dropped and queued ones are written on shutdown")
+    public void queueFull_dropped() throws Exception {
+        ActionRepository repository = Mockito.mock(ActionRepository.class);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(repository.saveAll(Mockito.anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return invocation.getArgument(0);
+        });
+        ActionWriter writer = new ActionWriter(repository, Mockito.mock(PlatformTransactionManager.class),
+                1, 1, 0, 0);
+        User user = new User("actions_2", "Test1", "actions_2@gmail.com");
+        user.setId(-1);
+
+        Assertions.assertTrue(writer.offer(new Action(LocalDateTime.now(), user, ActionType.TASK_CREATED, 1, 1, 1)));
+        writing.await();
+        Assertions.assertTrue(writer.offer(new Action(LocalDateTime.now(), user, ActionType.TASK_UPDATED, 1, 1, 1)));
+        Assertions.assertFalse(writer.offer(new Action(LocalDateTime.now(), user, ActionType.TASK_DELETED, 1, 1, 1)));
+
+        release.countDown();
+        writer.destroy();
+        Assertions.assertEquals(0, writer.getQueueSize());
+        Mockito.verify(repository, Mockito.times(2)).saveAll(Mockito.anyList());
+    }
+}
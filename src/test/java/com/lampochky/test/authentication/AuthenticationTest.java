@@ -6,7 +6,9 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.lampochky.Application;
 import com.lampochky.database.entity.User;
 import com.lampochky.database.service.UserService;
+import com.lampochky.config.security.JwtClaims;
 import com.lampochky.config.security.JwtTokenProvider;
+import com.lampochky.config.security.UserSecurity;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -15,11 +17,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Date;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.*;
@@ -363,4 +367,78 @@ public class AuthenticationTest {
                 .andExpect(status().is4xxClientError());
     }
 
+    @Test
+    @Tag("authorization")
+    @DisplayName("Claims of a valid token are verified once and cached")
+    public void jwtClaimsCached_success() {
+        String token = provider.createToken("test_email@gmail.com");
+        Optional<JwtClaims> first = provider.resolveClaims(token);
+        Optional<JwtClaims> second = provider.resolveClaims(token);
+
+        Assertions.assertTrue(first.isPresent());
+        Assertions.assertEquals("test_email@gmail.com", first.get().getEmail());
+        Assertions.assertSame(first.get(), second.orElse(null));
+    }
+
+    @Test
+    @Tag("authorization")
+    @DisplayName("Claims of a token with broken signature are not resolved")
+    public void jwtClaimsWrongSignature_fail() {
+        String token = provider.createToken("test_email@gmail.com");
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        String brokenSignature = new StringBuilder(signature).reverse().toString();
+        Assumptions.assumeFalse(signature.equals(brokenSignature), "signature is a palindrome");
+        String brokenToken = token.substring(0, token.lastIndexOf('.') + 1) + brokenSignature;
+
+        Assertions.assertFalse(provider.resolveClaims(brokenToken).isPresent());
+    }
+
+    @Test
+    @Tag("authorization")
+    @DisplayName("Principal is built from the token of a registered user")
+    public void jwtLightweightPrincipal_success() {
+        User user = userService.findByEmail("test_email@gmail.com").orElse(null);
+        Assumptions.assumeTrue(user != null, "user is not found in the db");
+        String token = provider.createToken(user);
+        JwtClaims claims = provider.resolveClaims(token).orElse(null);
+
+        Assertions.assertNotNull(claims);
+        Assertions.assertEquals(user.getId(), claims.getUserId());
+        Authentication authentication = provider.getAuthentication(claims);
+        User principal = ((UserSecurity) authentication.getPrincipal()).getUser();
+        Assertions.assertEquals(user, principal);
+        Assertions.assertEquals(user.getUsername(), principal.getUsername());
+        Assertions.assertEquals(user.getEmail(), principal.getEmail());
+    }
+
+    @Test
+    @Tag("authorization")
+    @DisplayName("Token of a deleted or changed user is rejected")
+    public void jwtLightweightPrincipal_fail_userChanged() throws Exception {
+        User changed = userService.save(new User("changed_name", "test_pwd", "changed_email@gmail.com"));
+        User deleted = userService.save(new User("deleted_name", "test_pwd", "deleted_email@gmail.com"));
+        String changedToken = provider.createToken(changed);
+        String deletedToken = provider.createToken(deleted);
+        mockMvc.perform(get("/data/project/all")
+                        .header("Authorization", "Bearer_" + changedToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/data/project/all")
+                        .header("Authorization", "Bearer_" + deletedToken))
+                .andExpect(status().isOk());
+
+        changed.setEmail("renamed_email@gmail.com");
+        changed.setPassword("test_pwd");
+        userService.save(changed);
+        userService.delete(deleted);
+
+        mockMvc.perform(get("/data/project/all")
+                        .header("Authorization", "Bearer_" + changedToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/data/project/all")
+                        .header("Authorization", "Bearer_" + deletedToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/data/project/all")
+                        .header("Authorization", "Bearer_" + provider.createToken(changed)))
+                .andExpect(status().isOk());
+    }
 }
@@ -0,0 +1,56 @@
+package com.lampochky.test.config;
+
+import com.lampochky.config.ReadWriteRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+public class ReadWriteRoutingDataSourceTest {
+    private final Connection writeConnection = Mockito.mock(Connection.class);
+    private final Connection readConnection = Mockito.mock(Connection.class);
+    private final DataSource dataSource;
+
+    public ReadWriteRoutingDataSourceTest() throws SQLException {
+        DataSource writeDataSource = Mockito.mock(DataSource.class);
+        DataSource readDataSource = Mockito.mock(DataSource.class);
+        Mockito.when(writeDataSource.getConnection()).thenReturn(writeConnection);
+        Mockito.when(readDataSource.getConnection()).thenReturn(readConnection);
+        dataSource = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(writeDataSource, readDataSource));
+        Mockito.clearInvocations(writeConnection);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("connections outside of read-only transactions go to the write pool")
+    public void getConnection_write() throws SQLException {
+        try(Connection connection = dataSource.getConnection()) {
+            connection.createStatement();
+        }
+        Mockito.verify(writeConnection).createStatement();
+        Mockito.verifyNoInteractions(readConnection);
+    }
+
+    @Test
+    @DisplayName("connections taken before a transaction is marked read-only go to the read pool")
+    public void getConnection_read() throws SQLException {
+        try(Connection connection = dataSource.getConnection()) {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            connection.createStatement();
+        }
+        Mockito.verify(readConnection).createStatement();
+        Mockito.verifyNoInteractions(writeConnection);
+    }
+}
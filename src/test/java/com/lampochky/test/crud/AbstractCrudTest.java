@@ -62,6 +62,12 @@ public abstract class AbstractCrudTest {
                 .build();
     }
 
+    protected Project createProject(User user, UserRole role) {
+        Project project = projectService.save(new Project(null, "project"));
+        userProjectService.save(new UserProject(null, role, true, user, project));
+        return project;
+    }
+
     protected boolean roleGreaterOrEquals(UserProject relation, UserRole role){
         return relation != null && relation.getConfirmed() && relation.getRole().greaterOrEquals(role);
     }
@@ -159,4 +165,5 @@ public abstract class AbstractCrudTest {
 
 
 
+
 }
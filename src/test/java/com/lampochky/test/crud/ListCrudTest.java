@@ -139,7 +139,7 @@ public class ListCrudTest extends AbstractCrudTest {
         final Integer projectId = 1;
         User user = getUserByEmail(userEmail);
         Project project = getProjectById(projectId);
-        List<TaskList> lists = project.getLists();
+        List<TaskList> lists = listService.findAllInProject(project);
         checkIfUserRoleGreaterOrEquals(user, project, UserRole.GUEST);
 
         mvc.perform(get("/data/list/in_project")
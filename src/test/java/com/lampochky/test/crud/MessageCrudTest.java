@@ -207,6 +207,69 @@ public class MessageCrudTest extends AbstractCrudTest {
                 .andExpect(jsonPath("$.messages", emptyIterable()));
     }
 
+    @Test
+    @Order(1)
+    @DisplayName("successfully page through messages in a task")
+    public void getMessagesInTask_success_pagination() throws Exception{
+        final Integer taskId = 1;
+        final String userEmail = "admin@gmail.com";
+        User user = getUserByEmail(userEmail);
+        Task task = getTaskById(taskId);
+        checkIfUserRoleGreaterOrEquals(user, task.getList().getProject(), UserRole.GUEST);
+        List<Integer> ids = messageService.findAllInTaskSortByDate(task).stream()
+                .map(Message::getId).collect(Collectors.toList());
+        Assumptions.assumeTrue(ids.size() == 3, "task must have exactly 3 messages");
+
+        String response = mvc.perform(get("/data/message/in_task")
+                    .param("id", taskId.toString())
+                    .param("limit", "2")
+                    .with( user(new UserSecurity(user)) ))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success", is(true)))
+                .andExpect(jsonPath("$.messages[*].id", contains(ids.get(1), ids.get(2)) ))
+                .andExpect(jsonPath("$.hasMore", is(true)))
+                .andReturn().getResponse().getContentAsString();
+        String oldestCursor = mapper.readTree(response).get("oldestCursor").asText();
+
+        response = mvc.perform(get("/data/message/in_task")
+                    .param("id", taskId.toString())
+                    .param("limit", "2")
+                    .param("cursor", oldestCursor)
+                    .with( user(new UserSecurity(user)) ))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.messages[*].id", contains(ids.get(0)) ))
+                .andExpect(jsonPath("$.hasMore", is(false)))
+                .andReturn().getResponse().getContentAsString();
+        String newestCursor = mapper.readTree(response).get("newestCursor").asText();
+
+        mvc.perform(get("/data/message/in_task")
+                    .param("id", taskId.toString())
+                    .param("direction", "newer")
+                    .param("cursor", newestCursor)
+                    .with( user(new UserSecurity(user)) ))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.messages[*].id", contains(ids.get(1), ids.get(2)) ))
+                .andExpect(jsonPath("$.hasMore", is(false)));
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("failure to get messages in a task (cursor is malformed)")
+    public void getMessagesInTask_fail_cursorInvalid() throws Exception{
+        final Integer taskId = 1;
+        final String userEmail = "admin@gmail.com";
+        User user = getUserByEmail(userEmail);
+
+        mvc.perform(get("/data/message/in_task")
+                    .param("id", taskId.toString())
+                    .param("cursor", "not-a-cursor")
+                    .with( user(new UserSecurity(user)) ))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success", is(false)))
+                .andExpect(jsonPath("$.errors[*].errName", containsInAnyOrder(Error.CURSOR_INVALID.name()) ))
+                .andExpect(jsonPath("$.messages", emptyIterable()));
+    }
+
     @ParameterizedTest(name = "#{index} {0}")
     @MethodSource("participants")
     @Order(2)
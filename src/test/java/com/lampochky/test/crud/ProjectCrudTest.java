@@ -88,9 +88,9 @@ public class ProjectCrudTest extends AbstractCrudTest {
                 .andExpect(jsonPath("$.project.id", is(id)))
                 .andExpect(jsonPath("$.project.name", is(project.getName())))
                 .andExpect(jsonPath("$.project.lists[*].id",
-                        containsInAnyOrder(project.getLists().stream().map(TaskList::getId).toArray()) ))
+                        containsInAnyOrder(listService.findAllInProject(project).stream().map(TaskList::getId).toArray()) ))
                 .andExpect(jsonPath("$.project.users[*].id",
-                        containsInAnyOrder(project.getUsers().stream().map(up -> up.getUser().getId()).toArray()) ));
+                        containsInAnyOrder(userProjectService.findAllInProject(project).stream().map(up -> up.getUser().getId()).toArray()) ));
     }
 
     @Test
@@ -180,9 +180,10 @@ public class ProjectCrudTest extends AbstractCrudTest {
 
         Assertions.assertNotNull(project);
         Assertions.assertEquals(name, project.getName());
+        List<UserProject> members = userProjectService.findAllInProject(project);
         Assertions.assertIterableEquals(Collections.singletonList(user),
-                project.getUsers().stream().map(UserProject::getUser).collect(Collectors.toList()));
-        Assertions.assertEquals(UserRole.ADMIN, project.getUsers().get(0).getRole());
+                members.stream().map(UserProject::getUser).collect(Collectors.toList()));
+        Assertions.assertEquals(UserRole.ADMIN, members.get(0).getRole());
     }
 
     public static Stream<Arguments> projectInvalidData(){
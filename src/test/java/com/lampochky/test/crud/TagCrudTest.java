@@ -141,7 +141,7 @@ public class TagCrudTest extends AbstractCrudTest {
         final Integer projectId = 1;
         User user = getUserByEmail(userEmail);
         Project project = getProjectById(projectId);
-        List<Tag> tags = project.getTags();
+        List<Tag> tags = tagService.findAllInProject(project);
         checkIfUserRoleGreaterOrEquals(user, project, UserRole.GUEST);
 
         mvc.perform(get("/data/tag/in_project")
@@ -1,9 +1,12 @@
 package com.lampochky.test.crud;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.lampochky.Application;
 import com.lampochky.config.security.UserSecurity;
+import com.lampochky.database.entity.Project;
+import com.lampochky.database.entity.Tag;
 import com.lampochky.database.entity.Task;
 import com.lampochky.database.entity.TaskList;
 import com.lampochky.database.entity.User;
@@ -23,6 +26,8 @@ import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -200,7 +205,7 @@ public class TaskCrudTest extends AbstractCrudTest {
         final Integer listId = 1;
         User user = getUserByEmail(userEmail);
         TaskList taskList = getListById(listId);
-        List<Task> tasks = taskList.getTasks();
+        List<Task> tasks = taskService.findAllInList(taskList);
         checkIfUserRoleGreaterOrEquals(user, taskList.getProject(), UserRole.GUEST);
 
         ResultActions resultActions = mvc.perform(get("/data/task/in_list")
@@ -254,6 +259,101 @@ public class TaskCrudTest extends AbstractCrudTest {
                 .andExpect(jsonPath("$.tasks", emptyIterable()));
     }
 
+    @Test
+    @Order(1)
+    @DisplayName("successfully get filtered and sorted tasks in the list")
+    public void getAllTasksInTheList_success_filtered() throws Exception{
+        final Integer listId = 1;
+        final String userEmail = "admin@gmail.com";
+        User user = getUserByEmail(userEmail);
+        User dev = getUserByEmail("dev@gmail.com");
+        TaskList taskList = getListById(listId);
+        checkIfUserRoleGreaterOrEquals(user, taskList.getProject(), UserRole.GUEST);
+        List<Task> tasks = taskService.findAllInList(taskList);
+        Assumptions.assumeTrue(tasks.size() == 3, "list must have exactly 3 tasks");
+
+        mvc.perform(get("/data/task/in_list")
+                    .param("id", listId.toString())
+                    .param("assignedUserId", dev.getId().toString())
+                    .param("sort", "priority")
+                    .param("order", "desc")
+                    .with( user(new UserSecurity(user)) ))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks[*].name", contains("task_3", "task_1") ))
+                .andExpect(jsonPath("$.totalElements", is(2)));
+
+        mvc.perform(get("/data/task/in_list")
+                    .param("id", listId.toString())
+                    .param("from", LocalDate.now().format(dateFormat))
+                    .param("minPriority", "2")
+                    .with( user(new UserSecurity(user)) ))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks[*].name", contains("task_2") ));
+
+        mvc.perform(get("/data/task/in_list")
+                    .param("id", listId.toString())
+                    .param("tagId", String.valueOf(Integer.MAX_VALUE))
+                    .with( user(new UserSecurity(user)) ))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", emptyIterable()))
+                .andExpect(jsonPath("$.totalElements", is(0)));
+
+        mvc.perform(get("/data/task/in_list")
+                    .param("id", listId.toString())
+                    .param("sort", "priority")
+                    .param("page", "1")
+                    .param("size", "1")
+                    .with( user(new UserSecurity(user)) ))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks[*].name", contains("task_2") ))
+                .andExpect(jsonPath("$.tasks[0].messages", emptyIterable()))
+                .andExpect(jsonPath("$.page", is(1)))
+                .andExpect(jsonPath("$.totalElements", is(3)))
+                .andExpect(jsonPath("$.totalPages", is(3)));
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("successfully get all tasks in the project")
+    public void getAllTasksInTheProject_success() throws Exception{
+        final Integer listId = 1;
+        final String userEmail = "guest@gmail.com";
+        User user = getUserByEmail(userEmail);
+        TaskList taskList = getListById(listId);
+        checkIfUserRoleGreaterOrEquals(user, taskList.getProject(), UserRole.GUEST);
+        List<Task> tasks = taskService.findByProject(taskList.getProject());
+
+        ResultActions resultActions = mvc.perform(get("/data/task/in_project")
+                    .param("id", taskList.getProject().getId().toString())
+                    .param("messages", "true")
+                    .with( user(new UserSecurity(user)) ))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success", is(true)))
+                .andExpect(jsonPath("$.projectId", is(taskList.getProject().getId())))
+                .andExpect(jsonPath("$.totalElements", is(tasks.size())));
+        testListOfTaskDtos(resultActions, tasks);
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("failure to get tasks in the list (sort is invalid)")
+    public void getAllTasksInTheList_fail_sortInvalid() throws Exception{
+        final Integer listId = 1;
+        final String userEmail = "admin@gmail.com";
+        User user = getUserByEmail(userEmail);
+
+        mvc.perform(get("/data/task/in_list")
+                    .param("id", listId.toString())
+                    .param("sort", "description")
+                    .param("page", "-1")
+                    .with( user(new UserSecurity(user)) ))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success", is(false)))
+                .andExpect(jsonPath("$.errors[*].errName",
+                        containsInAnyOrder(Error.SORT_INVALID.name(), Error.PAGE_INVALID.name())))
+                .andExpect(jsonPath("$.tasks", emptyIterable()));
+    }
+
     protected static ObjectNode buildValidTaskRequest(ObjectMapper mapper){
         ObjectNode node = mapper.createObjectNode()
                 .put("name", "new_task")
@@ -326,6 +426,192 @@ public class TaskCrudTest extends AbstractCrudTest {
         Assertions.assertNotNull(task);
     }
 
+    @Test
+    @Order(2)
+    @DisplayName("failure to create a task (tags are not found in the project)")
+    public void createTask_fail_tagsNotFound() throws Exception{
+        final String userEmail = "admin@gmail.com";
+        User user = getUserByEmail(userEmail);
+        ObjectNode request = buildValidTaskRequest(mapper);
+        TaskList taskList = getListById(request.get("listId").asInt());
+        checkIfUserRoleGreaterOrEquals(user, taskList.getProject(), UserRole.DEVELOPER);
+        Tag tag = tagService.save(new Tag("task_tag", taskList.getProject()));
+        Project otherProject = projectService.save(new Project(null, "other_project"));
+        Tag otherTag = tagService.save(new Tag("other_tag", otherProject));
+        final Integer missingTagId = 1000;
+        checkIfTagDoesNotExist(missingTagId);
+        request.putArray("tagIds").add(tag.getId()).add(missingTagId).add(otherTag.getId());
+
+        mvc.perform(post("/data/task/")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(request.toString())
+                    .with( user(new UserSecurity(user)) ))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success", is(false)))
+                .andExpect(jsonPath("$.errors[*].errName", containsInAnyOrder(Error.TAG_NOT_FOUND.name()) ))
+                .andExpect(jsonPath("$.missingTagIds", contains(missingTagId, otherTag.getId()) ))
+                .andExpect(jsonPath("$.task", nullValue()));
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("successfully create, move, update and delete tasks in batches")
+    public void batch_success() throws Exception{
+        final String userEmail = "admin@gmail.com";
+        User user = getUserByEmail(userEmail);
+        TaskList taskList = getListById(1);
+        TaskList otherList = getListById(2);
+        checkIfUserRoleGreaterOrEquals(user, taskList.getProject(), UserRole.DEVELOPER);
+
+        ObjectNode request = mapper.createObjectNode();
+        request.putArray("operations")
+                .add(buildValidTaskRequest(mapper).put("type", "create").put("name", "batch_1"))
+                .add(buildValidTaskRequest(mapper).put("type", "create").put("name", "batch_2"));
+        String response = mvc.perform(post("/data/task/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(request.toString())
+                    .with( user(new UserSecurity(user)) ))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success", is(true)))
+                .andExpect(jsonPath("$.results[*].success", contains(true, true) ))
+                .andExpect(jsonPath("$.results[*].task.name", contains("batch_1", "batch_2") ))
+                .andReturn().getResponse().getContentAsString();
+        Integer firstId = mapper.readTree(response).at("/results/0/task/id").asInt();
+        Integer secondId = mapper.readTree(response).at("/results/1/task/id").asInt();
+
+        request = mapper.createObjectNode();
+        request.putArray("operations")
+                .add(mapper.createObjectNode().put("type", "move").put("id", firstId)
+                        .put("listId", otherList.getId()))
+                .add(buildValidTaskRequest(mapper).put("type", "update").put("id", secondId)
+                        .put("name", "batch_2").put("priority", 5));
+        mvc.perform(post("/data/task/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(request.toString())
+                    .with( user(new UserSecurity(user)) ))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].task.listId", is(otherList.getId()) ))
+                .andExpect(jsonPath("$.results[1].task.priority", is(5) ));
+        Assertions.assertEquals(otherList.getId(), getTaskById(firstId).getList().getId());
+        Assertions.assertEquals(5, getTaskById(secondId).getPriority());
+
+        request = mapper.createObjectNode();
+        request.putArray("operations")
+                .add(mapper.createObjectNode().put("type", "delete").put("id", firstId))
+                .add(mapper.createObjectNode().put("type", "delete").put("id", secondId));
+        mvc.perform(post("/data/task/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(request.toString())
+                    .with( user(new UserSecurity(user)) ))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[*].task.id", contains(firstId, secondId) ));
+        checkIfTaskDoesNotExist(firstId);
+        checkIfTaskDoesNotExist(secondId);
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("failure to apply a batch (some operations are invalid)")
+    public void batch_fail_invalidOperations() throws Exception{
+        final String userEmail = "dev@gmail.com";
+        final Integer missingTaskId = 1000;
+        User user = getUserByEmail(userEmail);
+        checkIfTaskDoesNotExist(missingTaskId);
+        int tasksBefore = taskService.findAll().size();
+
+        ObjectNode request = mapper.createObjectNode();
+        request.putArray("operations")
+                .add(buildValidTaskRequest(mapper).put("type", "create"))
+                .add(mapper.createObjectNode().put("type", "delete").put("id", missingTaskId))
+                .add(mapper.createObjectNode().put("type", "archive").put("id", 1));
+        mvc.perform(post("/data/task/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(request.toString())
+                    .with( user(new UserSecurity(user)) ))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.success", is(false)))
+                .andExpect(jsonPath("$.errors[*].errName", containsInAnyOrder(Error.BATCH_FAILED.name()) ))
+                .andExpect(jsonPath("$.results[*].success", contains(true, false, false) ))
+                .andExpect(jsonPath("$.results[1].errors[*].errName",
+                        containsInAnyOrder(Error.TASK_NOT_FOUND.name()) ))
+                .andExpect(jsonPath("$.results[2].errors[*].errName",
+                        containsInAnyOrder(Error.OPERATION_TYPE_INVALID.name()) ));
+
+        Assertions.assertEquals(tasksBefore, taskService.findAll().size());
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("failure to apply a batch (permissions are not granted)")
+    public void batch_fail_permissionsNotGranted() throws Exception{
+        final String userEmail = "guest@gmail.com";
+        final Integer taskId = 1;
+        User user = getUserByEmail(userEmail);
+        Task task = getTaskById(taskId);
+        checkIfUserRoleLower(user, task.getList().getProject(), UserRole.DEVELOPER);
+
+        ObjectNode request = mapper.createObjectNode();
+        request.putArray("operations")
+                .add(mapper.createObjectNode().put("type", "move").put("id", taskId).put("listId", 2));
+        mvc.perform(post("/data/task/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(request.toString())
+                    .with( user(new UserSecurity(user)) ))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.results[0].errors[*].errName",
+                        containsInAnyOrder(Error.PERMISSIONS_NOT_GRANTED.name()) ));
+
+        Assertions.assertEquals(task.getList().getId(), getTaskById(taskId).getList().getId());
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("failure to apply a batch (too many operations)")
+    public void batch_fail_tooLarge() throws Exception{
+        final String userEmail = "admin@gmail.com";
+        User user = getUserByEmail(userEmail);
+
+        ObjectNode request = mapper.createObjectNode();
+        ArrayNode operations = request.putArray("operations");
+        for(int i = 0; i <= 100; ++i) {
+            operations.add(buildValidTaskRequest(mapper).put("type", "create"));
+        }
+        mvc.perform(post("/data/task/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(request.toString())
+                    .with( user(new UserSecurity(user)) ))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[*].errName", containsInAnyOrder(Error.BATCH_TOO_LARGE.name()) ))
+                .andExpect(jsonPath("$.results", emptyIterable()));
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("successfully move a task to another project in a batch (tags of the previous project are dropped)")
+    public void batch_success_moveForeignTagsDropped() throws Exception{
+        User user = userService.save(new User("batch_tags", "Test1", "batch_tags@gmail.com"));
+        TaskList source = listService.save(new TaskList(null, "source", createProject(user, UserRole.ADMIN)));
+        TaskList target = listService.save(new TaskList(null, "target", createProject(user, UserRole.ADMIN)));
+        Tag tag = tagService.save(new Tag("source", source.getProject()));
+        Task task = new Task(null, "batched", LocalDate.now(), LocalDate.now(), 1, null, source, null, user);
+        task.setTags(new HashSet<>(Collections.singletonList(tag)));
+        task = taskService.save(task);
+
+        ObjectNode request = mapper.createObjectNode();
+        request.putArray("operations")
+                .add(mapper.createObjectNode().put("type", "move").put("id", task.getId())
+                        .put("listId", target.getId()));
+        mvc.perform(post("/data/task/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(request.toString())
+                    .with( user(new UserSecurity(user)) ))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].task.listId", is(target.getId()) ));
+        Task stored = getTaskById(task.getId());
+        Assertions.assertEquals(target.getId(), stored.getList().getId());
+        Assertions.assertTrue(stored.getTags().isEmpty());
+    }
+
     public static Stream<String> notDevs() {
         return Stream.of("guest@gmail.com", "nor@gmail.com");
     }
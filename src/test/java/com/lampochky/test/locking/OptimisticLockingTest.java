@@ -0,0 +1,114 @@
+package com.lampochky.test.locking;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lampochky.Application;
+import com.lampochky.config.security.UserSecurity;
+import com.lampochky.database.entity.*;
+import com.lampochky.database.service.*;
+import com.lampochky.test.crud.AbstractCrudTest;
+import com.lampochky.validation.Error;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(locations = "classpath:application-test.properties")
+@SpringBootTest(classes = Application.class)
+public class OptimisticLockingTest extends AbstractCrudTest {
+    @Autowired
+    public OptimisticLockingTest(WebApplicationContext context,
+                                 UserService userService,
+                                 ProjectService projectService,
+                                 UserProjectService userProjectService,
+                                 ListService listService,
+                                 TaskService taskService,
+                                 TagService tagService,
+                                 MessageService messageService) {
+        super(context, userService, projectService, userProjectService,
+                listService, taskService, tagService, messageService);
+    }
+
+    private ObjectNode taskRequest(String name, TaskList taskList, Long version) {
+        ObjectNode request = mapper.createObjectNode()
+                .put("name", name)
+                .put("dateToStart", LocalDate.now().format(dateFormat))
+                .put("dateToFinish", LocalDate.now().format(dateFormat))
+                .put("priority", 1)
+                .put("description", "description")
+                .put("listId", taskList.getId())
+                .put("version", version)
+                .putNull("assignedUserId");
+        request.putArray("tagIds");
+        return request;
+    }
+
+    @Test
+    @DisplayName("a task updated since the version read by the client is not overwritten")
+    public void updateTask_fail_versionConflict() throws Exception {
+        User user = userService.save(new User("locking_1", "Test1", "locking_1@gmail.com"));
+        TaskList taskList = listService.save(new TaskList(null, "locking", createProject(user, UserRole.ADMIN)));
+        Task task = taskService.save(new Task(null, "task", LocalDate.now(), LocalDate.now(), 1,
+                "description", taskList, null, user));
+        Long version = task.getVersion();
+        Assertions.assertNotNull(version);
+
+        mvc.perform(put("/data/task/{id}", task.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .content(taskRequest("first", taskList, version).toString())
+                        .with(user(new UserSecurity(user))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.task.version", is((int) (version + 1))));
+        mvc.perform(put("/data/task/{id}", task.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .content(taskRequest("second", taskList, version).toString())
+                        .with(user(new UserSecurity(user))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errors[*].errName", contains(Error.VERSION_CONFLICT.name())));
+        Assertions.assertEquals("first", taskService.findById(task.getId()).get().getName());
+    }
+
+    @Test
+    @DisplayName("a list is updated without a version and rejected with a stale one")
+    public void updateList_versionConflict() throws Exception {
+        User user = userService.save(new User("locking_2", "Test1", "locking_2@gmail.com"));
+        TaskList taskList = listService.save(new TaskList(null, "locking", createProject(user, UserRole.ADMIN)));
+
+        mvc.perform(put("/data/list/{id}", taskList.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.createObjectNode().put("name", "renamed").toString())
+                        .with(user(new UserSecurity(user))))
+                .andExpect(status().isOk());
+        mvc.perform(put("/data/list/{id}", taskList.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.createObjectNode().put("name", "stale")
+                                .put("version", taskList.getVersion()).toString())
+                        .with(user(new UserSecurity(user))))
+                .andExpect(status().isConflict());
+        Assertions.assertEquals("renamed", listService.findById(taskList.getId()).get().getName());
+    }
+
+    @Test
+    @DisplayName("concurrent saves of the same tag conflict")
+    public void saveTag_concurrent() {
+        User user = userService.save(new User("locking_3", "Test1", "locking_3@gmail.com"));
+        Tag tag = tagService.save(new Tag("tag", createProject(user, UserRole.ADMIN)));
+        Tag first = tagService.findById(tag.getId()).get();
+        Tag second = tagService.findById(tag.getId()).get();
+
+        first.setName("first");
+        tagService.save(first);
+        second.setName("second");
+        Assertions.assertThrows(OptimisticLockingFailureException.class, () -> tagService.save(second));
+        Assertions.assertEquals("first", tagService.findById(tag.getId()).get().getName());
+    }
+}
@@ -0,0 +1,158 @@
+package com.lampochky.test.migration;
+
+import com.lampochky.Application;
+import com.lampochky.config.migration.SchemaMigrator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@TestPropertySource(locations = "classpath:application-test.properties")
+@SpringBootTest(classes = Application.class)
+public class SchemaMigrationTest {
+    /**
+     * Schema Hibernate created with ddl-auto=update before migrations, with generated constraint names.
+     */
+    private static final String[] updateCreatedSchema = {
+            "create table lampochky.users (id integer generated by default as identity, email varchar(30), "
+                    + "password varchar(100), username varchar(20), primary key (id))",
+            "create table lampochky.project (id integer generated by default as identity, name varchar(20) not null, "
+                    + "primary key (id))",
+            "create table lampochky.user_project (id integer generated by default as identity, confirmed boolean not null, "
+                    + "role integer not null, project_id integer not null, user_id integer not null, primary key (id))",
+            "create table lampochky.list (id integer generated by default as identity, name varchar(20) not null, "
+                    + "project_id integer not null, primary key (id))",
+            "create table lampochky.task (id integer generated by default as identity, date_to_finish date not null, "
+                    + "date_to_start date not null, description varchar(10000), name varchar(20) not null, "
+                    + "priority integer not null, assigned_user_id integer, creator_id integer not null, "
+                    + "list_id integer not null, primary key (id))",
+            "create table lampochky.tag (id integer generated by default as identity, name varchar(40) not null, "
+                    + "project_id integer not null, primary key (id))",
+            "create table tag_task (task_id integer not null, tag_id integer not null)",
+            "create table lampochky.message (id integer generated by default as identity, time timestamp not null, "
+                    + "text varchar(1000) not null, task_id integer not null, user_id integer not null, primary key (id))",
+            "create table lampochky.action (id integer generated by default as identity, date timestamp not null, "
+                    + "list_id integer not null, task_id integer not null, user_id integer not null, primary key (id))",
+            "alter table lampochky.users add constraint UK_6dotkott2kjsp8vw4d0m25fb7 unique (email)",
+            "alter table lampochky.users add constraint UK_r43af9ap4edm43mmtq01oddj6 unique (username)",
+            "alter table lampochky.user_project add constraint FKocoaflg3vo7dmxhtj8kp8y4qm foreign key (project_id) references lampochky.project",
+            "alter table lampochky.user_project add constraint FK4iy1ycf2y9k9n0jsjmtwcfbam foreign key (user_id) references lampochky.users",
+            "alter table lampochky.list add constraint FKbdwe1vv0q4e8xhl7c0dwk9rb2 foreign key (project_id) references lampochky.project",
+            "alter table lampochky.task add constraint FKq0qhvq0d4o1iq0tr2i4vdbsmm foreign key (assigned_user_id) references lampochky.users",
+            "alter table lampochky.task add constraint FK6oguqyysj8d6pp5xs0bi5xuon foreign key (creator_id) references lampochky.users",
+            "alter table lampochky.task add constraint FK2dbb8vpw5shr3jvpj6pcu5ip4 foreign key (list_id) references lampochky.list",
+            "alter table lampochky.tag add constraint FKb8xq3o0ksf2n5tlvfxdp7yd5x foreign key (project_id) references lampochky.project",
+            "alter table tag_task add constraint FKh2h3q9jlqfx6k8tn8h4ltqdgt foreign key (tag_id) references lampochky.tag",
+            "alter table tag_task add constraint FKqq9i1q0kc1q8dsbqwn6qvc4w8 foreign key (task_id) references lampochky.task",
+            "alter table lampochky.message add constraint FKgbq2nq8xp3ae5l9y7p3bywlyu foreign key (task_id) references lampochky.task",
+            "alter table lampochky.message add constraint FKpdrb79dg3bgym7pydlf9k3p1n foreign key (user_id) references lampochky.users",
+            "alter table lampochky.action add constraint FK8r6tkbw2vy6oblwcj1hk1vqp4 foreign key (list_id) references lampochky.list",
+            "alter table lampochky.action add constraint FKbk4xkmivdpm2i3dxnuu2k4n6n foreign key (task_id) references lampochky.task",
+            "alter table lampochky.action add constraint FKsbhuwtxe9eavu3i6hgvyhbsm9 foreign key (user_id) references lampochky.users"
+    };
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SchemaMigrationTest(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Test
+    @DisplayName("all migrations are applied once")
+    public void migrations_applied() {
+        List<Integer> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM lampochky.schema_version ORDER BY version", Integer.class);
+        Assertions.assertEquals(Arrays.asList(1, 2, 3), versions.subList(0, 3));
+    }
+
+    @Test
+    @DisplayName("foreign keys used in queries are indexed")
+    public void foreignKeys_indexed() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT LOWER(index_name) FROM information_schema.indexes", String.class);
+        for(String index: Arrays.asList("idx_task_list", "idx_task_assigned_user", "idx_message_task_time",
+                "idx_user_project_user_project", "idx_tag_project", "idx_tag_task_task_tag", "idx_list_project",
+                "idx_task_assigned_finish", "idx_task_list_finish")) {
+            Assertions.assertTrue(indexes.contains(index), index + " exists");
+        }
+    }
+
+    @Test
+    @DisplayName("a schema created by Hibernate before migrations is migrated, actions outlive tasks and lists")
+    public void updateCreatedSchema_migrated() {
+        DriverManagerDataSource dataSource = createDataSource();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        try {
+            jdbc.batchUpdate(updateCreatedSchema);
+            jdbc.update("INSERT INTO lampochky.users (id, username) VALUES (1, 'user')");
+            jdbc.update("INSERT INTO lampochky.project (id, name) VALUES (1, 'project')");
+            jdbc.update("INSERT INTO lampochky.list (id, name, project_id) VALUES (1, 'list', 1)");
+            jdbc.update("INSERT INTO lampochky.task (id, date_to_finish, date_to_start, name, priority, creator_id, list_id) "
+                    + "VALUES (1, CURRENT_DATE, CURRENT_DATE, 'task', 1, 1, 1)");
+            jdbc.update("INSERT INTO lampochky.action (id, date, list_id, task_id, user_id) "
+                    + "VALUES (1, CURRENT_TIMESTAMP, 1, 1, 1)");
+
+            createMigrator(dataSource).migrate();
+
+            List<String> actionKeys = jdbc.queryForList("SELECT LOWER(fkcolumn_name) FROM information_schema.cross_references "
+                    + "WHERE fktable_schema = 'LAMPOCHKY' AND fktable_name = 'ACTION'", String.class);
+            Assertions.assertEquals(Arrays.asList("user_id"), actionKeys);
+            jdbc.update("DELETE FROM lampochky.task WHERE id = 1");
+            jdbc.update("DELETE FROM lampochky.list WHERE id = 1");
+            jdbc.update("INSERT INTO lampochky.action (id, date, action_type, project_id, list_id, task_id, user_id) "
+                    + "VALUES (2, CURRENT_TIMESTAMP, 'TASK_DELETED', 1, 1, 1, 1)");
+            Assertions.assertEquals(Arrays.asList(1, 1), jdbc.queryForList(
+                    "SELECT task_id FROM lampochky.action ORDER BY id", Integer.class));
+        } finally {
+            jdbc.execute("SHUTDOWN");
+        }
+    }
+
+    @Test
+    @DisplayName("instances migrating at once apply every migration once, changed scripts fail")
+    public void migrations_locked() throws Exception {
+        DriverManagerDataSource dataSource = createDataSource();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        try {
+            ExecutorService executor = Executors.newFixedThreadPool(3);
+            List<Future<?>> runs = new ArrayList<>();
+            for(int i = 0; i < 3; ++i) {
+                runs.add(executor.submit(() -> createMigrator(dataSource).migrate()));
+            }
+            for(Future<?> run: runs) {
+                run.get(60, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+            List<Integer> versions = jdbc.queryForList(
+                    "SELECT version FROM lampochky.schema_version ORDER BY version", Integer.class);
+            Assertions.assertEquals(versions.size(), new HashSet<>(versions).size());
+            Assertions.assertEquals(Arrays.asList(1, 2, 3), versions.subList(0, 3));
+
+            jdbc.update("UPDATE lampochky.schema_version SET checksum = checksum + 1 WHERE version = 2");
+            IllegalStateException ex = Assertions.assertThrows(IllegalStateException.class,
+                    () -> createMigrator(dataSource).migrate());
+            Assertions.assertTrue(ex.getMessage().contains("V2"));
+        } finally {
+            jdbc.execute("SHUTDOWN");
+        }
+    }
+
+    private static DriverManagerDataSource createDataSource() {
+        return new DriverManagerDataSource("jdbc:h2:mem:migration-" + UUID.randomUUID()
+                + ";DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS lampochky");
+    }
+
+    private static SchemaMigrator createMigrator(DriverManagerDataSource dataSource) {
+        return new SchemaMigrator(dataSource, "classpath:db/migration/{vendor}", "lampochky.schema_version");
+    }
+}
@@ -0,0 +1,141 @@
+package com.lampochky.test.patch;
+
+import com.lampochky.Application;
+import com.lampochky.config.security.UserSecurity;
+import com.lampochky.database.entity.*;
+import com.lampochky.database.service.*;
+import com.lampochky.dto.DtoConstants;
+import com.lampochky.test.crud.AbstractCrudTest;
+import com.lampochky.validation.Error;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(locations = "classpath:application-test.properties")
+@SpringBootTest(classes = Application.class)
+public class MergePatchTest extends AbstractCrudTest {
+    @Autowired
+    public MergePatchTest(WebApplicationContext context,
+                          UserService userService,
+                          ProjectService projectService,
+                          UserProjectService userProjectService,
+                          ListService listService,
+                          TaskService taskService,
+                          TagService tagService,
+                          MessageService messageService) {
+        super(context, userService, projectService, userProjectService,
+                listService, taskService, tagService, messageService);
+    }
+
+    @Test
+    @DisplayName("only properties present in the patch are changed")
+    public void patchTask_success() throws Exception {
+        User user = userService.save(new User("patch_1", "Test1", "patch_1@gmail.com"));
+        Project project = createProject(user, UserRole.ADMIN);
+        TaskList taskList = listService.save(new TaskList(null, "patch", project));
+        Tag first = tagService.save(new Tag("first", project));
+        Tag second = tagService.save(new Tag("second", project));
+        Tag third = tagService.save(new Tag("third", project));
+        Task task = new Task(null, "task", LocalDate.now(), LocalDate.now().plusDays(1), 1,
+                "description", taskList, user, user);
+        task.setTags(new HashSet<>(Arrays.asList(first, second)));
+        task = taskService.save(task);
+
+        mvc.perform(patch("/data/task/{id}", task.getId()).contentType(DtoConstants.mergePatchJson)
+                        .content(mapper.createObjectNode().put("priority", 5).toString())
+                        .with(user(new UserSecurity(user))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.task.priority", is(5)))
+                .andExpect(jsonPath("$.task.name", is("task")))
+                .andExpect(jsonPath("$.task.description", is("description")));
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(first, second)),
+                taskService.findById(task.getId()).get().getTags());
+
+        String body = "{\"assignedUserId\": null, \"tagIds\": [" + second.getId() + ", " + third.getId() + "]}";
+        mvc.perform(patch("/data/task/{id}", task.getId()).contentType(DtoConstants.mergePatchJson)
+                        .content(body)
+                        .with(user(new UserSecurity(user))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.task.priority", is(5)))
+                .andExpect(jsonPath("$.task.assignedUser", nullValue()));
+
+        Task stored = taskService.findById(task.getId()).get();
+        Assertions.assertNull(stored.getAssignedUser());
+        Assertions.assertEquals(LocalDate.now().plusDays(1), stored.getDateToFinish());
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(second, third)), stored.getTags());
+    }
+
+    @Test
+    @DisplayName("a patch setting a required property to null is rejected")
+    public void patchTask_fail_dateRemoved() throws Exception {
+        User user = userService.save(new User("patch_2", "Test1", "patch_2@gmail.com"));
+        TaskList taskList = listService.save(new TaskList(null, "patch", createProject(user, UserRole.ADMIN)));
+        Task task = taskService.save(new Task(null, "task", LocalDate.now(), LocalDate.now(), 1,
+                "description", taskList, null, user));
+
+        mvc.perform(patch("/data/task/{id}", task.getId()).contentType(DtoConstants.mergePatchJson)
+                        .content("{\"dateToStart\": null}")
+                        .with(user(new UserSecurity(user))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errors[*].errName", contains(Error.DATE_EMPTY.name())));
+        Assertions.assertEquals(LocalDate.now(), taskService.findById(task.getId()).get().getDateToStart());
+    }
+
+    @Test
+    @DisplayName("an empty patch keeps the list and a stale version conflicts")
+    public void patchList() throws Exception {
+        User user = userService.save(new User("patch_3", "Test1", "patch_3@gmail.com"));
+        TaskList taskList = listService.save(new TaskList(null, "patch", createProject(user, UserRole.ADMIN)));
+
+        mvc.perform(patch("/data/list/{id}", taskList.getId()).contentType(DtoConstants.mergePatchJson)
+                        .content("{}")
+                        .with(user(new UserSecurity(user))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.list.name", is("patch")));
+        mvc.perform(patch("/data/list/{id}", taskList.getId()).contentType(DtoConstants.mergePatchJson)
+                        .content(mapper.createObjectNode().put("name", "renamed").toString())
+                        .with(user(new UserSecurity(user))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.list.name", is("renamed")));
+        mvc.perform(patch("/data/list/{id}", taskList.getId()).contentType(DtoConstants.mergePatchJson)
+                        .content(mapper.createObjectNode().put("name", "stale")
+                                .put("version", taskList.getVersion()).toString())
+                        .with(user(new UserSecurity(user))))
+                .andExpect(status().isConflict());
+        Assertions.assertEquals("renamed", listService.findById(taskList.getId()).get().getName());
+    }
+
+    @Test
+    @DisplayName("a task moved to another project by a patch keeps only tags of that project")
+    public void moveTask_foreignTagsDropped() throws Exception {
+        User user = userService.save(new User("patch_4", "Test1", "patch_4@gmail.com"));
+        TaskList source = listService.save(new TaskList(null, "source", createProject(user, UserRole.ADMIN)));
+        TaskList target = listService.save(new TaskList(null, "target", createProject(user, UserRole.ADMIN)));
+        Tag tag = tagService.save(new Tag("source", source.getProject()));
+        Task patched = new Task(null, "patched", LocalDate.now(), LocalDate.now(), 1, null, source, null, user);
+        patched.setTags(new HashSet<>(Arrays.asList(tag)));
+        patched = taskService.save(patched);
+
+        mvc.perform(patch("/data/task/{id}", patched.getId()).contentType(DtoConstants.mergePatchJson)
+                        .content(mapper.createObjectNode().put("listId", target.getId()).toString())
+                        .with(user(new UserSecurity(user))))
+                .andExpect(status().isOk());
+        Task stored = taskService.findById(patched.getId()).get();
+        Assertions.assertEquals(target.getId(), stored.getList().getId());
+        Assertions.assertTrue(stored.getTags().isEmpty());
+    }
+}
@@ -0,0 +1,95 @@
+package com.lampochky.test.query;
+
+import com.lampochky.Application;
+import com.lampochky.config.security.UserSecurity;
+import com.lampochky.database.entity.*;
+import com.lampochky.database.service.*;
+import com.lampochky.dto.DtoConstants;
+import com.lampochky.test.crud.AbstractCrudTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(locations = "classpath:application-test.properties")
+@SpringBootTest(classes = Application.class)
+public class AssignedTasksTest extends AbstractCrudTest {
+    @Autowired
+    public AssignedTasksTest(WebApplicationContext context,
+                             UserService userService,
+                             ProjectService projectService,
+                             UserProjectService userProjectService,
+                             ListService listService,
+                             TaskService taskService,
+                             TagService tagService,
+                             MessageService messageService) {
+        super(context, userService, projectService, userProjectService,
+                listService, taskService, tagService, messageService);
+    }
+
+    private TaskList createList(User user, boolean confirmed) {
+        Project project = projectService.save(new Project(null, "assigned"));
+        userProjectService.save(new UserProject(null, UserRole.DEVELOPER, confirmed, user, project));
+        return listService.save(new TaskList(null, "assigned", project));
+    }
+
+    private Task createTask(User creator, User assigned, TaskList taskList, int daysToFinish) {
+        return taskService.save(new Task(null, "task", LocalDate.now(), LocalDate.now().plusDays(daysToFinish), 1,
+                "description", taskList, assigned, creator));
+    }
+
+    @Test
+    @DisplayName("tasks assigned to the user are listed across projects by due date")
+    public void getAssigned() throws Exception {
+        User user = userService.save(new User("assigned_1", "Test1", "assigned_1@gmail.com"));
+        User other = userService.save(new User("assigned_2", "Test1", "assigned_2@gmail.com"));
+        TaskList confirmedList = createList(user, true);
+        TaskList unconfirmedList = createList(user, false);
+        TaskList deletedList = listService.save(new TaskList(null, "deleted", confirmedList.getProject()));
+        TaskList foreignList = createList(other, true);
+
+        Task late = createTask(other, user, confirmedList, 5);
+        Task soon = createTask(other, user, unconfirmedList, 1);
+        Task middle = createTask(other, user, confirmedList, 3);
+        createTask(other, other, confirmedList, 2);
+        createTask(other, user, deletedList, 0);
+        createTask(other, user, foreignList, 0);
+        listService.delete(deletedList);
+
+        mvc.perform(get("/data/task/assigned").with(user(new UserSecurity(user))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId", is(user.getId())))
+                .andExpect(jsonPath("$.totalElements", is(3)))
+                .andExpect(jsonPath("$.tasks[*].id", contains(soon.getId(), middle.getId(), late.getId())))
+                .andExpect(jsonPath("$.tasks[0].projectId", is(unconfirmedList.getProject().getId())));
+        mvc.perform(get("/data/task/assigned").param("confirmed", "true").param("size", "1").param("page", "1")
+                        .with(user(new UserSecurity(user))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(2)))
+                .andExpect(jsonPath("$.totalPages", is(2)))
+                .andExpect(jsonPath("$.tasks[*].id", contains(late.getId())));
+
+        Task sameDay = createTask(other, user, confirmedList, 3);
+        for(int page = 0; page < 2; ++page) {
+            mvc.perform(get("/data/task/assigned").param("confirmed", "true").param("size", "1")
+                            .param("page", String.valueOf(page)).param("from", LocalDate.now().plusDays(3)
+                                    .format(DateTimeFormatter.ofPattern(DtoConstants.dateFormat)))
+                            .with(user(new UserSecurity(user))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.tasks[*].id", contains(page == 0 ? middle.getId() : sameDay.getId())));
+        }
+        mvc.perform(get("/data/task/assigned").param("sort", "unknown").with(user(new UserSecurity(user))))
+                .andExpect(status().isBadRequest());
+    }
+}
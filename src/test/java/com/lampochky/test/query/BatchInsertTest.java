@@ -0,0 +1,71 @@
+package com.lampochky.test.query;
+
+import com.lampochky.Application;
+import com.lampochky.database.entity.Project;
+import com.lampochky.database.entity.Task;
+import com.lampochky.database.entity.TaskList;
+import com.lampochky.database.entity.User;
+import com.lampochky.database.service.ListService;
+import com.lampochky.database.service.ProjectService;
+import com.lampochky.database.service.TaskService;
+import com.lampochky.database.service.UserService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@TestPropertySource(locations = "classpath:application-test.properties")
+@SpringBootTest(classes = Application.class)
+public class BatchInsertTest {
+    private final UserService userService;
+    private final ProjectService projectService;
+    private final ListService listService;
+    private final TaskService taskService;
+    private final Statistics statistics;
+
+    @Autowired
+    public BatchInsertTest(UserService userService,
+                           ProjectService projectService,
+                           ListService listService,
+                           TaskService taskService,
+                           EntityManagerFactory entityManagerFactory) {
+        this.userService = userService;
+        this.projectService = projectService;
+        this.listService = listService;
+        this.taskService = taskService;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("new tasks saved together are inserted in JDBC batches")
+    public void saveTasks_batched() {
+        final int count = 50;
+        User creator = userService.save(new User("batch_creator", "Test1", "batch_creator@gmail.com"));
+        Project project = projectService.save(new Project(null, "batch"));
+        TaskList taskList = listService.save(new TaskList(null, "batch", project));
+        List<Task> tasks = new ArrayList<>();
+        for(int i = 0; i < count; ++i) {
+            tasks.add(new Task(null, "task_" + i, LocalDate.now(), LocalDate.now(), i, "", taskList, null, creator));
+        }
+
+        long before = statistics.getPrepareStatementCount();
+        List<Task> saved = taskService.saveAndDeleteAll(tasks, Collections.emptyList());
+        long statements = statistics.getPrepareStatementCount() - before;
+
+        Assertions.assertEquals(count, saved.stream().map(Task::getId).distinct().count());
+        // the change log adds a lock and an update of the project revision and one batch of changes
+        final int changeLogStatements = 4;
+        Assertions.assertTrue(statements <= 4 + changeLogStatements,
+                count + " tasks are inserted with " + statements + " statements");
+    }
+}
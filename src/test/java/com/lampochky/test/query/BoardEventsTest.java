@@ -0,0 +1,160 @@
+package com.lampochky.test.query;
+
+import com.lampochky.Application;
+import com.lampochky.config.security.JwtTokenProvider;
+import com.lampochky.config.security.UserSecurity;
+import com.lampochky.database.entity.*;
+import com.lampochky.database.service.*;
+import com.lampochky.events.BoardEventBroadcaster;
+import com.lampochky.test.crud.AbstractCrudTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(locations = "classpath:application-test.properties")
+@SpringBootTest(classes = Application.class)
+public class BoardEventsTest extends AbstractCrudTest {
+    private final BoardEventBroadcaster eventBroadcaster;
+    private final JwtTokenProvider tokenProvider;
+
+    @Autowired
+    public BoardEventsTest(WebApplicationContext context,
+                           UserService userService,
+                           ProjectService projectService,
+                           UserProjectService userProjectService,
+                           ListService listService,
+                           TaskService taskService,
+                           TagService tagService,
+                           MessageService messageService,
+                           BoardEventBroadcaster eventBroadcaster,
+                           JwtTokenProvider tokenProvider) {
+        super(context, userService, projectService, userProjectService,
+                listService, taskService, tagService, messageService);
+        this.eventBroadcaster = eventBroadcaster;
+        this.tokenProvider = tokenProvider;
+    }
+
+    private String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = response.getContentAsString();
+        while(!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = response.getContentAsString();
+        }
+        return content;
+    }
+
+    @Test
+    @DisplayName("committed changes are sent to subscribers of the project")
+    public void subscribe_changeSent() throws Exception {
+        User user = userService.save(new User("events_1", "Test1", "events_1@gmail.com"));
+        Project project = createProject(user, UserRole.ADMIN);
+        int subscribers = eventBroadcaster.getSubscriberCount();
+        MvcResult result = mvc.perform(get("/data/project/{id}/events", project.getId())
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .with(user(new UserSecurity(user))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        Assertions.assertEquals(subscribers + 1, eventBroadcaster.getSubscriberCount());
+        MockHttpServletResponse response = result.getResponse();
+        Assertions.assertTrue(awaitContent(response, "\"revision\":1,").contains("event:revision\nid:1\n"));
+
+        TaskList taskList = listService.save(new TaskList(null, "events", project));
+        String change = "\"type\":\"LIST\",\"id\":" + taskList.getId();
+        String content = awaitContent(response, change);
+        Assertions.assertTrue(content.contains(change));
+        Assertions.assertTrue(content.contains("event:change\nid:2\n"));
+
+        projectService.delete(projectService.findById(project.getId()).get());
+        Assertions.assertTrue(awaitContent(response, "\"revision\":null").contains("event:deleted"));
+        Assertions.assertEquals(subscribers, eventBroadcaster.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("every subscriber receives each event once")
+    public void subscribe_severalSubscribers() throws Exception {
+        User user = userService.save(new User("events_5", "Test1", "events_5@gmail.com"));
+        Project project = createProject(user, UserRole.ADMIN);
+        List<MockHttpServletResponse> responses = new ArrayList<>();
+        for(int i = 0; i < 3; ++i) {
+            responses.add(mvc.perform(get("/data/project/{id}/events", project.getId())
+                            .accept(MediaType.TEXT_EVENT_STREAM)
+                            .with(user(new UserSecurity(user))))
+                    .andExpect(request().asyncStarted())
+                    .andReturn().getResponse());
+        }
+        for(MockHttpServletResponse response: responses) {
+            awaitContent(response, "\"revision\":1,");
+        }
+
+        TaskList taskList = listService.save(new TaskList(null, "events", project));
+        String revision = "event:revision\nid:1\ndata:{\"projectId\":" + project.getId()
+                + ",\"revision\":1,\"changes\":[]}\n\n";
+        String change = "event:change\nid:2\ndata:{\"projectId\":" + project.getId()
+                + ",\"revision\":2,\"changes\":[{\"type\":\"LIST\",\"id\":" + taskList.getId()
+                + ",\"deleted\":false}]}\n\n";
+        for(MockHttpServletResponse response: responses) {
+            Assertions.assertEquals(revision + change, awaitContent(response, "event:change"));
+        }
+        projectService.delete(projectService.findById(project.getId()).get());
+    }
+
+    @Test
+    @DisplayName("only members subscribe to events of the project")
+    public void subscribe_fail_notMember() throws Exception {
+        User user = userService.save(new User("events_2", "Test1", "events_2@gmail.com"));
+        User stranger = userService.save(new User("events_3", "Test1", "events_3@gmail.com"));
+        Project project = createProject(user, UserRole.ADMIN);
+        int subscribers = eventBroadcaster.getSubscriberCount();
+        mvc.perform(get("/data/project/{id}/events", project.getId())
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .with(user(new UserSecurity(stranger))))
+                .andExpect(status().isForbidden())
+                .andExpect(content().string(containsString("event:error")));
+        Assertions.assertEquals(subscribers, eventBroadcaster.getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("a token in the query authenticates subscriptions to events only")
+    public void subscribe_queryToken() throws Exception {
+        User user = userService.save(new User("events_4", "Test1", "events_4@gmail.com"));
+        Project project = createProject(user, UserRole.ADMIN);
+        String token = tokenProvider.createToken(user);
+        int subscribers = eventBroadcaster.getSubscriberCount();
+        mvc.perform(get("/data/project/{id}/events", project.getId())
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .param("access_token", token))
+                .andExpect(request().asyncStarted());
+        Assertions.assertEquals(subscribers + 1, eventBroadcaster.getSubscriberCount());
+
+        mvc.perform(get("/data/project/{id}", project.getId())
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .param("access_token", token))
+                .andExpect(status().isForbidden());
+        mvc.perform(put("/data/project/{id}", project.getId())
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"renamed\"}")
+                        .param("access_token", token))
+                .andExpect(status().isForbidden());
+        projectService.delete(projectService.findById(project.getId()).get());
+    }
+}
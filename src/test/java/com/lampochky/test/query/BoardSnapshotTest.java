@@ -0,0 +1,135 @@
+package com.lampochky.test.query;
+
+import com.lampochky.Application;
+import com.lampochky.database.entity.*;
+import com.lampochky.database.service.*;
+import com.lampochky.dto.response.DtoBuilder;
+import com.lampochky.dto.response.project.ProjectDto;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+@TestPropertySource(locations = "classpath:application-test.properties")
+@SpringBootTest(classes = Application.class)
+public class BoardSnapshotTest {
+    private static Integer projectId;
+
+    private final BoardService boardService;
+    private final ProjectService projectService;
+    private final UserService userService;
+    private final ListService listService;
+    private final TaskService taskService;
+    private final TagService tagService;
+    private final MessageService messageService;
+    private final Statistics statistics;
+
+    @Autowired
+    public BoardSnapshotTest(BoardService boardService,
+                             ProjectService projectService,
+                             UserService userService,
+                             ListService listService,
+                             TaskService taskService,
+                             TagService tagService,
+                             MessageService messageService,
+                             EntityManagerFactory entityManagerFactory) {
+        this.boardService = boardService;
+        this.projectService = projectService;
+        this.userService = userService;
+        this.listService = listService;
+        this.taskService = taskService;
+        this.tagService = tagService;
+        this.messageService = messageService;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeAll
+    public static void beforeAll(@Autowired UserService userService,
+                                 @Autowired ProjectService projectService,
+                                 @Autowired UserProjectService userProjectService) {
+        User owner = userService.save(new User("board_owner", "Test1", "board_owner@gmail.com"));
+        User developer = userService.save(new User("board_dev", "Test1", "board_dev@gmail.com"));
+        Project project = projectService.save(new Project(null, "board"));
+        userProjectService.save(new UserProject(null, UserRole.ADMIN, true, owner, project));
+        userProjectService.save(new UserProject(null, UserRole.DEVELOPER, true, developer, project));
+        projectId = project.getId();
+    }
+
+    private long countBoardStatements() {
+        long before = statistics.getPrepareStatementCount();
+        BoardSnapshot board = boardService.findByProjectId(projectId).orElse(null);
+        ProjectDto dto = DtoBuilder.buildBoardProjectDto(board, UserRole.ADMIN, true);
+        long count = statistics.getPrepareStatementCount() - before;
+
+        Assertions.assertNotNull(dto);
+        return count;
+    }
+
+    private void growBoard(int lists, int tasksPerList, int messagesPerTask) {
+        Project project = projectService.findById(projectId).orElse(null);
+        User owner = userService.findByEmail("board_owner@gmail.com").orElse(null);
+        User developer = userService.findByEmail("board_dev@gmail.com").orElse(null);
+        List<Tag> tags = new ArrayList<>();
+        for(int i = 0; i < 3; ++i) {
+            tags.add(tagService.save(new Tag("tag_" + i, project)));
+        }
+        for(int l = 0; l < lists; ++l) {
+            TaskList taskList = listService.save(new TaskList(null, "list_" + l, project));
+            for(int t = 0; t < tasksPerList; ++t) {
+                Task task = new Task(null, "task_" + t, LocalDate.now(), LocalDate.now().plusDays(t),
+                        t, "desc " + t, taskList, t % 2 == 0 ? developer : null, owner);
+                task.setTags(new HashSet<>(tags.subList(0, t % tags.size() + 1)));
+                task = taskService.save(task);
+                for(int m = 0; m < messagesPerTask; ++m) {
+                    messageService.save(new Message("message " + m, LocalDateTime.now(),
+                            m % 2 == 0 ? owner : developer, task));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("number of queries to load a board does not depend on the board size")
+    public void loadBoard_constantQueryCount() {
+        growBoard(1, 1, 1);
+        long smallBoardStatements = countBoardStatements();
+
+        growBoard(6, 8, 3);
+        long largeBoardStatements = countBoardStatements();
+
+        Assertions.assertEquals(smallBoardStatements, largeBoardStatements);
+        Assertions.assertTrue(largeBoardStatements <= 6,
+                "board is loaded with " + largeBoardStatements + " statements");
+    }
+
+    @Test
+    @DisplayName("board snapshot contains the whole project graph")
+    public void loadBoard_fullGraph() {
+        growBoard(2, 2, 2);
+        BoardSnapshot board = boardService.findByProjectId(projectId).orElse(null);
+        ProjectDto dto = DtoBuilder.buildBoardProjectDto(board, UserRole.ADMIN, true);
+
+        Assertions.assertNotNull(dto);
+        Assertions.assertEquals(taskService.findByProject(board.getProject()).size(),
+                dto.getLists().stream().mapToInt(l -> l.getTasks().size()).sum());
+        Assertions.assertEquals(2, dto.getUsers().size());
+        dto.getLists().stream().flatMap(l -> l.getTasks().stream()).forEach(task -> {
+            Task stored = taskService.findById(task.getId()).orElse(null);
+            Assertions.assertNotNull(stored);
+            Assertions.assertEquals(messageService.findAllInTaskSortByDate(stored).size(), task.getMessages().size());
+            Assertions.assertEquals(stored.getTags().size(), task.getTags().size());
+        });
+    }
+}
@@ -0,0 +1,144 @@
+package com.lampochky.test.query;
+
+import com.lampochky.Application;
+import com.lampochky.database.entity.*;
+import com.lampochky.database.repository.ListRepository;
+import com.lampochky.database.repository.ProjectRepository;
+import com.lampochky.database.service.*;
+import com.lampochky.test.crud.AbstractCrudTest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+@TestPropertySource(locations = "classpath:application-test.properties")
+@SpringBootTest(classes = Application.class)
+public class BulkDeleteTest extends AbstractCrudTest {
+    private final ChangeLogService changeLogService;
+    private final DeletedEntityPurger purger;
+    private final ProjectRepository projectRepository;
+    private final ListRepository listRepository;
+    private final Statistics statistics;
+
+    @Autowired
+    public BulkDeleteTest(WebApplicationContext context,
+                          UserService userService,
+                          ProjectService projectService,
+                          UserProjectService userProjectService,
+                          ListService listService,
+                          TaskService taskService,
+                          TagService tagService,
+                          MessageService messageService,
+                          ChangeLogService changeLogService,
+                          DeletedEntityPurger purger,
+                          ProjectRepository projectRepository,
+                          ListRepository listRepository,
+                          EntityManagerFactory entityManagerFactory) {
+        super(context, userService, projectService, userProjectService,
+                listService, taskService, tagService, messageService);
+        this.changeLogService = changeLogService;
+        this.purger = purger;
+        this.projectRepository = projectRepository;
+        this.listRepository = listRepository;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private List<Task> createTasks(User user, TaskList taskList, Tag tag, int count) {
+        List<Task> tasks = new ArrayList<>();
+        for(int i = 0; i < count; ++i) {
+            Task task = new Task(null, "task_" + i, LocalDate.now(), LocalDate.now(), i,
+                    "description", taskList, null, user);
+            task.setTags(new HashSet<>(Collections.singletonList(tag)));
+            task = taskService.save(task);
+            messageService.save(new Message("message", LocalDateTime.now(), user, task));
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    @Test
+    @DisplayName("a deleted project is hidden at once and its content is purged later")
+    public void deleteProject() {
+        User user = userService.save(new User("bulk_1", "Test1", "bulk_1@gmail.com"));
+        Project project = createProject(user, UserRole.ADMIN);
+        Tag tag = tagService.save(new Tag("tag", project));
+        List<TaskList> lists = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+        for(int l = 0; l < 3; ++l) {
+            TaskList taskList = listService.save(new TaskList(null, "list_" + l, project));
+            lists.add(taskList);
+            tasks.addAll(createTasks(user, taskList, tag, 5));
+        }
+        lists.forEach(taskList -> listService.findById(taskList.getId()));
+        userProjectService.findByUserAndProject(user, project);
+
+        long before = statistics.getPrepareStatementCount();
+        projectService.delete(project);
+        Assertions.assertTrue(statistics.getPrepareStatementCount() - before <= 2);
+
+        Assertions.assertFalse(projectService.findById(project.getId()).isPresent());
+        Assertions.assertTrue(projectService.findAllByUser(user).isEmpty());
+        lists.forEach(taskList -> Assertions.assertFalse(listService.findById(taskList.getId()).isPresent()));
+        Assertions.assertTrue(taskService.findAllById(Collections.singletonList(tasks.get(0).getId())).isEmpty());
+        Assertions.assertFalse(userProjectService.findByUserAndProject(user, project).isPresent());
+        Assertions.assertEquals(tasks.size(), messageService.findAllInTasks(tasks).size());
+
+        purger.purge();
+
+        Assertions.assertFalse(projectRepository.existsById(project.getId()));
+        lists.forEach(taskList -> Assertions.assertFalse(listRepository.existsById(taskList.getId())));
+        Assertions.assertTrue(messageService.findAllInTasks(tasks).isEmpty());
+        Assertions.assertFalse(tagService.findById(tag.getId()).isPresent());
+        Assertions.assertEquals(0, changeLogService.findRevision(project));
+    }
+
+    @Test
+    @DisplayName("a deleted list hides its tasks, the rest of the project and cached lists are kept")
+    public void deleteList() {
+        User user = userService.save(new User("bulk_2", "Test1", "bulk_2@gmail.com"));
+        Project project = createProject(user, UserRole.ADMIN);
+        Tag tag = tagService.save(new Tag("tag", project));
+        TaskList deleted = listService.save(new TaskList(null, "deleted", project));
+        TaskList kept = listService.save(new TaskList(null, "kept", project));
+        List<Task> deletedTasks = createTasks(user, deleted, tag, 3);
+        List<Task> keptTasks = createTasks(user, kept, tag, 2);
+
+        long revision = changeLogService.findRevision(project);
+        listService.delete(deleted);
+
+        Assertions.assertFalse(listService.findById(deleted.getId()).isPresent());
+        Assertions.assertFalse(taskService.findById(deletedTasks.get(0).getId()).isPresent());
+        Assertions.assertEquals(1, listService.findAllInProject(project).size());
+        Assertions.assertEquals(2, taskService.findByProject(project).size());
+        Assertions.assertEquals(revision + 1, changeLogService.findRevision(project));
+
+        purger.purge();
+
+        Assertions.assertFalse(listRepository.existsById(deleted.getId()));
+        Assertions.assertTrue(messageService.findAllInTasks(deletedTasks).isEmpty());
+        Assertions.assertEquals(2, taskService.findAllInList(kept).size());
+        Assertions.assertEquals(2, messageService.findAllInTasks(keptTasks).size());
+        Assertions.assertEquals(Collections.singleton(tag), taskService.findById(keptTasks.get(0).getId())
+                .map(Task::getTags).orElse(null));
+
+        listService.findById(kept.getId());
+        taskService.delete(keptTasks.get(0));
+        long before = statistics.getPrepareStatementCount();
+        Assertions.assertTrue(listService.findById(kept.getId()).isPresent());
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount() - before);
+        Assertions.assertEquals(1, taskService.findAllInList(kept).size());
+    }
+}
@@ -0,0 +1,68 @@
+package com.lampochky.test.query;
+
+import com.lampochky.config.security.UserSecurity;
+import com.lampochky.controller.ProjectController;
+import com.lampochky.database.entity.Project;
+import com.lampochky.database.entity.User;
+import com.lampochky.database.entity.UserProject;
+import com.lampochky.database.entity.UserRole;
+import com.lampochky.database.service.*;
+import com.lampochky.dto.response.project.GetProjectChangesResponseDto;
+import com.lampochky.events.BoardEventBroadcaster;
+import com.lampochky.validation.Error;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Collections;
+import java.util.Optional;
+
+public class ChangesReplicaLagTest {
+    private final ProjectService projectService = Mockito.mock(ProjectService.class);
+    private final UserProjectService userProjectService = Mockito.mock(UserProjectService.class);
+    private final ChangeLogService changeLogService = Mockito.mock(ChangeLogService.class);
+    private final BoardService boardService = Mockito.mock(BoardService.class);
+    private final ProjectController controller = new ProjectController(userProjectService, changeLogService,
+            projectService, Mockito.mock(UserService.class), boardService, Mockito.mock(BoardEventBroadcaster.class));
+    private final User user = new User("lag", "Test1", "lag@gmail.com");
+    private final Project project = new Project(1, "lag");
+
+    public ChangesReplicaLagTest() {
+        user.setId(1);
+        Mockito.when(projectService.findById(project.getId())).thenReturn(Optional.of(project));
+        Mockito.when(userProjectService.findMembership(user, project))
+                .thenReturn(new UserProject(1, UserRole.ADMIN, true, user, project));
+        Mockito.when(boardService.findChanges(Mockito.eq(project), Mockito.anyLong()))
+                .thenAnswer(invocation -> new BoardChanges(project, invocation.getArgument(1), 5));
+        Mockito.when(changeLogService.findRevision(project)).thenReturn(7L);
+    }
+
+    private ResponseEntity<GetProjectChangesResponseDto> getChanges(long since) {
+        return controller.getChanges(new UserSecurity(user), project.getId(), since,
+                new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse()));
+    }
+
+    @Test
+    @DisplayName("a revision the replica has not reached yet is answered with no changes")
+    public void getChanges_replicaBehind() {
+        ResponseEntity<GetProjectChangesResponseDto> response = getChanges(7);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(7L, response.getBody().getRevision());
+        Assertions.assertTrue(response.getBody().getLists().isEmpty());
+        Assertions.assertTrue(response.getBody().getDeleted().getTasks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("a revision the primary has not reached is rejected")
+    public void getChanges_futureRevision() {
+        ResponseEntity<GetProjectChangesResponseDto> response = getChanges(8);
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        Assertions.assertEquals(Collections.singletonList(Error.REVISION_INVALID), response.getBody().getErrors());
+    }
+}
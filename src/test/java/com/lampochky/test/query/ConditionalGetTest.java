@@ -0,0 +1,103 @@
+package com.lampochky.test.query;
+
+import com.lampochky.Application;
+import com.lampochky.config.security.UserSecurity;
+import com.lampochky.database.entity.*;
+import com.lampochky.database.service.*;
+import com.lampochky.test.crud.AbstractCrudTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(locations = "classpath:application-test.properties")
+@SpringBootTest(classes = Application.class)
+public class ConditionalGetTest extends AbstractCrudTest {
+    @Autowired
+    public ConditionalGetTest(WebApplicationContext context,
+                              UserService userService,
+                              ProjectService projectService,
+                              UserProjectService userProjectService,
+                              ListService listService,
+                              TaskService taskService,
+                              TagService tagService,
+                              MessageService messageService) {
+        super(context, userService, projectService, userProjectService,
+                listService, taskService, tagService, messageService);
+    }
+
+    private String getETag(String url, User user) throws Exception {
+        String etag = mvc.perform(get(url).with(user(new UserSecurity(user))))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-cache")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertNotNull(etag);
+        return etag;
+    }
+
+    @Test
+    @DisplayName("the board is not sent again until the project changes")
+    public void getProject_notModified() throws Exception {
+        User user = userService.save(new User("etag_1", "Test1", "etag_1@gmail.com"));
+        Project project = createProject(user, UserRole.ADMIN);
+        String url = "/data/project/" + project.getId();
+        String etag = getETag(url, user);
+
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag).with(user(new UserSecurity(user))))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        listService.save(new TaskList(null, "changed", project));
+        String changedETag = getETag(url, user);
+        Assertions.assertNotEquals(etag, changedETag);
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag).with(user(new UserSecurity(user))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("ETags are not shared between users")
+    public void getTask_notModifiedPerUser() throws Exception {
+        User user = userService.save(new User("etag_2", "Test1", "etag_2@gmail.com"));
+        User guest = userService.save(new User("etag_3", "Test1", "etag_3@gmail.com"));
+        Project project = createProject(user, UserRole.ADMIN);
+        userProjectService.save(new UserProject(null, UserRole.GUEST, true, guest, project));
+        TaskList taskList = listService.save(new TaskList(null, "etag", project));
+        Task task = taskService.save(new Task(null, "task", LocalDate.now(), LocalDate.now(), 1,
+                "description", taskList, null, user));
+        String url = "/data/task/" + task.getId();
+        String etag = getETag(url, user);
+
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag).with(user(new UserSecurity(user))))
+                .andExpect(status().isNotModified());
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag).with(user(new UserSecurity(guest))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("projects of the user are not sent again until one of them changes")
+    public void getAllProjects_notModified() throws Exception {
+        User user = userService.save(new User("etag_4", "Test1", "etag_4@gmail.com"));
+        createProject(user, UserRole.ADMIN);
+        String url = "/data/project/all";
+        String etag = getETag(url, user);
+
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag).with(user(new UserSecurity(user))))
+                .andExpect(status().isNotModified());
+
+        createProject(user, UserRole.ADMIN);
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag).with(user(new UserSecurity(user))))
+                .andExpect(status().isOk());
+    }
+}
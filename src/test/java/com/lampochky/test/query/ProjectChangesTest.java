@@ -0,0 +1,177 @@
+package com.lampochky.test.query;
+
+import com.lampochky.Application;
+import com.lampochky.config.security.UserSecurity;
+import com.lampochky.database.entity.*;
+import com.lampochky.database.repository.ProjectChangeRepository;
+import com.lampochky.database.service.*;
+import com.lampochky.test.crud.AbstractCrudTest;
+import com.lampochky.validation.Error;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(locations = "classpath:application-test.properties")
+@SpringBootTest(classes = Application.class)
+public class ProjectChangesTest extends AbstractCrudTest {
+    private final BoardService boardService;
+    private final DeletedEntityPurger purger;
+    private final ProjectChangeRepository changeRepository;
+
+    @Autowired
+    public ProjectChangesTest(WebApplicationContext context,
+                              UserService userService,
+                              ProjectService projectService,
+                              UserProjectService userProjectService,
+                              ListService listService,
+                              TaskService taskService,
+                              TagService tagService,
+                              MessageService messageService,
+                              BoardService boardService,
+                              DeletedEntityPurger purger,
+                              ProjectChangeRepository changeRepository) {
+        super(context, userService, projectService, userProjectService,
+                listService, taskService, tagService, messageService);
+        this.boardService = boardService;
+        this.purger = purger;
+        this.changeRepository = changeRepository;
+    }
+
+    private Task createTask(User user, TaskList taskList) {
+        return taskService.save(new Task(null, "task", LocalDate.now(), LocalDate.now(), 1,
+                "description", taskList, null, user));
+    }
+
+    @Test
+    @DisplayName("only entities changed after the revision are returned")
+    public void findChanges_sinceRevision() {
+        User user = userService.save(new User("changes_1", "Test1", "changes_1@gmail.com"));
+        Project project = createProject(user, UserRole.ADMIN);
+        TaskList oldList = listService.save(new TaskList(null, "old", project));
+        Task oldTask = createTask(user, oldList);
+        long since = boardService.findByProjectId(project.getId())
+                .map(BoardSnapshot::getRevision).orElse(-1L);
+        Assertions.assertEquals(3, since);
+
+        TaskList newList = listService.save(new TaskList(null, "new", project));
+        Task newTask = createTask(user, newList);
+        newTask.setName("renamed");
+        newTask = taskService.save(newTask);
+        Tag tag = tagService.save(new Tag("tag", project));
+        Message message = messageService.save(new Message("text", LocalDateTime.now(), user, newTask));
+        taskService.delete(oldTask);
+
+        BoardChanges changes = boardService.findChanges(project, since);
+        Assertions.assertEquals(since + 6, changes.getRevision());
+        Assertions.assertFalse(changes.isProjectChanged());
+        Assertions.assertEquals(Collections.singletonList(newList.getId()),
+                changes.getLists().stream().map(TaskList::getId).collect(Collectors.toList()));
+        Assertions.assertEquals(1, changes.getTasks().size());
+        Assertions.assertEquals("renamed", changes.getTasks().get(0).getName());
+        Assertions.assertEquals(Collections.singletonList(tag.getId()),
+                changes.getTags().stream().map(Tag::getId).collect(Collectors.toList()));
+        Assertions.assertEquals(Collections.singletonList(message.getId()),
+                changes.getMessages().stream().map(Message::getId).collect(Collectors.toList()));
+        Assertions.assertTrue(changes.getMembers().isEmpty());
+        Assertions.assertEquals(Collections.singletonList(oldTask.getId()), changes.getDeletedIds(ChangeType.TASK));
+
+        BoardChanges noChanges = boardService.findChanges(project, changes.getRevision());
+        Assertions.assertEquals(changes.getRevision(), noChanges.getRevision());
+        Assertions.assertTrue(noChanges.getLists().isEmpty());
+        Assertions.assertTrue(noChanges.getTasks().isEmpty());
+        Assertions.assertTrue(noChanges.getDeletedIds(ChangeType.TASK).isEmpty());
+    }
+
+    @Test
+    @DisplayName("a task moved to another project is deleted from the previous one")
+    public void findChanges_taskMoved() {
+        User user = userService.save(new User("changes_2", "Test1", "changes_2@gmail.com"));
+        Project source = createProject(user, UserRole.ADMIN);
+        Project target = createProject(user, UserRole.ADMIN);
+        Task task = createTask(user, listService.save(new TaskList(null, "source", source)));
+        Message message = messageService.save(new Message("text", LocalDateTime.now(), user, task));
+        TaskList targetList = listService.save(new TaskList(null, "target", target));
+        long sourceSince = boardService.findChanges(source, 0).getRevision();
+        long targetSince = boardService.findChanges(target, 0).getRevision();
+
+        task.setList(targetList);
+        taskService.save(task);
+
+        BoardChanges sourceChanges = boardService.findChanges(source, sourceSince);
+        Assertions.assertTrue(sourceChanges.getTasks().isEmpty());
+        Assertions.assertEquals(Collections.singletonList(task.getId()), sourceChanges.getDeletedIds(ChangeType.TASK));
+        BoardChanges targetChanges = boardService.findChanges(target, targetSince);
+        Assertions.assertEquals(Collections.singletonList(task.getId()),
+                targetChanges.getTasks().stream().map(Task::getId).collect(Collectors.toList()));
+        Assertions.assertEquals(Collections.singletonList(message.getId()),
+                targetChanges.getMessages().stream().map(Message::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("changes are served to members and future revisions are rejected")
+    public void getChanges() throws Exception {
+        User user = userService.save(new User("changes_3", "Test1", "changes_3@gmail.com"));
+        User member = userService.save(new User("changes_4", "Test1", "changes_4@gmail.com"));
+        Project project = createProject(user, UserRole.ADMIN);
+        UserProject relation = userProjectService.save(new UserProject(null, UserRole.GUEST, false, member, project));
+        TaskList taskList = listService.save(new TaskList(null, "served", project));
+        project.setName("renamed");
+        projectService.save(project);
+        userProjectService.delete(relation);
+
+        mvc.perform(get("/data/project/{id}/changes", project.getId()).param("since", "1")
+                        .with(user(new UserSecurity(user))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.revision", is(5)))
+                .andExpect(jsonPath("$.name", is("renamed")))
+                .andExpect(jsonPath("$.lists[*].id", contains(taskList.getId())))
+                .andExpect(jsonPath("$.users", empty()))
+                .andExpect(jsonPath("$.deleted.users", contains(member.getId())));
+        mvc.perform(get("/data/project/{id}/changes", project.getId()).param("since", "6")
+                        .with(user(new UserSecurity(user))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[*].errName", contains(Error.REVISION_INVALID.name())));
+        mvc.perform(get("/data/project/{id}/changes", project.getId()).param("since", "0")
+                        .with(user(new UserSecurity(member))))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("changes out of the kept revisions are purged and served as expired")
+    public void getChanges_expired() throws Exception {
+        User user = userService.save(new User("changes_5", "Test1", "changes_5@gmail.com"));
+        Project project = createProject(user, UserRole.ADMIN);
+        for(int i = 0; i < 24; i++) {
+            listService.save(new TaskList(null, "list " + i, project));
+        }
+        long revision = boardService.findChanges(project, 0).getRevision();
+        Assertions.assertEquals(25, revision);
+
+        purger.purge();
+
+        Assertions.assertEquals(20, changeRepository.findAllInRevisions(project.getId(), 0L, revision).size());
+        mvc.perform(get("/data/project/{id}/changes", project.getId()).param("since", "4")
+                        .with(user(new UserSecurity(user))))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.errors[*].errName", contains(Error.CHANGES_EXPIRED.name())));
+        mvc.perform(get("/data/project/{id}/changes", project.getId()).param("since", "5")
+                        .with(user(new UserSecurity(user))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lists", hasSize(20)));
+    }
+}
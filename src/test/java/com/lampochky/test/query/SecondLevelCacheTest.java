@@ -0,0 +1,81 @@
+package com.lampochky.test.query;
+
+import com.lampochky.Application;
+import com.lampochky.database.entity.*;
+import com.lampochky.database.service.ListService;
+import com.lampochky.database.service.ProjectService;
+import com.lampochky.database.service.UserProjectService;
+import com.lampochky.database.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.persistence.EntityManagerFactory;
+
+@TestPropertySource(locations = "classpath:application-test.properties")
+@SpringBootTest(classes = Application.class)
+public class SecondLevelCacheTest {
+    private final UserService userService;
+    private final ProjectService projectService;
+    private final ListService listService;
+    private final UserProjectService userProjectService;
+    private final MeterRegistry meterRegistry;
+    private final Statistics statistics;
+
+    @Autowired
+    public SecondLevelCacheTest(UserService userService,
+                                ProjectService projectService,
+                                ListService listService,
+                                UserProjectService userProjectService,
+                                MeterRegistry meterRegistry,
+                                EntityManagerFactory entityManagerFactory) {
+        this.userService = userService;
+        this.projectService = projectService;
+        this.listService = listService;
+        this.userProjectService = userProjectService;
+        this.meterRegistry = meterRegistry;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("lists and their projects are read from the second-level cache")
+    public void findList_cached() {
+        Project project = projectService.save(new Project(null, "cached"));
+        TaskList taskList = listService.save(new TaskList(null, "cached", project));
+        listService.findById(taskList.getId());
+
+        long before = statistics.getPrepareStatementCount();
+        TaskList cached = listService.findById(taskList.getId()).orElse(null);
+
+        Assertions.assertNotNull(cached);
+        Assertions.assertEquals(project.getId(), cached.getProject().getId());
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount() - before);
+        Assertions.assertTrue(meterRegistry.get("hibernate.cache.requests")
+                .tag("region", "list").tag("result", "hit").functionCounter().count() > 0);
+    }
+
+    @Test
+    @DisplayName("membership lookups are answered by the query cache until the membership changes")
+    public void findByUserAndProject_cached() {
+        User user = userService.save(new User("cached_member", "Test1", "cached_member@gmail.com"));
+        Project project = projectService.save(new Project(null, "cached"));
+        userProjectService.save(new UserProject(null, UserRole.DEVELOPER, true, user, project));
+        userProjectService.findByUserAndProject(user, project);
+
+        long hits = statistics.getQueryCacheHitCount();
+        UserProject relation = userProjectService.findByUserAndProject(user, project).orElse(null);
+        Assertions.assertNotNull(relation);
+        Assertions.assertEquals(hits + 1, statistics.getQueryCacheHitCount());
+
+        relation.setRole(UserRole.ADMIN);
+        userProjectService.save(relation);
+        Assertions.assertEquals(UserRole.ADMIN, userProjectService.findByUserAndProject(user, project)
+                .map(UserProject::getRole).orElse(null));
+    }
+}
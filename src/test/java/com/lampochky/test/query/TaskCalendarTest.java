@@ -0,0 +1,132 @@
+package com.lampochky.test.query;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.lampochky.Application;
+import com.lampochky.config.security.UserSecurity;
+import com.lampochky.database.entity.*;
+import com.lampochky.database.service.*;
+import com.lampochky.dto.DtoConstants;
+import com.lampochky.test.crud.AbstractCrudTest;
+import com.lampochky.validation.Error;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@TestPropertySource(locations = "classpath:application-test.properties")
+@SpringBootTest(classes = Application.class)
+public class TaskCalendarTest extends AbstractCrudTest {
+    @Autowired
+    public TaskCalendarTest(WebApplicationContext context,
+                            UserService userService,
+                            ProjectService projectService,
+                            UserProjectService userProjectService,
+                            ListService listService,
+                            TaskService taskService,
+                            TagService tagService,
+                            MessageService messageService) {
+        super(context, userService, projectService, userProjectService,
+                listService, taskService, tagService, messageService);
+    }
+
+    private Task createTask(User creator, User assigned, TaskList taskList, int start, int finish) {
+        return taskService.save(new Task(null, "task", LocalDate.now().plusDays(start),
+                LocalDate.now().plusDays(finish), 1, "description", taskList, assigned, creator));
+    }
+
+    private List<Integer> streamIds(RequestBuilder request) throws Exception {
+        MvcResult result = mvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String content = mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", startsWith(DtoConstants.ndjson)))
+                .andReturn().getResponse().getContentAsString();
+        List<Integer> ids = new ArrayList<>();
+        for(String line: content.trim().split("\n")) {
+            if(!line.isEmpty()) {
+                JsonNode task = mapper.readTree(line);
+                ids.add(task.get("id").asInt());
+            }
+        }
+        return ids;
+    }
+
+    private String day(int days) {
+        return LocalDate.now().plusDays(days).format(dateFormat);
+    }
+
+    @Test
+    @DisplayName("tasks of a project overlapping the period are streamed by due date")
+    public void getInProject() throws Exception {
+        User user = userService.save(new User("calendar_1", "Test1", "calendar_1@gmail.com"));
+        User stranger = userService.save(new User("calendar_2", "Test1", "calendar_2@gmail.com"));
+        Project project = createProject(user, UserRole.GUEST);
+        TaskList first = listService.save(new TaskList(null, "first", project));
+        TaskList second = listService.save(new TaskList(null, "second", project));
+        TaskList deleted = listService.save(new TaskList(null, "deleted", project));
+        Task spanning = createTask(user, null, first, 0, 20);
+        Task endsInside = createTask(user, user, second, 3, 11);
+        Task startsInside = createTask(user, null, first, 14, 16);
+        Task overdue = createTask(user, user, second, -5, -1);
+        createTask(user, null, first, 0, 9);
+        createTask(user, null, second, 16, 18);
+        createTask(user, null, deleted, 12, 12);
+        listService.delete(deleted);
+
+        Assertions.assertEquals(Arrays.asList(endsInside.getId(), startsInside.getId(), spanning.getId()),
+                streamIds(get("/data/task/calendar/in_project").param("id", project.getId().toString())
+                        .param("from", day(10)).param("to", day(15)).with(user(new UserSecurity(user)))));
+        Assertions.assertEquals(Arrays.asList(overdue.getId()),
+                streamIds(get("/data/task/calendar/overdue/in_project").param("id", project.getId().toString())
+                        .with(user(new UserSecurity(user)))));
+
+        mvc.perform(get("/data/task/calendar/in_project").param("id", project.getId().toString())
+                        .param("from", day(10)).param("to", day(15)).with(user(new UserSecurity(stranger))))
+                .andExpect(status().isForbidden());
+        MvcResult result = mvc.perform(get("/data/task/calendar/in_project").param("id", project.getId().toString())
+                        .param("from", day(15)).param("to", day(10)).with(user(new UserSecurity(user))))
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[*].errName", contains(Error.PERIOD_INVALID.name())));
+    }
+
+    @Test
+    @DisplayName("tasks assigned to the user are streamed across the projects the user is a member of")
+    public void getAssigned() throws Exception {
+        User user = userService.save(new User("calendar_3", "Test1", "calendar_3@gmail.com"));
+        User other = userService.save(new User("calendar_4", "Test1", "calendar_4@gmail.com"));
+        TaskList taskList = listService.save(new TaskList(null, "mine", createProject(user, UserRole.GUEST)));
+        TaskList otherList = listService.save(new TaskList(null, "mine", createProject(user, UserRole.GUEST)));
+        TaskList foreignList = listService.save(new TaskList(null, "foreign", createProject(other, UserRole.GUEST)));
+        Task later = createTask(other, user, taskList, 1, 4);
+        Task sooner = createTask(other, user, otherList, 0, 2);
+        Task overdue = createTask(other, user, otherList, -3, -2);
+        createTask(other, other, taskList, 1, 3);
+        createTask(other, user, foreignList, 1, 3);
+
+        Assertions.assertEquals(Arrays.asList(sooner.getId(), later.getId()),
+                streamIds(get("/data/task/calendar/assigned").param("from", day(0)).param("to", day(7))
+                        .with(user(new UserSecurity(user)))));
+        Assertions.assertEquals(Arrays.asList(overdue.getId()),
+                streamIds(get("/data/task/calendar/overdue/assigned").with(user(new UserSecurity(user)))));
+    }
+}
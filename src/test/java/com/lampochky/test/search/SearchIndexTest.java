@@ -0,0 +1,138 @@
+package com.lampochky.test.search;
+
+import com.lampochky.Application;
+import com.lampochky.config.security.UserSecurity;
+import com.lampochky.database.entity.*;
+import com.lampochky.database.service.*;
+import com.lampochky.search.SearchIndex;
+import com.lampochky.test.crud.AbstractCrudTest;
+import com.lampochky.validation.Error;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(locations = "classpath:application-test.properties", properties = "search.index.max-projects=2")
+@SpringBootTest(classes = Application.class)
+public class SearchIndexTest extends AbstractCrudTest {
+    private final SearchIndex searchIndex;
+
+    @Autowired
+    public SearchIndexTest(WebApplicationContext context,
+                           UserService userService,
+                           ProjectService projectService,
+                           UserProjectService userProjectService,
+                           ListService listService,
+                           TaskService taskService,
+                           TagService tagService,
+                           MessageService messageService,
+                           SearchIndex searchIndex) {
+        super(context, userService, projectService, userProjectService,
+                listService, taskService, tagService, messageService);
+        this.searchIndex = searchIndex;
+    }
+
+    private Task createTask(User user, TaskList taskList, String name, String description) {
+        return taskService.save(new Task(null, name, LocalDate.now(), LocalDate.now(), 1,
+                description, taskList, null, user));
+    }
+
+    private ResultActions search(User user, Project project, String query) throws Exception {
+        return mvc.perform(get("/data/search").param("project", project.getId().toString()).param("q", query)
+                .with(user(new UserSecurity(user))));
+    }
+
+    @Test
+    @DisplayName("tasks and messages are found by words and prefixes, names rank first")
+    public void search_ranked() throws Exception {
+        User user = userService.save(new User("search_1", "Test1", "search_1@gmail.com"));
+        User stranger = userService.save(new User("search_2", "Test1", "search_2@gmail.com"));
+        Project project = createProject(user, UserRole.GUEST);
+        TaskList taskList = listService.save(new TaskList(null, "search", project));
+        Task named = createTask(user, taskList, "Invoice export", "monthly report");
+        Task described = createTask(user, taskList, "Report", "send the invoice, then archive it");
+        createTask(user, taskList, "Unrelated", "nothing to see");
+        Message message = messageService.save(new Message("Is the invoices folder shared?",
+                LocalDateTime.now(), user, described));
+
+        search(user, project, "invoice")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits[*].id", contains(named.getId(), described.getId(), message.getId())))
+                .andExpect(jsonPath("$.hits[*].type", contains("TASK", "TASK", "MESSAGE")))
+                .andExpect(jsonPath("$.hits[2].taskId", is(described.getId())));
+        search(user, project, "Repo")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits[*].id", contains(described.getId(), named.getId())));
+        search(user, project, "invoice archive")
+                .andExpect(jsonPath("$.hits[*].id", contains(described.getId())));
+
+        search(stranger, project, "invoice")
+                .andExpect(status().isForbidden());
+        search(user, project, "?!")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[*].errName", contains(Error.SEARCH_QUERY_INVALID.name())));
+    }
+
+    @Test
+    @DisplayName("committed changes are applied to the index of the project")
+    public void search_updated() throws Exception {
+        User user = userService.save(new User("search_3", "Test1", "search_3@gmail.com"));
+        Project project = createProject(user, UserRole.GUEST);
+        TaskList taskList = listService.save(new TaskList(null, "search", project));
+        TaskList deletedList = listService.save(new TaskList(null, "deleted", project));
+        Task task = createTask(user, taskList, "Draft", "budget");
+        Task deletedTask = createTask(user, taskList, "Budget", "draft");
+        createTask(user, deletedList, "Budget", "plan");
+        search(user, project, "budget")
+                .andExpect(jsonPath("$.hits", hasSize(3)));
+        Assertions.assertTrue(searchIndex.isIndexed(project.getId()));
+
+        task.setName("Forecast");
+        task = taskService.save(task);
+        Message message = messageService.save(new Message("forecast approved", LocalDateTime.now(), user, task));
+        taskService.delete(deletedTask);
+        listService.delete(deletedList);
+
+        search(user, project, "budget")
+                .andExpect(jsonPath("$.hits[*].id", contains(task.getId())));
+        search(user, project, "draft")
+                .andExpect(jsonPath("$.hits", empty()));
+        search(user, project, "forecast")
+                .andExpect(jsonPath("$.hits[*].id", contains(task.getId(), message.getId())));
+    }
+
+    @Test
+    @DisplayName("indexes of the least recently searched projects are dropped over the limit")
+    public void search_bounded() throws Exception {
+        User user = userService.save(new User("search_4", "Test1", "search_4@gmail.com"));
+        Project first = createProject(user, UserRole.GUEST);
+        Project second = createProject(user, UserRole.GUEST);
+        Project third = createProject(user, UserRole.GUEST);
+        for(Project project: new Project[]{first, second, third}) {
+            createTask(user, listService.save(new TaskList(null, "search", project)), "Milestone", "");
+        }
+
+        search(user, first, "milestone").andExpect(jsonPath("$.hits", hasSize(1)));
+        search(user, second, "milestone").andExpect(jsonPath("$.hits", hasSize(1)));
+        search(user, first, "milestone").andExpect(jsonPath("$.hits", hasSize(1)));
+        search(user, third, "milestone").andExpect(jsonPath("$.hits", hasSize(1)));
+
+        Assertions.assertTrue(searchIndex.isIndexed(first.getId()));
+        Assertions.assertFalse(searchIndex.isIndexed(second.getId()));
+        Assertions.assertTrue(searchIndex.isIndexed(third.getId()));
+        Assertions.assertEquals(2, searchIndex.getProjectCount());
+    }
+}